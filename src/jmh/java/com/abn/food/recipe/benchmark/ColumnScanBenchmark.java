@@ -0,0 +1,84 @@
+package com.abn.food.recipe.benchmark;
+
+import static java.util.Collections.emptySet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.search.RecipeColumns;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.search.RecipeSearchIndex;
+
+/**
+ * Selection of vegetarian food recipes with a number of servings: by a stream over food recipe entities as
+ * the repository returned them, by scanning dish type and servings columns, and by dish type and servings bitmaps
+ * of the search index.
+ *
+ * @author Akhtar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ColumnScanBenchmark {
+
+    private static final int SERVINGS = 4;
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    private final RecipeSearchCriteria criteria = new RecipeSearchCriteria(true, SERVINGS, emptySet(), emptySet(), emptySet());
+
+    private List<FoodRecipeEntity> recipeEntities;
+    private RecipeColumns recipeColumns;
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @Setup(Level.Trial)
+    public void loadCatalog() {
+        SyntheticCatalog catalog = new SyntheticCatalog(1, 0.1);
+        recipeEntities = new ArrayList<>(catalogSize);
+        recipeColumns = new RecipeColumns();
+        recipeSearchIndex = new RecipeSearchIndex(true, 0, 0, false);
+        for (long id = 1; id <= catalogSize; id++) {
+            FoodRecipeEntity recipeEntity = catalog.recipe(id);
+            recipeEntities.add(recipeEntity);
+            recipeColumns.put((int) id, recipeEntity.getDishType(), recipeEntity.getServings());
+            recipeSearchIndex.index(recipeEntity);
+        }
+    }
+
+    @Benchmark
+    public RoaringBitmap filterEntityStream() {
+        RoaringBitmap selectedIds = new RoaringBitmap();
+        recipeEntities.stream()
+            .filter(entity -> !entity.getDishType().equals(DishType.NON_VEGETARIAN))
+            .filter(entity -> criteria.getNumberOfServings().equals(entity.getServings()))
+            .forEach(entity -> selectedIds.add(entity.getId().intValue()));
+        return selectedIds;
+    }
+
+    @Benchmark
+    public RoaringBitmap scanColumns() {
+        return recipeColumns.select(true, SERVINGS);
+    }
+
+    @Benchmark
+    public RoaringBitmap combineIndexBitmaps() {
+        return recipeSearchIndex.search(criteria);
+    }
+}
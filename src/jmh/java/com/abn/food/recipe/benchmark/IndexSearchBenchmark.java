@@ -0,0 +1,65 @@
+package com.abn.food.recipe.benchmark;
+
+import static java.util.Collections.emptySet;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.search.RecipeSearchIndex;
+
+/**
+ * Resolution of filters to all matched food recipe ids by the search index, sequentially and in parallel segments.
+ * Filters are broad, so that resolution covers most of the catalog.
+ *
+ * @author Akhtar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class IndexSearchBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"0", "4"})
+    private int parallelism;
+
+    private final RecipeSearchCriteria criteria = new RecipeSearchCriteria(true, null, emptySet(),
+        Set.of(SyntheticCatalog.SELECTIVE_INGREDIENT), Set.of("STOVE"));
+
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @Setup(Level.Trial)
+    public void indexCatalog() {
+        SyntheticCatalog catalog = new SyntheticCatalog(5, 0.1);
+        recipeSearchIndex = new RecipeSearchIndex(true, parallelism, 0, false);
+        for (long id = 1; id <= catalogSize; id++) {
+            recipeSearchIndex.index(catalog.recipe(id));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeIndex() {
+        recipeSearchIndex.close();
+    }
+
+    @Benchmark
+    public RoaringBitmap resolveFilters() {
+        return recipeSearchIndex.search(criteria);
+    }
+}
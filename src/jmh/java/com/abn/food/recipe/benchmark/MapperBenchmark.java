@@ -0,0 +1,71 @@
+package com.abn.food.recipe.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
+import com.abn.food.recipe.mapper.FoodRecipeMapper;
+import com.abn.food.recipe.mapper.IngredientReferenceCache;
+import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.search.IngredientNameTrie;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Mapping between food recipe entities and models, with ingredient references resolved from a warmed up cache.
+ *
+ * @author Akhtar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"5", "20"})
+    private int ingredientsPerRecipe;
+
+    private FoodRecipeMapper foodRecipeMapper;
+    private FoodRecipeEntity recipeEntity;
+    private FoodRecipe foodRecipe;
+
+    @Setup(Level.Trial)
+    public void createMapper() {
+        SyntheticCatalog catalog = new SyntheticCatalog(ingredientsPerRecipe, 0.1);
+        IngredientReferenceCache ingredientReferenceCache =
+            new IngredientReferenceCache(catalog.ingredientReferenceRepository(), null,
+                new IngredientNameTrie(catalog.ingredientReferenceRepository()), new SimpleMeterRegistry(), 10000);
+        ingredientReferenceCache.warmUp();
+        foodRecipeMapper = new FoodRecipeMapper(ingredientReferenceCache, new FoodRecipeLinkFactory(), new SimpleMeterRegistry());
+        recipeEntity = catalog.recipe(42L);
+        foodRecipe = catalog.foodRecipe(42L);
+    }
+
+    @Benchmark
+    public FoodRecipe formFoodRecipeSummary() {
+        return foodRecipeMapper.formFoodRecipeModel(recipeEntity, false);
+    }
+
+    @Benchmark
+    public FoodRecipe formFoodRecipeModel() {
+        return foodRecipeMapper.formFoodRecipeModel(recipeEntity, true);
+    }
+
+    @Benchmark
+    public FoodRecipeEntity formFoodRecipeEntity() {
+        FoodRecipeEntity newEntity = new FoodRecipeEntity();
+        foodRecipeMapper.formFoodRecipeEntity(foodRecipe, newEntity, null);
+        return newEntity;
+    }
+}
@@ -0,0 +1,151 @@
+package com.abn.food.recipe.benchmark;
+
+import static java.util.Collections.emptySet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
+import com.abn.food.recipe.mapper.FoodRecipeMapper;
+import com.abn.food.recipe.mapper.IngredientReferenceCache;
+import com.abn.food.recipe.persistance.SqlStatementCounter;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.repository.FoodRecipeRepository;
+import com.abn.food.recipe.search.IngredientNameTrie;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.search.RecipeSearchIndex;
+import com.abn.food.recipe.service.FoodRecipeServiceImpl;
+import com.abn.food.recipe.service.RecipeCatalog;
+import com.abn.food.recipe.service.RecipeCatalogVersion;
+import com.abn.food.recipe.service.RecipePage;
+import com.abn.food.recipe.service.RecipeResponseCache;
+import com.abn.food.recipe.service.RecipeSearchCache;
+import com.abn.food.recipe.service.RecipeSearchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Search of a page of food recipes by ingredient, through the search index and mapping of matched food recipes.
+ * Catalog size, ingredients per food recipe and selectivity of the searched ingredient are varied, and the search
+ * is measured with and without the search page cache, and with matched food recipes read from the catalog snapshot
+ * or the memory-mapped store instead of the repository.
+ *
+ * @author Akhtar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"5", "20"})
+    private int ingredientsPerRecipe;
+
+    @Param({"0.001", "0.1", "0.5"})
+    private double selectivity;
+
+    private final RecipeSearchCriteria criteria =
+        new RecipeSearchCriteria(null, null, Set.of(SyntheticCatalog.SELECTIVE_INGREDIENT), emptySet(), emptySet());
+
+    private FoodRecipeServiceImpl uncachedService;
+    private FoodRecipeServiceImpl cachedService;
+    private FoodRecipeServiceImpl snapshotService;
+    private FoodRecipeServiceImpl mappedStoreService;
+    private Path storeDirectory;
+    private RecipeCatalog mappedCatalog;
+
+    @Setup(Level.Trial)
+    public void indexCatalog() throws IOException {
+        SyntheticCatalog catalog = new SyntheticCatalog(ingredientsPerRecipe, selectivity);
+        RecipeSearchIndex recipeSearchIndex = new RecipeSearchIndex(true, 0, 0, false);
+        RecipeCatalog recipeCatalog = new RecipeCatalog(null, new SimpleMeterRegistry(), true, "", 0.5);
+        storeDirectory = Files.createTempDirectory("recipe-store");
+        mappedCatalog = new RecipeCatalog(null, new SimpleMeterRegistry(), true, storeDirectory.toString(), 0.5);
+        List<FoodRecipeEntity> batch = new ArrayList<>();
+        for (long id = 1; id <= catalogSize; id++) {
+            FoodRecipeEntity recipeEntity = catalog.recipe(id);
+            recipeSearchIndex.index(recipeEntity);
+            batch.add(recipeEntity);
+            if (batch.size() == BATCH_SIZE || id == catalogSize) {
+                recipeCatalog.put(batch);
+                mappedCatalog.put(batch);
+                batch.clear();
+            }
+        }
+        FoodRecipeLinkFactory foodRecipeLinkFactory = new FoodRecipeLinkFactory();
+        FoodRecipeMapper foodRecipeMapper = new FoodRecipeMapper(
+            new IngredientReferenceCache(catalog.ingredientReferenceRepository(), null,
+                new IngredientNameTrie(catalog.ingredientReferenceRepository()), new SimpleMeterRegistry(), 10000),
+            foodRecipeLinkFactory, new SimpleMeterRegistry());
+        FoodRecipeRepository foodRecipeRepository = catalog.foodRecipeRepository();
+        RecipeSearchMetrics recipeSearchMetrics = new RecipeSearchMetrics(new SimpleMeterRegistry(), new SqlStatementCounter());
+        RecipeResponseCache recipeResponseCache = new RecipeResponseCache(foodRecipeLinkFactory, new SimpleMeterRegistry(), 0);
+        uncachedService = new FoodRecipeServiceImpl(foodRecipeMapper, foodRecipeRepository, recipeSearchIndex,
+            new RecipeCatalogVersion(), new RecipeSearchCache(foodRecipeLinkFactory, new SimpleMeterRegistry(), 0), recipeSearchMetrics,
+            new RecipeCatalog(null, new SimpleMeterRegistry(), false, "", 0.5), recipeResponseCache);
+        cachedService = new FoodRecipeServiceImpl(foodRecipeMapper, foodRecipeRepository, recipeSearchIndex,
+            new RecipeCatalogVersion(), new RecipeSearchCache(foodRecipeLinkFactory, new SimpleMeterRegistry(), 16777216), recipeSearchMetrics,
+            new RecipeCatalog(null, new SimpleMeterRegistry(), false, "", 0.5), recipeResponseCache);
+        snapshotService = new FoodRecipeServiceImpl(foodRecipeMapper, foodRecipeRepository, recipeSearchIndex,
+            new RecipeCatalogVersion(), new RecipeSearchCache(foodRecipeLinkFactory, new SimpleMeterRegistry(), 0), recipeSearchMetrics,
+            recipeCatalog, recipeResponseCache);
+        mappedStoreService = new FoodRecipeServiceImpl(foodRecipeMapper, foodRecipeRepository, recipeSearchIndex,
+            new RecipeCatalogVersion(), new RecipeSearchCache(foodRecipeLinkFactory, new SimpleMeterRegistry(), 0), recipeSearchMetrics,
+            mappedCatalog, recipeResponseCache);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStore() throws IOException {
+        mappedCatalog.close();
+        try (Stream<Path> files = Files.list(storeDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(storeDirectory);
+    }
+
+    @Benchmark
+    public RecipePage searchByIngredient() {
+        return uncachedService.getAllFoodRecipes(criteria, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public RecipePage searchByIngredientCached() {
+        return cachedService.getAllFoodRecipes(criteria, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public RecipePage searchByIngredientFromSnapshot() {
+        return snapshotService.getAllFoodRecipes(criteria, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public RecipePage searchByIngredientFromMappedStore() {
+        return mappedStoreService.getAllFoodRecipes(criteria, null, PAGE_SIZE);
+    }
+}
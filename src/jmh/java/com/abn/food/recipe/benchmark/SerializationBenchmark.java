@@ -0,0 +1,72 @@
+package com.abn.food.recipe.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
+import com.abn.food.recipe.mapper.FoodRecipeMapper;
+import com.abn.food.recipe.mapper.IngredientReferenceCache;
+import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.search.IngredientNameTrie;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * JSON serialization of a food recipe and of a page of food recipe summaries, as written to clients.
+ *
+ * @author Akhtar
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"5", "20"})
+    private int ingredientsPerRecipe;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private FoodRecipe foodRecipe;
+    private List<FoodRecipe> page;
+
+    @Setup(Level.Trial)
+    public void formFoodRecipes() {
+        SyntheticCatalog catalog = new SyntheticCatalog(ingredientsPerRecipe, 0.1);
+        FoodRecipeMapper foodRecipeMapper = new FoodRecipeMapper(
+            new IngredientReferenceCache(catalog.ingredientReferenceRepository(), null,
+                new IngredientNameTrie(catalog.ingredientReferenceRepository()), new SimpleMeterRegistry(), 10000),
+            new FoodRecipeLinkFactory(), new SimpleMeterRegistry());
+        foodRecipe = foodRecipeMapper.formFoodRecipeModel(catalog.recipe(42L), true);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            page.add(foodRecipeMapper.formFoodRecipeModel(catalog.recipe(id), false));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeFoodRecipe() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(foodRecipe);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,156 @@
+package com.abn.food.recipe.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.PageImpl;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.model.Ingredient;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.persistance.repository.FoodRecipeRepository;
+import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+
+/**
+ * Deterministic catalog of food recipes for benchmarks. Recipes are derived from their id, so that large catalogs
+ * do not have to be held in memory: only the search index keeps state, and recipes are materialized when loaded,
+ * as the database would hydrate them.
+ *
+ * @author Akhtar
+ */
+final class SyntheticCatalog {
+
+    static final String SELECTIVE_INGREDIENT = "SELECTIVE";
+    private static final int VOCABULARY_SIZE = 1000;
+    private static final int SELECTIVE_REFERENCE_ID = VOCABULARY_SIZE + 1;
+    private static final DishType[] DISH_TYPES = DishType.values();
+
+    private final int ingredientsPerRecipe;
+    private final double selectivity;
+    private final IngredientReferenceEntity[] references = new IngredientReferenceEntity[SELECTIVE_REFERENCE_ID + 1];
+
+    /**
+     * Constructor initialization
+     *
+     * @param ingredientsPerRecipe number of ingredients of every food recipe
+     * @param selectivity          fraction of food recipes with the selective ingredient
+     */
+    SyntheticCatalog(int ingredientsPerRecipe, double selectivity) {
+        this.ingredientsPerRecipe = ingredientsPerRecipe;
+        this.selectivity = selectivity;
+        for (int id = 1; id <= VOCABULARY_SIZE; id++) {
+            references[id] = reference(id, "ingredient-" + id);
+        }
+        references[SELECTIVE_REFERENCE_ID] = reference(SELECTIVE_REFERENCE_ID, SELECTIVE_INGREDIENT.toLowerCase());
+    }
+
+    /**
+     * Materialize food recipe with ingredients and their references
+     *
+     * @param id of the food recipe
+     * @return food recipe entity
+     */
+    FoodRecipeEntity recipe(long id) {
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        recipeEntity.setId(id);
+        recipeEntity.setRecipeName("Recipe " + id);
+        recipeEntity.setDishType(DISH_TYPES[(int) (id % DISH_TYPES.length)]);
+        recipeEntity.setServings((int) (id % 8) + 1);
+        recipeEntity.setInstructions("Cook ingredient-" + (id % VOCABULARY_SIZE) + " on stove for " + (id % 60) + " minutes");
+        List<IngredientEntity> ingredients = new ArrayList<>(ingredientsPerRecipe);
+        for (int i = 0; i < ingredientsPerRecipe; i++) {
+            IngredientEntity ingredientEntity = new IngredientEntity();
+            ingredientEntity.setId(id * ingredientsPerRecipe + i);
+            ingredientEntity.setQuantity(i + 1);
+            ingredientEntity.setUnit(i % 2 == 0 ? "gm" : null);
+            ingredientEntity.setReferenceEntity(i == 0 && isSelective(id) ? references[SELECTIVE_REFERENCE_ID] : references[referenceId(id, i)]);
+            ingredients.add(ingredientEntity.setFoodRecipe(recipeEntity));
+        }
+        recipeEntity.setIngredients(ingredients);
+        return recipeEntity;
+    }
+
+    /**
+     * Form food recipe model as requested by clients
+     *
+     * @param id of the food recipe
+     * @return food recipe model with ingredients and instructions
+     */
+    FoodRecipe foodRecipe(long id) {
+        FoodRecipeEntity recipeEntity = recipe(id);
+        FoodRecipe foodRecipe = new FoodRecipe();
+        foodRecipe.setRecipeName(recipeEntity.getRecipeName());
+        foodRecipe.setDishType(recipeEntity.getDishType());
+        foodRecipe.setServings(recipeEntity.getServings());
+        foodRecipe.setInstructions(recipeEntity.getInstructions());
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (IngredientEntity ingredientEntity : recipeEntity.getIngredients()) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setName(ingredientEntity.getReferenceEntity().getName());
+            ingredient.setQuantity(ingredientEntity.getQuantity());
+            ingredient.setUnit(ingredientEntity.getUnit());
+            ingredients.add(ingredient);
+        }
+        foodRecipe.setIngredients(ingredients);
+        return foodRecipe;
+    }
+
+    /**
+     * Food recipe repository loading recipes of this catalog by id, other operations are not supported
+     *
+     * @return food recipe repository
+     */
+    FoodRecipeRepository foodRecipeRepository() {
+        return (FoodRecipeRepository) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {FoodRecipeRepository.class},
+            (proxy, method, args) -> {
+                if ("findAllWithIngredients".equals(method.getName())) {
+                    List<FoodRecipeEntity> recipeEntities = new ArrayList<>();
+                    ((Collection<?>) args[0]).forEach(id -> recipeEntities.add(recipe((Long) id)));
+                    return recipeEntities;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    /**
+     * Ingredient reference repository listing all references of this catalog, other operations are not supported
+     *
+     * @return ingredient reference repository
+     */
+    IngredientReferenceRepository ingredientReferenceRepository() {
+        return (IngredientReferenceRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {IngredientReferenceRepository.class},
+            (proxy, method, args) -> {
+                if ("findAll".equals(method.getName()) && args != null && args.length == 1) {
+                    List<IngredientReferenceEntity> referenceEntities = new ArrayList<>();
+                    for (int id = 1; id < references.length; id++) {
+                        referenceEntities.add(references[id]);
+                    }
+                    return new PageImpl<>(referenceEntities);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private boolean isSelective(long id) {
+        // Multiplicative hash spreads selective recipes evenly over ids
+        return ((id * 2654435761L) & 0xFFFFFFFFL) < selectivity * 0x100000000L;
+    }
+
+    private static int referenceId(long id, int ingredient) {
+        // 131 is coprime to vocabulary size, so ingredients of a recipe are distinct
+        return (int) ((id * 7 + ingredient * 131L) % VOCABULARY_SIZE) + 1;
+    }
+
+    private static IngredientReferenceEntity reference(long id, String name) {
+        IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
+        referenceEntity.setId(id);
+        referenceEntity.setName(name);
+        return referenceEntity;
+    }
+}
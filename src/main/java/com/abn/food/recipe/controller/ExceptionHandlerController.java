@@ -55,6 +55,18 @@ public class ExceptionHandlerController extends ResponseEntityExceptionHandler {
         return formErrorResponse(message, ERROR_CODE, BAD_REQUEST);
     }
 
+    /**
+     * Handles invalid pagination parameters and converts into error.
+     *
+     * @param exception catches InvalidPageRequestException with reason
+     * @return error with code and description
+     */
+    @ExceptionHandler({InvalidPageRequestException.class})
+    public ResponseEntity<Object> handleInvalidPageRequestExceptions(InvalidPageRequestException exception) {
+        LOG.error("Invalid page request", exception);
+        return formErrorResponse(exception.getMessage(), ERROR_CODE, BAD_REQUEST);
+    }
+
     /**
      * Handles all Method ArgumentType Mismatch Exception and converts in error.
      *
@@ -1,13 +1,27 @@
 package com.abn.food.recipe.controller;
 
 import static java.util.stream.Collectors.toSet;
+import static org.springframework.hateoas.IanaLinkRelations.NEXT;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,9 +32,26 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.abn.food.recipe.model.BulkIngestReport;
 import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.model.RecipeFacets;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.search.TextNormalizer;
+import com.abn.food.recipe.service.FoodRecipeBulkServiceImpl;
 import com.abn.food.recipe.service.FoodRecipeServiceImpl;
+import com.abn.food.recipe.service.RecipePage;
+import com.abn.food.recipe.service.RecipeResponseCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -38,15 +69,35 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 @RequestMapping(value = "/abn/kitchen/foodRecipe", produces = APPLICATION_JSON_VALUE)
 public class FoodRecipeController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_TOP_INGREDIENTS = 100;
+
     private final FoodRecipeServiceImpl foodRecipeService;
+    private final FoodRecipeBulkServiceImpl foodRecipeBulkService;
+    private final ObjectReader foodRecipeReader;
+    private final RecipeResponseCache recipeResponseCache;
+    private final FoodRecipeJsonWriter foodRecipeJsonWriter;
+    private final FoodRecipeNdjsonWriter foodRecipeNdjsonWriter;
 
     /**
      * Constructor initialization
      *
-     * @param foodRecipeService food recipe service implementation
+     * @param foodRecipeService     food recipe service implementation
+     * @param foodRecipeBulkService food recipe bulk ingestion service implementation
+     * @param objectMapper          JSON object mapper to read food recipes one by one
+     * @param handlerAdapter        handler adapter with message converters to write food recipes as in JSON responses
+     * @param recipeResponseCache   cache of serialized food recipe responses
      */
-    public FoodRecipeController(FoodRecipeServiceImpl foodRecipeService) {
+    public FoodRecipeController(FoodRecipeServiceImpl foodRecipeService, FoodRecipeBulkServiceImpl foodRecipeBulkService,
+                                ObjectMapper objectMapper, ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+                                RecipeResponseCache recipeResponseCache) {
         this.foodRecipeService = foodRecipeService;
+        this.foodRecipeBulkService = foodRecipeBulkService;
+        this.foodRecipeReader = objectMapper.readerFor(FoodRecipe.class);
+        this.recipeResponseCache = recipeResponseCache;
+        this.foodRecipeJsonWriter = new FoodRecipeJsonWriter(handlerAdapter);
+        this.foodRecipeNdjsonWriter = new FoodRecipeNdjsonWriter(foodRecipeJsonWriter);
     }
 
     /**
@@ -68,6 +119,28 @@ public class FoodRecipeController {
         return foodRecipeService.saveFoodRecipe(foodRecipe);
     }
 
+    /**
+     * Save many new food recipes in inventory, sent as JSON array or as newline delimited JSON.
+     * Food recipes are read while being saved, so the request is never held in memory as a whole.
+     *
+     * @param body JSON array or newline delimited JSON of new food recipes
+     * @return counts, errors and throughput of ingestion
+     * @throws IOException if request body can not be read
+     */
+    @Operation(summary = "Save many new food recipes in inventory from JSON array or newline delimited JSON")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Recipes ingested, recipes which were not saved are reported as errors",
+            content = { @Content(mediaType = "application/json",
+                schema = @Schema(implementation = BulkIngestReport.class)) })
+    })
+    @PostMapping(value = "/bulk", consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE})
+    @ResponseStatus(OK)
+    public BulkIngestReport postFoodRecipes(InputStream body) throws IOException {
+        try (MappingIterator<FoodRecipe> foodRecipes = foodRecipeReader.readValues(body)) {
+            return foodRecipeBulkService.saveFoodRecipes(foodRecipes);
+        }
+    }
+
     /**
      * Update existing food recipe from inventory
      *
@@ -90,14 +163,20 @@ public class FoodRecipeController {
     }
 
     /**
-     * Get all matched food recipes from inventory
+     * Get page of matched food recipes from inventory. Link to next page is shared in Link header when more recipes are available.
+     * Version of the whole inventory is shared as ETag, so unchanged results are answered with 304 before searching.
+     * With a free text query, only the most relevant matched recipes up to limit are returned, without next page.
      *
      * @param isVegetarian       share food recipes which are only vegetarian(including vegan)
      * @param numberOfServings   recipes matching number of servings
      * @param includeIngredients recipes which has requested ingredients
      * @param excludeIngredients recipes which doesn't have requested ingredients
      * @param instructions       recipes which has instructions from keywords
-     * @return all food recipes
+     * @param query              free text to rank recipes by relevance of their names and instructions
+     * @param cursor             opaque cursor of next page shared in previous page
+     * @param limit              maximum number of recipes in page
+     * @param request            request to check If-None-Match header with
+     * @return matched food recipes of page
      */
     @Operation(summary = "Get all available food recipes from inventory based on filters")
     @ApiResponses(value = {
@@ -106,44 +185,200 @@ public class FoodRecipeController {
                 schema = @Schema(implementation = FoodRecipe.class)) })
     })
     @GetMapping
-    @ResponseStatus(OK)
-    public List<FoodRecipe> getFoodRecipes(@Parameter(description = "To query only vegetarian/vegan recipes")
-                                               @RequestParam(required = false) Boolean isVegetarian,
-                                           @Parameter(description = "To query number of servings recipes can be served")
-                                                @RequestParam(required = false) Integer numberOfServings,
-                                           @Parameter(description = "To query recipes which includes searched ingredients")
-                                               @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
-                                               List<String> includeIngredients,
-                                           @Parameter(description = "To query recipes which excludes searched ingredients")
-                                               @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
-                                               List<String> excludeIngredients,
-                                           @Parameter(description = "To query keywords which present in recipe instructions")
-                                               @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
-                                               List<String> instructions) {
-
-        return foodRecipeService.getAllFoodRecipes(isVegetarian, numberOfServings,
-            includeIngredients.stream().map(String::toUpperCase).collect(toSet()),
-            excludeIngredients.stream().map(String::toUpperCase).collect(toSet()),
-            instructions.stream().map(String::toUpperCase).collect(toSet()));
+    public ResponseEntity<List<FoodRecipe>> getFoodRecipes(@Parameter(description = "To query only vegetarian/vegan recipes")
+                                                               @RequestParam(required = false) Boolean isVegetarian,
+                                                           @Parameter(description = "To query number of servings recipes can be served")
+                                                               @RequestParam(required = false) Integer numberOfServings,
+                                                           @Parameter(description = "To query recipes which includes searched ingredients")
+                                                               @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                               List<String> includeIngredients,
+                                                           @Parameter(description = "To query recipes which excludes searched ingredients")
+                                                               @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                               List<String> excludeIngredients,
+                                                           @Parameter(description = "To query keywords which present in recipe instructions")
+                                                               @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                               List<String> instructions,
+                                                           @Parameter(description = "To rank recipes by relevance of their names and instructions to free text, "
+                                                               + "most relevant recipes up to limit are returned without next page")
+                                                               @RequestParam(required = false) String query,
+                                                           @Parameter(description = "Cursor of next page shared in previous page")
+                                                               @RequestParam(required = false) String cursor,
+                                                           @Parameter(description = "Maximum number of recipes in page, up to 1000")
+                                                               @RequestParam(required = false, defaultValue = "100") Integer limit,
+                                                           WebRequest request) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPageRequestException("limit should be between 1 and " + MAX_LIMIT);
+        }
+        boolean ranked = query != null && !query.isBlank();
+        if (ranked && cursor != null) {
+            throw new InvalidPageRequestException("query can not be combined with cursor, ranked recipes have no next page");
+        }
+        if (ranked && !foodRecipeService.canRankFoodRecipes()) {
+            throw new InvalidPageRequestException("query can not be ranked without search index");
+        }
+        // Catalog version is read before searching, so results never are newer than their ETag
+        String catalogVersion = eTag(foodRecipeService.getCatalogVersion());
+        if (request.checkNotModified(catalogVersion)) {
+            return null;
+        }
+        RecipeSearchCriteria criteria = criteria(isVegetarian, numberOfServings, includeIngredients, excludeIngredients, instructions);
+        request.setAttribute(ResponseMetricsFilter.FILTERS_ATTRIBUTE, criteria.getUsedFilters(), RequestAttributes.SCOPE_REQUEST);
+        RecipePage recipePage = ranked
+            ? foodRecipeService.rankFoodRecipes(criteria, query, limit)
+            : foodRecipeService.getAllFoodRecipes(criteria, RecipeCursor.decode(cursor), limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(catalogVersion);
+        String nextCursor = RecipeCursor.encode(recipePage.getNextAfterId());
+        if (nextCursor != null) {
+            Link nextLink = linkTo(methodOn(FoodRecipeController.class)
+                .getFoodRecipes(isVegetarian, numberOfServings, includeIngredients, excludeIngredients, instructions, null, nextCursor, limit, null))
+                .withRel(NEXT)
+                .expand();
+            response.header(HttpHeaders.LINK, nextLink.toString())
+                .header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(recipePage.getRecipes());
+    }
+
+    /**
+     * Stream all matched food recipes from inventory as newline delimited JSON. Food recipes are written while
+     * being loaded batch by batch, so neither time to first byte nor memory grows with number of matched recipes.
+     *
+     * @param isVegetarian       share food recipes which are only vegetarian(including vegan)
+     * @param numberOfServings   recipes matching number of servings
+     * @param includeIngredients recipes which has requested ingredients
+     * @param excludeIngredients recipes which doesn't have requested ingredients
+     * @param instructions       recipes which has instructions from keywords
+     * @param cursor             opaque cursor to continue after, as shared in page of JSON response
+     * @return matched food recipes, one per line
+     */
+    @Operation(summary = "Stream all available food recipes from inventory based on filters as newline delimited JSON")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Recipes streamed",
+            content = { @Content(mediaType = APPLICATION_NDJSON_VALUE,
+                schema = @Schema(implementation = FoodRecipe.class)) })
+    })
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFoodRecipes(@Parameter(description = "To query only vegetarian/vegan recipes")
+                                                                       @RequestParam(required = false) Boolean isVegetarian,
+                                                                   @Parameter(description = "To query number of servings recipes can be served")
+                                                                       @RequestParam(required = false) Integer numberOfServings,
+                                                                   @Parameter(description = "To query recipes which includes searched ingredients")
+                                                                       @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                                       List<String> includeIngredients,
+                                                                   @Parameter(description = "To query recipes which excludes searched ingredients")
+                                                                       @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                                       List<String> excludeIngredients,
+                                                                   @Parameter(description = "To query keywords which present in recipe instructions")
+                                                                       @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                                       List<String> instructions,
+                                                                   @Parameter(description = "Cursor to continue after")
+                                                                       @RequestParam(required = false) String cursor) {
+        RecipeSearchCriteria criteria = criteria(isVegetarian, numberOfServings, includeIngredients, excludeIngredients, instructions);
+        Long afterId = RecipeCursor.decode(cursor);
+        // Body is written on async thread, links are still resolved from this request
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        StreamingResponseBody body = outputStream -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+            try (JsonGenerator generator = foodRecipeNdjsonWriter.open(outputStream)) {
+                foodRecipeService.streamAllFoodRecipes(criteria, afterId, foodRecipes -> foodRecipeNdjsonWriter.write(generator, foodRecipes));
+            }
+            finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
     }
 
     /**
-     * Get requested food recipe if found in inventory
+     * Count matched food recipes per dish type, number of servings and most used ingredient in a single search,
+     * for the same filters as {@link #getFoodRecipes}. Version of the whole inventory is shared as ETag.
      *
-     * @param id of the food recipe
-     * @return food recipe from inventory
+     * @param isVegetarian       share food recipes which are only vegetarian(including vegan)
+     * @param numberOfServings   recipes matching number of servings
+     * @param includeIngredients recipes which has requested ingredients
+     * @param excludeIngredients recipes which doesn't have requested ingredients
+     * @param instructions       recipes which has instructions from keywords
+     * @param topIngredients     maximum number of most used ingredients to count
+     * @param request            request to check If-None-Match header with
+     * @return counts of matched food recipes per facet value
+     */
+    @Operation(summary = "Count available food recipes from inventory based on filters per dish type, servings and ingredient")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Facets counted",
+            content = { @Content(mediaType = "application/json",
+                schema = @Schema(implementation = RecipeFacets.class)) })
+    })
+    @GetMapping("/facets")
+    public ResponseEntity<RecipeFacets> getFoodRecipeFacets(@Parameter(description = "To query only vegetarian/vegan recipes")
+                                                                @RequestParam(required = false) Boolean isVegetarian,
+                                                            @Parameter(description = "To query number of servings recipes can be served")
+                                                                @RequestParam(required = false) Integer numberOfServings,
+                                                            @Parameter(description = "To query recipes which includes searched ingredients")
+                                                                @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                                List<String> includeIngredients,
+                                                            @Parameter(description = "To query recipes which excludes searched ingredients")
+                                                                @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                                List<String> excludeIngredients,
+                                                            @Parameter(description = "To query keywords which present in recipe instructions")
+                                                                @RequestParam(required = false, defaultValue = "#{T(java.util.Collections).emptyList()}")
+                                                                List<String> instructions,
+                                                            @Parameter(description = "Maximum number of most used ingredients to count, up to 100")
+                                                                @RequestParam(required = false, defaultValue = "10") Integer topIngredients,
+                                                            WebRequest request) {
+        if (topIngredients < 1 || topIngredients > MAX_TOP_INGREDIENTS) {
+            throw new InvalidPageRequestException("topIngredients should be between 1 and " + MAX_TOP_INGREDIENTS);
+        }
+        String catalogVersion = eTag(foodRecipeService.getCatalogVersion());
+        if (request.checkNotModified(catalogVersion)) {
+            return null;
+        }
+        RecipeSearchCriteria criteria = criteria(isVegetarian, numberOfServings, includeIngredients, excludeIngredients, instructions);
+        request.setAttribute(ResponseMetricsFilter.FILTERS_ATTRIBUTE, criteria.getUsedFilters(), RequestAttributes.SCOPE_REQUEST);
+        return ResponseEntity.ok().eTag(catalogVersion).body(foodRecipeService.getFoodRecipeFacets(criteria, topIngredients));
+    }
+
+    /**
+     * Get requested food recipe if found in inventory. Version of food recipe is shared as ETag, and conditional request
+     * with matching version is answered with 304 from the version alone, without loading food recipe with ingredients.
+     * When responses are cached, bytes of the serialized response of the current version are written as response body
+     * without any food recipe model, and food recipe is only loaded, mapped and serialized if it is not cached yet.
+     *
+     * @param id      of the food recipe
+     * @param request request to check If-None-Match header with
+     * @return food recipe from inventory, or its serialized bytes when responses are cached
      */
     @Operation(summary = "Get food recipes by id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Recipe retrieved",
             content = { @Content(mediaType = "application/json",
-                schema = @Schema(implementation = FoodRecipe.class)) })
+                schema = @Schema(implementation = FoodRecipe.class)) }),
+        @ApiResponse(responseCode = "304", description = "Recipe not modified since version in If-None-Match header")
     })
     @GetMapping(value = "/{id}")
-    @ResponseStatus(OK)
-    public FoodRecipe getFoodRecipe(@Parameter(description = "Id of the food recipe to be retrieved") @PathVariable Long id) {
-
-        return foodRecipeService.getIndividualFoodRecipe(id);
+    public ResponseEntity<?> getFoodRecipe(@Parameter(description = "Id of the food recipe to be retrieved") @PathVariable Long id,
+                                           WebRequest request) {
+        if (!recipeResponseCache.isEnabled()) {
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(eTag(foodRecipeService.getFoodRecipeVersion(id)))) {
+                return null;
+            }
+            FoodRecipe foodRecipe = foodRecipeService.getIndividualFoodRecipe(id);
+            return ResponseEntity.ok().eTag(eTag(foodRecipe.getVersion())).body(foodRecipe);
+        }
+        Long version = foodRecipeService.getFoodRecipeVersion(id);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null && request.checkNotModified(eTag(version))) {
+            return null;
+        }
+        byte[] body = recipeResponseCache.get(id, version);
+        if (body == null) {
+            // cached by version of the loaded food recipe, which is newer than version read before if it changed meanwhile
+            FoodRecipe foodRecipe = foodRecipeService.getIndividualFoodRecipe(id);
+            version = foodRecipe.getVersion();
+            body = foodRecipeJsonWriter.writeBytes(foodRecipe);
+            recipeResponseCache.put(id, version, body);
+        }
+        return ResponseEntity.ok().eTag(eTag(version)).contentType(APPLICATION_JSON).body(body);
     }
 
     /**
@@ -162,4 +397,16 @@ public class FoodRecipeController {
 
         foodRecipeService.removeFoodRecipe(id);
     }
+
+    private static String eTag(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    private static RecipeSearchCriteria criteria(Boolean isVegetarian, Integer numberOfServings, List<String> includeIngredients,
+                                                 List<String> excludeIngredients, List<String> instructions) {
+        return new RecipeSearchCriteria(isVegetarian, numberOfServings,
+            includeIngredients.stream().map(TextNormalizer::normalize).collect(toSet()),
+            excludeIngredients.stream().map(TextNormalizer::normalize).collect(toSet()),
+            instructions.stream().map(TextNormalizer::normalize).collect(toSet()));
+    }
 }
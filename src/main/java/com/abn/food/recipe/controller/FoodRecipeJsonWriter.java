@@ -0,0 +1,84 @@
+package com.abn.food.recipe.controller;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.abn.food.recipe.model.FoodRecipe;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Renders food recipes by the object mappers of the first message converter writing them as JSON, so that food recipes
+ * written outside of message converters are rendered the same as in JSON responses. A single food recipe response is
+ * rendered by the object mapper the converter registered for food recipes, which renders links as HAL, while elements
+ * of a JSON list are rendered by the default object mapper of the converter.
+ *
+ * @author Akhtar
+ */
+final class FoodRecipeJsonWriter {
+
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private volatile AbstractJackson2HttpMessageConverter jsonConverter;
+    private volatile ObjectWriter foodRecipeWriter;
+
+    /**
+     * Constructor initialization
+     *
+     * @param handlerAdapter handler adapter with message converters used for JSON responses
+     */
+    FoodRecipeJsonWriter(ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter) {
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    /**
+     * Render food recipe as UTF-8 JSON, the same bytes as a single food recipe response body
+     *
+     * @param foodRecipe food recipe to be rendered
+     * @return JSON bytes
+     */
+    byte[] writeBytes(FoodRecipe foodRecipe) {
+        if (foodRecipeWriter == null) {
+            // chosen the same way as the converter chooses the object mapper of a food recipe response
+            ObjectMapper objectMapper = jsonConverter().getObjectMappersForType(FoodRecipe.class).entrySet().stream()
+                .filter(mediaTypeMapper -> mediaTypeMapper.getKey().includes(APPLICATION_JSON))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseGet(this::listElementObjectMapper);
+            foodRecipeWriter = objectMapper.writerFor(FoodRecipe.class);
+        }
+        try {
+            return foodRecipeWriter.writeValueAsBytes(foodRecipe);
+        }
+        catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get object mapper rendering food recipes as elements of JSON list responses
+     *
+     * @return default object mapper of JSON message converter
+     */
+    ObjectMapper listElementObjectMapper() {
+        return jsonConverter().getObjectMapper();
+    }
+
+    private AbstractJackson2HttpMessageConverter jsonConverter() {
+        if (jsonConverter == null) {
+            jsonConverter = handlerAdapter.getObject().getMessageConverters().stream()
+                .filter(converter -> converter instanceof AbstractJackson2HttpMessageConverter)
+                .filter(converter -> converter.canWrite(FoodRecipe.class, APPLICATION_JSON))
+                .map(converter -> (AbstractJackson2HttpMessageConverter) converter)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No JSON message converter found for food recipes"));
+        }
+        return jsonConverter;
+    }
+}
@@ -0,0 +1,72 @@
+package com.abn.food.recipe.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import com.abn.food.recipe.model.FoodRecipe;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes food recipes as newline delimited JSON. Every food recipe is rendered by the same object mapper
+ * as in JSON list responses, so that every line is rendered the same as an element of the JSON list.
+ *
+ * @author Akhtar
+ */
+final class FoodRecipeNdjsonWriter {
+
+    private final FoodRecipeJsonWriter foodRecipeJsonWriter;
+    private volatile ObjectWriter foodRecipeWriter;
+
+    /**
+     * Constructor initialization
+     *
+     * @param foodRecipeJsonWriter writer with object mappers used for JSON responses
+     */
+    FoodRecipeNdjsonWriter(FoodRecipeJsonWriter foodRecipeJsonWriter) {
+        this.foodRecipeJsonWriter = foodRecipeJsonWriter;
+    }
+
+    /**
+     * Open newline delimited JSON generator on response body
+     *
+     * @param outputStream response body
+     * @return generator to write food recipes with
+     * @throws IOException if generator can not be created
+     */
+    JsonGenerator open(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = foodRecipeWriter().getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    /**
+     * Write food recipes, one JSON object per line, and flush them to client
+     *
+     * @param generator   generator opened on response body
+     * @param foodRecipes food recipes to be written
+     */
+    void write(JsonGenerator generator, List<FoodRecipe> foodRecipes) {
+        try {
+            for (FoodRecipe foodRecipe : foodRecipes) {
+                foodRecipeWriter().writeValue(generator, foodRecipe);
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ObjectWriter foodRecipeWriter() {
+        if (foodRecipeWriter == null) {
+            // Batch of food recipes is flushed at once instead of every single food recipe
+            foodRecipeWriter = foodRecipeJsonWriter.listElementObjectMapper().writerFor(FoodRecipe.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+        return foodRecipeWriter;
+    }
+}
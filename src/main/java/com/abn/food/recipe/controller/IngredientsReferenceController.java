@@ -8,13 +8,17 @@ import java.util.List;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
 import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+import com.abn.food.recipe.search.IngredientNameTrie;
+import com.abn.food.recipe.service.RecipeCatalog;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -29,15 +33,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 @RequestMapping(value = "/abn/kitchen/reference/ingredients", produces = APPLICATION_JSON_VALUE)
 public class IngredientsReferenceController {
 
+    private static final int MAX_COMPLETIONS = 100;
+
     private final IngredientReferenceRepository referenceRepository;
+    private final RecipeCatalog recipeCatalog;
+    private final IngredientNameTrie ingredientNameTrie;
 
     /**
      * Constructor initialization
      *
      * @param referenceRepository Ingredient Reference Repository
+     * @param recipeCatalog       read model of committed food recipes and their ingredient references
+     * @param ingredientNameTrie  prefix trie of ingredient names for autocompletion
      */
-    public IngredientsReferenceController(IngredientReferenceRepository referenceRepository) {
+    public IngredientsReferenceController(IngredientReferenceRepository referenceRepository, RecipeCatalog recipeCatalog,
+                                          IngredientNameTrie ingredientNameTrie) {
         this.referenceRepository = referenceRepository;
+        this.recipeCatalog = recipeCatalog;
+        this.ingredientNameTrie = ingredientNameTrie;
     }
 
     /**
@@ -54,9 +67,37 @@ public class IngredientsReferenceController {
     @GetMapping
     @ResponseStatus(OK)
     public List<String> getAllReferenceIngredients() {
+        if (recipeCatalog.isEnabled()) {
+            return recipeCatalog.current().getReferenceNames();
+        }
         return referenceRepository.findAll()
             .stream().map(IngredientReferenceEntity::getName)
             .collect(toList());
 
     }
+
+    /**
+     * Get Ingredients starting with typed prefix, so that search options can be completed without loading all Ingredients
+     *
+     * @param prefix start of ingredient name, case is ignored
+     * @param limit  maximum number of ingredients
+     * @return ingredients in alphabetical order
+     */
+    @Operation(summary = "Get ingredients starting with a prefix to autocomplete searching on UI")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Completed ingredients list retrieved",
+            content = { @Content(mediaType = "application/json",
+                schema = @Schema(implementation = List.class)) })
+    })
+    @GetMapping("/autocomplete")
+    @ResponseStatus(OK)
+    public List<String> autocompleteReferenceIngredients(@Parameter(description = "Start of ingredient name, case is ignored")
+                                                             @RequestParam String prefix,
+                                                         @Parameter(description = "Maximum number of ingredients, up to 100")
+                                                             @RequestParam(required = false, defaultValue = "10") Integer limit) {
+        if (limit < 1 || limit > MAX_COMPLETIONS) {
+            throw new InvalidPageRequestException("limit should be between 1 and " + MAX_COMPLETIONS);
+        }
+        return ingredientNameTrie.complete(prefix, limit);
+    }
 }
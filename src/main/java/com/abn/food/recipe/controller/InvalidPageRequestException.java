@@ -0,0 +1,18 @@
+package com.abn.food.recipe.controller;
+
+/**
+ * Handles invalid pagination parameters like malformed cursor, limit or number of counted facet values or completions out of range
+ *
+ * @author Akhtar
+ */
+public class InvalidPageRequestException extends RuntimeException {
+
+    /**
+     * Constructor initialization
+     *
+     * @param message reason why page request is invalid
+     */
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,56 @@
+package com.abn.food.recipe.controller;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination of food recipes, wrapping id of last food recipe in a page
+ *
+ * @author Akhtar
+ */
+final class RecipeCursor {
+
+    private static final String PREFIX = "id:";
+
+    private RecipeCursor() {
+    }
+
+    /**
+     * Encode id of last food recipe in page as cursor
+     *
+     * @param afterId id of last food recipe in page
+     * @return opaque cursor, null if there is no next page
+     */
+    static String encode(Long afterId) {
+        if (afterId == null) {
+            return null;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + afterId).getBytes(UTF_8));
+    }
+
+    /**
+     * Decode cursor to id of last food recipe from previous page
+     *
+     * @param cursor opaque cursor shared in previous page
+     * @return id of last food recipe from previous page, null for first page
+     */
+    static Long decode(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+            if (value.startsWith(PREFIX)) {
+                long afterId = Long.parseLong(value.substring(PREFIX.length()));
+                if (afterId >= 0) {
+                    return afterId;
+                }
+            }
+        }
+        catch (IllegalArgumentException exception) {
+            // handled below as invalid cursor
+        }
+        throw new InvalidPageRequestException("cursor " + cursor + " is invalid");
+    }
+}
@@ -0,0 +1,36 @@
+package com.abn.food.recipe.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the moment response body is handed over to message converters, so that {@link ResponseMetricsFilter}
+ * can measure serialization of the body
+ *
+ * @author Akhtar
+ */
+@ControllerAdvice
+public class ResponseMetricsAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            ((ServletServerHttpRequest) request).getServletRequest()
+                .setAttribute(ResponseMetricsFilter.SERIALIZATION_START_ATTRIBUTE, System.nanoTime());
+        }
+        return body;
+    }
+}
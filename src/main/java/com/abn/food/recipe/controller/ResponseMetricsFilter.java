@@ -0,0 +1,152 @@
+package com.abn.food.recipe.controller;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes serialization time and size of food recipe responses, tagged by endpoint, method and filters used in search.
+ * Serialization is measured from the moment the body is handed over to message converters until response is written.
+ * Streamed responses are written after this filter returns, so they are not measured.
+ *
+ * @author Akhtar
+ */
+@Component
+public class ResponseMetricsFilter extends OncePerRequestFilter {
+
+    static final String SERIALIZATION_START_ATTRIBUTE = ResponseMetricsFilter.class.getName() + ".serializationStart";
+    static final String FILTERS_ATTRIBUTE = ResponseMetricsFilter.class.getName() + ".filters";
+    private static final String MEASURED_PATH = "/abn/kitchen/";
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final String NO_FILTERS = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor initialization
+     *
+     * @param meterRegistry registry for response metrics
+     */
+    public ResponseMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(MEASURED_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        CountingResponse countingResponse = new CountingResponse(response);
+        filterChain.doFilter(request, countingResponse);
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        Tags tags = Tags.of(
+            "uri", attribute(request, HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, UNKNOWN),
+            "method", request.getMethod(),
+            "filters", attribute(request, FILTERS_ATTRIBUTE, NO_FILTERS));
+        DistributionSummary.builder("recipe.response.size")
+            .description("Size of food recipe response body")
+            .baseUnit("bytes")
+            .tags(tags)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(countingResponse.outputStream == null ? 0 : countingResponse.outputStream.bytes);
+        Object serializationStart = request.getAttribute(SERIALIZATION_START_ATTRIBUTE);
+        if (serializationStart != null) {
+            Timer.builder("recipe.response.serialization")
+                .description("Time spent serializing and writing food recipe response body")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - (Long) serializationStart, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String attribute(HttpServletRequest request, String name, String defaultValue) {
+        Object value = request.getAttribute(name);
+        return value == null ? defaultValue : value.toString();
+    }
+
+    /**
+     * Response counting bytes written to its output stream
+     */
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+        private CountingOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+    }
+
+    /**
+     * Output stream counting bytes written to its delegate
+     */
+    private static final class CountingOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private long bytes;
+
+        private CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            bytes += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.abn.food.recipe.mapper;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.abn.food.recipe.controller.FoodRecipeController;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Self links of food recipes. The controller URI is resolved through {@code linkTo(methodOn(...))} once per base URL
+ * and cached as prefix, so every link only appends the id. Base URL is taken from the current request the same way
+ * as {@code linkTo} does, including forwarded headers applied to the request, so links stay identical.
+ *
+ * @author Akhtar
+ */
+@Component
+public class FoodRecipeLinkFactory {
+
+    private static final Long TEMPLATE_ID = Long.MAX_VALUE;
+    private static final String NO_REQUEST_BASE_URI = "";
+    private static final String PREFIX_ATTRIBUTE = FoodRecipeLinkFactory.class.getName() + ".selfLinkPrefix";
+    // Base URL can be chosen by clients through host and forwarded headers, so number of cached prefixes is bounded
+    private static final int MAXIMUM_BASE_URIS = 64;
+
+    private final Cache<String, String> selfLinkPrefixes = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_BASE_URIS)
+        .build();
+
+    /**
+     * Get self link of food recipe
+     *
+     * @param id of the food recipe
+     * @return self link of food recipe
+     */
+    public Link selfLink(Long id) {
+        return Link.of(selfLinkPrefix() + id);
+    }
+
+    /**
+     * Get URI prefix of self links in current request, which only differs by base URL
+     *
+     * @return self link without id
+     */
+    public String selfLinkPrefix() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return selfLinkPrefixes.get(NO_REQUEST_BASE_URI, key -> resolveSelfLinkPrefix());
+        }
+        String prefix = (String) requestAttributes.getAttribute(PREFIX_ATTRIBUTE, SCOPE_REQUEST);
+        if (prefix == null) {
+            String baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+            prefix = selfLinkPrefixes.get(baseUri, key -> resolveSelfLinkPrefix());
+            requestAttributes.setAttribute(PREFIX_ATTRIBUTE, prefix, SCOPE_REQUEST);
+        }
+        return prefix;
+    }
+
+    private static String resolveSelfLinkPrefix() {
+        String href = linkTo(methodOn(FoodRecipeController.class).getFoodRecipe(TEMPLATE_ID, null)).toUri().toString();
+        return href.substring(0, href.length() - TEMPLATE_ID.toString().length());
+    }
+}
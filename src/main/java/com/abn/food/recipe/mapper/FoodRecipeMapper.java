@@ -1,32 +1,32 @@
 package com.abn.food.recipe.mapper;
 
-import static java.util.Collections.emptyList;
 import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toMap;
-import static liquibase.repackaged.org.apache.commons.collections4.CollectionUtils.isNotEmpty;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.hateoas.Link;
 import org.springframework.stereotype.Component;
 
-import com.abn.food.recipe.controller.FoodRecipeController;
 import com.abn.food.recipe.model.FoodRecipe;
 import com.abn.food.recipe.model.Ingredient;
 import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
 import com.abn.food.recipe.persistance.entity.IngredientEntity;
 import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
-import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+import com.abn.food.recipe.search.TextNormalizer;
+import com.abn.food.recipe.service.CatalogRecipe;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
- * Food Recipe Mapper
+ * Food Recipe Mapper. Time of mapping models, building their links and mapping entities is published
+ * as recipe.mapping timer tagged by stage.
  *
  * @author Akhtar
  */
@@ -35,15 +35,28 @@ public class FoodRecipeMapper {
 
     private static final String SPACE = " ";
 
-    private final IngredientReferenceRepository ingredientReferenceRepository;
+    private final IngredientReferenceCache ingredientReferenceCache;
+    private final FoodRecipeLinkFactory foodRecipeLinkFactory;
+    private final Clock clock;
+    private final Timer modelTimer;
+    private final Timer linkTimer;
+    private final Timer entityTimer;
 
     /**
      * Constructor initialization
      *
-     * @param ingredientReferenceRepository ingredient reference repository
+     * @param ingredientReferenceCache ingredient reference cache
+     * @param foodRecipeLinkFactory    food recipe self link factory
+     * @param meterRegistry            registry for mapping timers
      */
-    public FoodRecipeMapper(IngredientReferenceRepository ingredientReferenceRepository) {
-        this.ingredientReferenceRepository = ingredientReferenceRepository;
+    public FoodRecipeMapper(IngredientReferenceCache ingredientReferenceCache, FoodRecipeLinkFactory foodRecipeLinkFactory,
+                            MeterRegistry meterRegistry) {
+        this.ingredientReferenceCache = ingredientReferenceCache;
+        this.foodRecipeLinkFactory = foodRecipeLinkFactory;
+        this.clock = meterRegistry.config().clock();
+        this.modelTimer = mappingTimer(meterRegistry, "model");
+        this.linkTimer = mappingTimer(meterRegistry, "links");
+        this.entityTimer = mappingTimer(meterRegistry, "entity");
     }
 
     /**
@@ -54,12 +67,55 @@ public class FoodRecipeMapper {
      * @return mapped food recipe model
      */
     public FoodRecipe formFoodRecipeModel(FoodRecipeEntity recipeEntity, boolean isAdditionalDataRequired) {
+        long start = clock.monotonicTime();
         FoodRecipe foodRecipe = new FoodRecipe();
         foodRecipe.setRecipeName(recipeEntity.getRecipeName());
         foodRecipe.setDishType(recipeEntity.getDishType());
         foodRecipe.setServings(recipeEntity.getServings());
+        foodRecipe.setVersion(recipeEntity.getVersion());
         formIngredientsModel(foodRecipe, recipeEntity, isAdditionalDataRequired);
+        long linkStart = clock.monotonicTime();
         updateLink(foodRecipe, recipeEntity.getId());
+        long end = clock.monotonicTime();
+        modelTimer.record(linkStart - start, TimeUnit.NANOSECONDS);
+        linkTimer.record(end - linkStart, TimeUnit.NANOSECONDS);
+        return foodRecipe;
+    }
+
+    /**
+     * Map Food recipe model from catalog snapshot
+     *
+     * @param catalogRecipe            committed food recipe from catalog snapshot
+     * @param isAdditionalDataRequired skip instructions mapping if false
+     * @return mapped food recipe model
+     */
+    public FoodRecipe formFoodRecipeModel(CatalogRecipe catalogRecipe, boolean isAdditionalDataRequired) {
+        long start = clock.monotonicTime();
+        FoodRecipe foodRecipe = new FoodRecipe();
+        foodRecipe.setRecipeName(catalogRecipe.getRecipeName());
+        foodRecipe.setDishType(catalogRecipe.getDishType());
+        foodRecipe.setServings(catalogRecipe.getServings());
+        foodRecipe.setVersion(catalogRecipe.getVersion());
+        List<Ingredient> ingredients = new ArrayList<>();
+        List<String> ingredientsWithQuantity = new ArrayList<>();
+        catalogRecipe.getIngredients().forEach(catalogIngredient -> {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setName(catalogIngredient.getName());
+            ingredient.setQuantity(catalogIngredient.getQuantity());
+            ingredient.setUnit(catalogIngredient.getUnit());
+            ingredients.add(ingredient);
+            ingredientsWithQuantity.add(ingredientWithQuantity(ingredient.getName(), ingredient.getQuantity(), ingredient.getUnit()));
+        });
+        foodRecipe.setIngredientsWithQuantity(ingredientsWithQuantity);
+        if (isAdditionalDataRequired) {
+            foodRecipe.setIngredients(ingredients);
+            foodRecipe.setInstructions(catalogRecipe.getInstructions());
+        }
+        long linkStart = clock.monotonicTime();
+        updateLink(foodRecipe, catalogRecipe.getId());
+        long end = clock.monotonicTime();
+        modelTimer.record(linkStart - start, TimeUnit.NANOSECONDS);
+        linkTimer.record(end - linkStart, TimeUnit.NANOSECONDS);
         return foodRecipe;
     }
 
@@ -71,13 +127,15 @@ public class FoodRecipeMapper {
      * @param id     of the entity for persisting in repository
      */
     public void formFoodRecipeEntity(FoodRecipe recipe, FoodRecipeEntity entity, Long id) {
+        long start = clock.monotonicTime();
         entity.setId(id);
         entity.setRecipeName(recipe.getRecipeName());
         entity.setDishType(recipe.getDishType());
         entity.setInstructions(recipe.getInstructions());
         entity.setServings(recipe.getServings());
-        List<IngredientEntity> ingredientEntities = formIngredientsEntityFromModel(recipe.getIngredients(), entity);
-        entity.getIngredients().addAll(ingredientEntities);
+        formIngredientsEntityFromModel(recipe.getIngredients(), entity);
+        entity.ingredientsChanged();
+        entityTimer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
     }
 
     private void formIngredientsModel(FoodRecipe foodRecipe, FoodRecipeEntity recipeEntity, boolean isAdditionalDataRequired) {
@@ -90,15 +148,7 @@ public class FoodRecipeMapper {
             ingredient.setQuantity(entity.getQuantity());
             ingredient.setUnit(entity.getUnit());
             ingredients.add(ingredient);
-
-            String ingredientWithQuantity;
-            if (StringUtils.isNotEmpty(entity.getUnit())) {
-                ingredientWithQuantity = ingredientName + SPACE + entity.getQuantity() + entity.getUnit();
-            }
-            else {
-                ingredientWithQuantity = entity.getQuantity() + SPACE + ingredientName;
-            }
-            ingredientsWithQuantity.add(ingredientWithQuantity);
+            ingredientsWithQuantity.add(ingredientWithQuantity(ingredientName, entity.getQuantity(), entity.getUnit()));
         });
 
         foodRecipe.setIngredientsWithQuantity(ingredientsWithQuantity);
@@ -108,45 +158,76 @@ public class FoodRecipeMapper {
         }
     }
 
-    private List<IngredientEntity> formIngredientsEntityFromModel(List<Ingredient> ingredientNames, FoodRecipeEntity foodRecipeEntity) {
-        // TO collect existing Ingredients in DB to update them.
-        Map<String, IngredientEntity> existingIngredientEntityMap = ofNullable(foodRecipeEntity.getIngredients())
-            .orElse(emptyList())
-            .stream().collect(toMap(entity -> entity.getReferenceEntity().getName(), Function.identity()));
-        //If Food recipe entity already exists in DB then ingredients should be cleared from persistence cache as we are overriding all
-        if (isNotEmpty(foodRecipeEntity.getIngredients())) {
-            foodRecipeEntity.getIngredients().clear();
-        } else {
+    private static String ingredientWithQuantity(String ingredientName, Integer quantity, String unit) {
+        if (StringUtils.isNotEmpty(unit)) {
+            return ingredientName + SPACE + quantity + unit;
+        }
+        else {
+            return quantity + SPACE + ingredientName;
+        }
+    }
+
+    private void formIngredientsEntityFromModel(List<Ingredient> ingredients, FoodRecipeEntity foodRecipeEntity) {
+        if (foodRecipeEntity.getIngredients() == null) {
             foodRecipeEntity.setIngredients(new ArrayList<>());
         }
+        // Stored ingredients are matched by reference id and updated in place, so only changed ones are updated,
+        // added ones inserted and dropped ones deleted. References of stored ingredients are not looked up again.
+        List<IngredientEntity> storedIngredients = foodRecipeEntity.getIngredients();
+        Map<String, IngredientReferenceEntity> storedReferencesByName = new HashMap<>();
+        Map<Long, IngredientEntity> storedIngredientsByReferenceId = new HashMap<>();
+        storedIngredients.forEach(entity -> {
+            storedReferencesByName.putIfAbsent(normalize(entity.getReferenceEntity().getName()), entity.getReferenceEntity());
+            storedIngredientsByReferenceId.putIfAbsent(entity.getReferenceEntity().getId(), entity);
+        });
 
-        return ingredientNames.stream()
-            .map(ingredient -> formIngredientEntity(ingredient, foodRecipeEntity, existingIngredientEntityMap.get(ingredient.getName())))
-            .collect(toList());
-    }
+        List<IngredientEntity> ingredientEntities = new ArrayList<>(ingredients.size());
+        boolean changed = false;
+        for (Ingredient ingredient : ingredients) {
+            IngredientReferenceEntity referenceEntity = ofNullable(storedReferencesByName.get(normalize(ingredient.getName())))
+                .orElseGet(() -> ingredientReferenceCache.getOrCreate(ingredient.getName()));
+            // removed once matched, so a repeated reference gets an ingredient of its own
+            IngredientEntity entity = storedIngredientsByReferenceId.remove(referenceEntity.getId());
+            if (entity == null) {
+                entity = formIngredientEntity(referenceEntity, foodRecipeEntity);
+                changed = true;
+            }
+            else if (!Objects.equals(entity.getQuantity(), ingredient.getQuantity()) || !Objects.equals(entity.getUnit(), ingredient.getUnit())) {
+                changed = true;
+            }
+            entity.setQuantity(ingredient.getQuantity());
+            entity.setUnit(ingredient.getUnit());
+            ingredientEntities.add(entity);
+        }
 
-    private IngredientEntity formIngredientEntity(Ingredient ingredient, FoodRecipeEntity foodRecipeEntity, IngredientEntity ingredientEntity) {
-        IngredientReferenceEntity referenceEntity = ingredientReferenceRepository.findByNameEqualsIgnoreCase(ingredient.getName())
-            .orElseGet(() -> ingredientReferenceRepository.save(formIngredientReferenceEntity(ingredient.getName())));
+        // Without additions every incoming ingredient is a distinct stored one, so a smaller list means some were dropped.
+        // Changed list increments version of food recipe, unchanged ingredients leave it and the list untouched.
+        if (changed || ingredientEntities.size() != storedIngredients.size()) {
+            storedIngredients.clear();
+            storedIngredients.addAll(ingredientEntities);
+        }
+    }
 
-        IngredientEntity entity = ofNullable(ingredientEntity).orElseGet(IngredientEntity::new);
-        entity.setQuantity(ingredient.getQuantity());
-        entity.setUnit(ingredient.getUnit());
+    private static IngredientEntity formIngredientEntity(IngredientReferenceEntity referenceEntity, FoodRecipeEntity foodRecipeEntity) {
+        IngredientEntity entity = new IngredientEntity();
         entity.setReferenceEntity(referenceEntity);
         entity.setFoodRecipe(foodRecipeEntity);
         return entity;
     }
 
-    private IngredientReferenceEntity formIngredientReferenceEntity(String name) {
-        IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
-        referenceEntity.setName(name);
-        return referenceEntity;
+    private static String normalize(String name) {
+        return TextNormalizer.normalize(name);
     }
 
     private void updateLink(FoodRecipe foodRecipe, Long id) {
-        Link link = linkTo(methodOn(FoodRecipeController.class)
-            .getFoodRecipe(id))
-            .withSelfRel();
-        foodRecipe.add(link);
+        foodRecipe.add(foodRecipeLinkFactory.selfLink(id));
+    }
+
+    private static Timer mappingTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("recipe.mapping")
+            .description("Time spent mapping a food recipe")
+            .tag("stage", stage)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
     }
 }
@@ -0,0 +1,174 @@
+package com.abn.food.recipe.mapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+import com.abn.food.recipe.search.IngredientNameTrie;
+import com.abn.food.recipe.search.TextNormalizer;
+import com.abn.food.recipe.service.FoodRecipeServiceImpl;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of ingredient references by upper-cased ingredient name, so that saving a food recipe
+ * does not look up every ingredient reference by name in database.
+ * Missing references are looked up and created atomically per name, so concurrent requests with the same
+ * new ingredient share one reference. New references are committed in their own transaction before being cached,
+ * so a rolled back recipe can never leave a cached reference behind which does not exist in database.
+ * Names are unique ignoring case in database, so when another application instance creates the same reference at
+ * the same time, the losing insert fails and the winning reference is looked up again.
+ * Committed references are added to the {@link IngredientNameTrie} as well, so they can be autocompleted right away.
+ *
+ * @author Akhtar
+ */
+@Component
+public class IngredientReferenceCache implements SmartLifecycle {
+
+    static final String CACHE_NAME = "ingredientReferences";
+
+    private final IngredientReferenceRepository ingredientReferenceRepository;
+    private final TransactionTemplate newTransactionTemplate;
+    private final IngredientNameTrie ingredientNameTrie;
+    private final int maximumSize;
+    private final Cache<String, CachedReference> references;
+    private volatile boolean running;
+
+    /**
+     * Constructor initialization
+     *
+     * @param ingredientReferenceRepository ingredient reference repository
+     * @param transactionManager            transaction manager to create new references in own transaction
+     * @param ingredientNameTrie            trie of ingredient names to add created references to
+     * @param meterRegistry                 registry for hit, miss and eviction metrics of cache
+     * @param maximumSize                   maximum number of cached ingredient references
+     */
+    public IngredientReferenceCache(IngredientReferenceRepository ingredientReferenceRepository,
+                                    PlatformTransactionManager transactionManager, IngredientNameTrie ingredientNameTrie,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${recipe.ingredient.reference.cache.maximum-size:10000}") int maximumSize) {
+        this.ingredientReferenceRepository = ingredientReferenceRepository;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ingredientNameTrie = ingredientNameTrie;
+        this.maximumSize = maximumSize;
+        this.references = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, references, CACHE_NAME);
+    }
+
+    /**
+     * Warm up cache in the same phase as search index and catalog are built, before the web server starts serving
+     * requests
+     */
+    @Override
+    public void start() {
+        warmUp();
+        running = true;
+    }
+
+    /**
+     * Nothing to stop, cache is dropped together with application
+     */
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Check if cache was warmed up
+     *
+     * @return true once warmed up
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get lifecycle phase of warming up cache, before the one of the web server
+     *
+     * @return lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return FoodRecipeServiceImpl.BUILD_PHASE;
+    }
+
+    /**
+     * Warm up cache with ingredient references from inventory
+     */
+    public void warmUp() {
+        ingredientReferenceRepository.findAll(PageRequest.of(0, maximumSize))
+            .forEach(referenceEntity -> references.put(normalize(referenceEntity.getName()), new CachedReference(referenceEntity)));
+    }
+
+    /**
+     * Get ingredient reference by name ignoring case, reference is created if not found
+     *
+     * @param name ingredient name
+     * @return detached ingredient reference to be associated with an ingredient
+     */
+    public IngredientReferenceEntity getOrCreate(String name) {
+        return references.get(normalize(name), key -> findOrCreate(name)).toEntity();
+    }
+
+    private CachedReference findOrCreate(String name) {
+        IngredientReferenceEntity referenceEntity;
+        try {
+            // flushed inside the transaction, so a duplicate name fails here and not on commit
+            referenceEntity = newTransactionTemplate.execute(status ->
+                ingredientReferenceRepository.findByNameEqualsIgnoreCase(name)
+                    .orElseGet(() -> ingredientReferenceRepository.saveAndFlush(formIngredientReferenceEntity(name))));
+        }
+        catch (DataIntegrityViolationException e) {
+            // created by another application instance in the meantime, which the query cache can not know of
+            referenceEntity = newTransactionTemplate.execute(status ->
+                ingredientReferenceRepository.findUncachedByNameEqualsIgnoreCase(name)).orElseThrow(() -> e);
+        }
+        ingredientNameTrie.add(referenceEntity.getName());
+        return new CachedReference(referenceEntity);
+    }
+
+    private static IngredientReferenceEntity formIngredientReferenceEntity(String name) {
+        IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
+        referenceEntity.setName(name);
+        return referenceEntity;
+    }
+
+    private static String normalize(String name) {
+        return TextNormalizer.normalize(name);
+    }
+
+    /**
+     * Immutable id and name of an ingredient reference, entities are not shared between persistence contexts
+     */
+    private static final class CachedReference {
+        private final Long id;
+        private final String name;
+
+        private CachedReference(IngredientReferenceEntity referenceEntity) {
+            this.id = referenceEntity.getId();
+            this.name = referenceEntity.getName();
+        }
+
+        private IngredientReferenceEntity toEntity() {
+            IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
+            referenceEntity.setId(id);
+            referenceEntity.setName(name);
+            return referenceEntity;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.abn.food.recipe.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Error of single food recipe which could not be saved by bulk ingestion
+ *
+ * @author Akhtar
+ */
+@Schema(description = "Error of single food recipe which could not be saved")
+public class BulkIngestError {
+
+    @Schema(description = "Zero based position of food recipe in request")
+    private final int index;
+
+    @Schema(description = "Reason why food recipe was not saved")
+    private final String message;
+
+    /**
+     * Constructor initialization
+     *
+     * @param index   zero based position of food recipe in request
+     * @param message reason why food recipe was not saved
+     */
+    public BulkIngestError(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+
+    /**
+     * Get position of food recipe in request
+     *
+     * @return zero based position of food recipe
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Get reason why food recipe was not saved
+     *
+     * @return error message
+     */
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,130 @@
+package com.abn.food.recipe.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Outcome of bulk ingestion of food recipes
+ *
+ * @author Akhtar
+ */
+@Schema(description = "Outcome of bulk ingestion with errors of food recipes which were not saved")
+public class BulkIngestReport {
+
+    @Schema(description = "Number of food recipes received")
+    private int received;
+
+    @Schema(description = "Number of food recipes saved")
+    private int saved;
+
+    @Schema(description = "Errors of food recipes which were not saved")
+    private final List<BulkIngestError> errors = new ArrayList<>();
+
+    @Schema(description = "Duration of ingestion in milliseconds")
+    private long durationMillis;
+
+    @Schema(description = "Throughput of ingestion in saved food recipes per second")
+    private double recipesPerSecond;
+
+    /**
+     * Get number of food recipes received
+     *
+     * @return number of food recipes received
+     */
+    public int getReceived() {
+        return received;
+    }
+
+    /**
+     * Set number of food recipes received
+     *
+     * @param received number of food recipes received
+     * @return current object
+     */
+    public BulkIngestReport setReceived(int received) {
+        this.received = received;
+        return this;
+    }
+
+    /**
+     * Get number of food recipes saved
+     *
+     * @return number of food recipes saved
+     */
+    public int getSaved() {
+        return saved;
+    }
+
+    /**
+     * Count saved food recipes
+     *
+     * @param count number of food recipes saved
+     * @return current object
+     */
+    public BulkIngestReport addSaved(int count) {
+        this.saved += count;
+        return this;
+    }
+
+    /**
+     * Get number of food recipes which were not saved
+     *
+     * @return number of failed food recipes
+     */
+    public int getFailed() {
+        return errors.size();
+    }
+
+    /**
+     * Get errors of food recipes which were not saved
+     *
+     * @return errors ordered by position in request
+     */
+    public List<BulkIngestError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Add error of food recipe which was not saved
+     *
+     * @param index   zero based position of food recipe in request
+     * @param message reason why food recipe was not saved
+     * @return current object
+     */
+    public BulkIngestReport addError(int index, String message) {
+        errors.add(new BulkIngestError(index, message));
+        return this;
+    }
+
+    /**
+     * Get duration of ingestion
+     *
+     * @return duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Get throughput of ingestion
+     *
+     * @return saved food recipes per second
+     */
+    public double getRecipesPerSecond() {
+        return recipesPerSecond;
+    }
+
+    /**
+     * Set duration of ingestion and derive throughput from saved food recipes
+     *
+     * @param durationNanos duration of ingestion in nanoseconds
+     * @return current object
+     */
+    public BulkIngestReport setDuration(long durationNanos) {
+        this.durationMillis = durationNanos / 1_000_000;
+        this.recipesPerSecond = durationNanos > 0 ? saved * 1_000_000_000.0 / durationNanos : 0;
+        return this;
+    }
+}
@@ -8,6 +8,7 @@ import javax.validation.constraints.Size;
 import org.springframework.hateoas.RepresentationModel;
 
 import com.abn.food.recipe.enums.DishType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -49,6 +50,9 @@ public class FoodRecipe extends RepresentationModel<FoodRecipe> {
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private String instructions;
 
+    @JsonIgnore
+    private Long version;
+
     /**
      * Get Dish type
      *
@@ -95,6 +99,15 @@ public class FoodRecipe extends RepresentationModel<FoodRecipe> {
         return instructions;
     }
 
+    /**
+     * Get version of food recipe in inventory, shared as ETag instead of in body
+     *
+     * @return version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
     /**
      * Get recipe name
      *
@@ -159,4 +172,12 @@ public class FoodRecipe extends RepresentationModel<FoodRecipe> {
         this.instructions = instructions;
     }
 
+    /**
+     * Set version of food recipe in inventory
+     *
+     * @param version version of food recipe
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
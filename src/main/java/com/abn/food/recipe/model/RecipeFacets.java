@@ -0,0 +1,78 @@
+package com.abn.food.recipe.model;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.abn.food.recipe.enums.DishType;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Number of matched food recipes per dish type, number of servings and popular ingredient
+ *
+ * @author Akhtar
+ */
+@Schema(description = "Number of matched food recipes per facet value")
+public class RecipeFacets {
+
+    @Schema(description = "Number of matched food recipes")
+    private long matched;
+
+    @Schema(description = "Number of matched food recipes per dish type")
+    private final Map<DishType, Long> dishTypes = new EnumMap<>(DishType.class);
+
+    @Schema(description = "Number of matched food recipes per number of servings, in ascending order of servings")
+    private final Map<Integer, Long> servings = new TreeMap<>();
+
+    @Schema(description = "Number of matched food recipes per most used ingredient, in descending order of count")
+    private final Map<String, Long> ingredients = new LinkedHashMap<>();
+
+    /**
+     * Get number of matched food recipes
+     *
+     * @return number of matched food recipes
+     */
+    public long getMatched() {
+        return matched;
+    }
+
+    /**
+     * Set number of matched food recipes
+     *
+     * @param matched number of matched food recipes
+     * @return current object
+     */
+    public RecipeFacets setMatched(long matched) {
+        this.matched = matched;
+        return this;
+    }
+
+    /**
+     * Get number of matched food recipes per dish type
+     *
+     * @return counts by dish type
+     */
+    public Map<DishType, Long> getDishTypes() {
+        return dishTypes;
+    }
+
+    /**
+     * Get number of matched food recipes per number of servings
+     *
+     * @return counts by number of servings
+     */
+    public Map<Integer, Long> getServings() {
+        return servings;
+    }
+
+    /**
+     * Get number of matched food recipes per most used ingredient
+     *
+     * @return counts by ingredient name
+     */
+    public Map<String, Long> getIngredients() {
+        return ingredients;
+    }
+}
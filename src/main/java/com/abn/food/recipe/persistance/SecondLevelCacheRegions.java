@@ -0,0 +1,96 @@
+package com.abn.food.recipe.persistance;
+
+import static org.hibernate.cache.spi.RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+import static org.hibernate.cache.spi.RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Properties;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.github.benmanes.caffeine.jcache.CacheManagerImpl;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Regions of the Hibernate second-level cache, kept in process by a Caffeine JCache provider. Every region is created
+ * up front with its own maximum number of entries, and Hibernate fails to start for a cached entity, collection or
+ * query without a region instead of creating an unbounded one.
+ * <p>
+ * Each application context gets its own cache manager, closed together with the context, so contexts never share
+ * cached rows.
+ *
+ * @author Akhtar
+ */
+@Component
+public class SecondLevelCacheRegions implements HibernatePropertiesCustomizer, DisposableBean {
+
+    private static final String INGREDIENTS_REGION = FoodRecipeEntity.class.getName() + ".ingredients";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Constructor initialization
+     *
+     * @param referenceEntries   maximum number of cached ingredient references
+     * @param recipeEntries      maximum number of cached food recipes and of their cached ingredient collections
+     * @param ingredientEntries  maximum number of cached ingredients of food recipes
+     * @param queryResultEntries maximum number of cached query results
+     */
+    public SecondLevelCacheRegions(@Value("${recipe.second-level-cache.reference-entries:10000}") long referenceEntries,
+                                   @Value("${recipe.second-level-cache.recipe-entries:10000}") long recipeEntries,
+                                   @Value("${recipe.second-level-cache.ingredient-entries:100000}") long ingredientEntries,
+                                   @Value("${recipe.second-level-cache.query-result-entries:10000}") long queryResultEntries) {
+        CaffeineCachingProvider cachingProvider = (CaffeineCachingProvider) Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        this.cacheManager = new CacheManagerImpl(cachingProvider,
+            URI.create(SecondLevelCacheRegions.class.getName() + "@" + System.identityHashCode(this)),
+            cachingProvider.getDefaultClassLoader(), new Properties());
+        createRegion(IngredientReferenceEntity.class.getName(), referenceEntries);
+        createRegion(FoodRecipeEntity.class.getName(), recipeEntries);
+        createRegion(INGREDIENTS_REGION, recipeEntries);
+        createRegion(IngredientEntity.class.getName(), ingredientEntries);
+        createRegion(DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryResultEntries);
+        // Holds last update time per table, which must never be evicted before cached query results of the table
+        createRegion(DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, Long.MAX_VALUE);
+    }
+
+    /**
+     * Register cache manager of regions with Hibernate
+     *
+     * @param hibernateProperties properties of Hibernate session factory
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+    }
+
+    /**
+     * Close cache manager and drop all regions
+     */
+    @Override
+    public void destroy() {
+        cacheManager.close();
+    }
+
+    private void createRegion(String regionName, long maximumEntries) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumEntries < Long.MAX_VALUE) {
+            configuration.setMaximumSize(OptionalLong.of(maximumEntries));
+        }
+        cacheManager.createCache(regionName, configuration);
+    }
+}
@@ -0,0 +1,52 @@
+package com.abn.food.recipe.persistance;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts SQL statements prepared by Hibernate per thread, so that statements issued by a single request can be measured
+ * as difference of counts before and after it. Counts only grow, they are never reset between requests.
+ *
+ * @author Akhtar
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private static final long serialVersionUID = 1L;
+    private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Count statement prepared on current thread
+     *
+     * @param sql statement to be prepared
+     * @return statement unchanged
+     */
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Register counter as statement inspector of Hibernate
+     *
+     * @param hibernateProperties properties of Hibernate session factory
+     */
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    /**
+     * Get number of statements prepared on current thread so far
+     *
+     * @return number of prepared statements
+     */
+    public long count() {
+        return STATEMENTS.get()[0];
+    }
+}
@@ -1,21 +1,30 @@
 package com.abn.food.recipe.persistance.entity;
 
-import static java.util.stream.Collectors.toSet;
+import static java.lang.Math.toIntExact;
 import static javax.persistence.CascadeType.MERGE;
 import static javax.persistence.CascadeType.PERSIST;
 import static javax.persistence.CascadeType.REMOVE;
 import static javax.persistence.EnumType.STRING;
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 import java.util.List;
-import java.util.Set;
 
 import javax.persistence.Entity;
 import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.OptimisticLock;
 
 import com.abn.food.recipe.enums.DishType;
 
@@ -26,10 +35,20 @@ import com.abn.food.recipe.enums.DishType;
  */
 @Entity
 @Table(name = "FOOD_RECIPES")
+@Cache(usage = READ_WRITE)
+@NamedEntityGraph(name = FoodRecipeEntity.INGREDIENTS_GRAPH,
+    attributeNodes = @NamedAttributeNode(value = "ingredients", subgraph = "ingredients"),
+    subgraphs = @NamedSubgraph(name = "ingredients", attributeNodes = @NamedAttributeNode("referenceEntity")))
 public class FoodRecipeEntity {
 
+    /**
+     * Fetch plan loading food recipe with all ingredients and their references in single query
+     */
+    public static final String INGREDIENTS_GRAPH = "FoodRecipeEntity.ingredients";
+
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "FOOD_RECIPE_ID_SEQ")
+    @SequenceGenerator(name = "FOOD_RECIPE_ID_SEQ", sequenceName = "FOOD_RECIPE_ID_SEQ", allocationSize = 50)
     private Long id;
 
     private String recipeName;
@@ -40,8 +59,17 @@ public class FoodRecipeEntity {
 
     private String instructions;
     @OneToMany(mappedBy = "foodRecipe", cascade = {PERSIST, MERGE, REMOVE}, orphanRemoval = true)
+    // Ingredients are owned by food recipe, so their changes increment version of food recipe as well
+    @OptimisticLock(excluded = false)
+    @Cache(usage = READ_WRITE)
     private List<IngredientEntity> ingredients;
 
+    @Version
+    private Long version;
+
+    @Transient
+    private int[] ingredientReferenceIds;
+
     /**
      * Get Dish type
      *
@@ -87,6 +115,15 @@ public class FoodRecipeEntity {
         return instructions;
     }
 
+    /**
+     * Get version of food recipe, incremented on every update
+     *
+     * @return version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
     /**
      * Get recipe name
      * @return recipe name
@@ -118,6 +155,7 @@ public class FoodRecipeEntity {
      */
     public void setIngredients(List<IngredientEntity> ingredients) {
         this.ingredients = ingredients;
+        this.ingredientReferenceIds = null;
     }
 
     /**
@@ -144,9 +182,26 @@ public class FoodRecipeEntity {
      */
     public void setRecipeName(String recipeName) { this.recipeName = recipeName; }
 
-    public Set<String> getAllIngredientNamesInUpperCase() {
-        return ingredients.stream()
-            .map(ingredient -> ingredient.getReferenceEntity().getName().toUpperCase())
-            .collect(toSet());
+    /**
+     * Get ids of ingredient references of recipe, computed once and kept until ingredients change
+     *
+     * @return distinct ingredient reference ids in ascending order
+     */
+    public int[] getIngredientReferenceIds() {
+        if (ingredientReferenceIds == null) {
+            ingredientReferenceIds = ingredients == null ? new int[0] : ingredients.stream()
+                .mapToInt(ingredient -> toIntExact(ingredient.getReferenceEntity().getId()))
+                .distinct()
+                .sorted()
+                .toArray();
+        }
+        return ingredientReferenceIds;
+    }
+
+    /**
+     * Drop ingredient reference ids computed before ingredients were changed in place
+     */
+    public void ingredientsChanged() {
+        this.ingredientReferenceIds = null;
     }
 }
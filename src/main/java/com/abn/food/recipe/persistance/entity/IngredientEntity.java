@@ -1,14 +1,18 @@
 package com.abn.food.recipe.persistance.entity;
 
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+
 /**
  * Food Recipe each Ingredient Entity
  *
@@ -16,10 +20,12 @@ import javax.persistence.Table;
  */
 @Entity
 @Table(name = "INGREDIENT")
+@Cache(usage = READ_WRITE)
 public class IngredientEntity {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "INGREDIENT_ID_SEQ")
+    @SequenceGenerator(name = "INGREDIENT_ID_SEQ", sequenceName = "INGREDIENT_ID_SEQ", allocationSize = 50)
     private Long id;
     private Integer quantity;
     private String unit;
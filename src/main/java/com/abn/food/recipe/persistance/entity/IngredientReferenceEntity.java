@@ -1,23 +1,30 @@
 package com.abn.food.recipe.persistance.entity;
 
-import static javax.persistence.GenerationType.IDENTITY;
+import static javax.persistence.GenerationType.SEQUENCE;
+import static org.hibernate.annotations.CacheConcurrencyStrategy.READ_ONLY;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+
 /**
- * Ingredient Reference where all references are stored
+ * Ingredient Reference where all references are stored. References are only ever inserted, never updated or
+ * removed, so they are cached read-only.
  *
  * @author Akhtar
  */
 @Entity
 @Table(name = "INGREDIENT_REFERENCE")
+@Cache(usage = READ_ONLY)
 public class IngredientReferenceEntity {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "INGREDIENT_REFERENCE_ID_SEQ")
+    @SequenceGenerator(name = "INGREDIENT_REFERENCE_ID_SEQ", sequenceName = "INGREDIENT_REFERENCE_ID_SEQ", allocationSize = 50)
     private Long id;
     private String name;
 
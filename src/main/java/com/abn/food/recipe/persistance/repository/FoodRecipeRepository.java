@@ -1,6 +1,12 @@
 package com.abn.food.recipe.persistance.repository;
 
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
@@ -11,5 +17,25 @@ import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
  * @author Akhtar
  */
 @Repository
-public interface FoodRecipeRepository extends JpaRepository<FoodRecipeEntity, Long> {
+public interface FoodRecipeRepository extends JpaRepository<FoodRecipeEntity, Long>, JpaSpecificationExecutor<FoodRecipeEntity>,
+    FoodRecipeRepositoryCustom {
+
+    /**
+     * Fetch food recipe with all ingredients and their references in single query
+     *
+     * @param id of the food recipe
+     * @return matched food recipe
+     */
+    @Override
+    @EntityGraph(FoodRecipeEntity.INGREDIENTS_GRAPH)
+    Optional<FoodRecipeEntity> findById(Long id);
+
+    /**
+     * Fetch only version of food recipe, without its ingredients
+     *
+     * @param id of the food recipe
+     * @return version of matched food recipe
+     */
+    @Query("select recipe.version from FoodRecipeEntity recipe where recipe.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
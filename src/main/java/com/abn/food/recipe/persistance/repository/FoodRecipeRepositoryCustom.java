@@ -0,0 +1,48 @@
+package com.abn.food.recipe.persistance.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+
+/**
+ * Food Recipe Repository queries which are not derived by Spring Data
+ *
+ * @author Akhtar
+ */
+public interface FoodRecipeRepositoryCustom {
+
+    /**
+     * Fetch bounded page of matched food recipes ordered by id, starting after the given id (keyset pagination).
+     * Food recipes are fetched with all ingredients and their references.
+     *
+     * @param specification filters of food recipes
+     * @param afterId       id of last food recipe from previous page, null for first page
+     * @param limit         maximum number of food recipes to be fetched
+     * @return matched food recipes ordered by id
+     */
+    List<FoodRecipeEntity> findAllAfterId(Specification<FoodRecipeEntity> specification, Long afterId, int limit);
+
+    /**
+     * Fetch food recipes with all ingredients and their references in single query
+     *
+     * @param ids of the food recipes
+     * @return food recipes ordered by id
+     */
+    List<FoodRecipeEntity> findAllWithIngredients(Collection<Long> ids);
+
+    /**
+     * Insert new food recipes with their ingredients in JDBC batches within the caller's transaction.
+     * Persistence context is flushed and cleared afterwards, so it does not grow during bulk ingestion.
+     *
+     * @param recipeEntities new food recipes to be inserted
+     */
+    void insertAll(List<FoodRecipeEntity> recipeEntities);
+
+    /**
+     * Detach all loaded food recipes from persistence context, so that it does not grow while streaming
+     */
+    void detachAll();
+}
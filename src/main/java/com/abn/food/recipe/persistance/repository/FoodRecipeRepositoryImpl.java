@@ -0,0 +1,86 @@
+package com.abn.food.recipe.persistance.repository;
+
+import static java.util.Collections.emptyList;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityGraph;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+
+/**
+ * Food Recipe Repository custom queries implementation
+ *
+ * @author Akhtar
+ */
+public class FoodRecipeRepositoryImpl implements FoodRecipeRepositoryCustom {
+
+    private static final String ID = "id";
+    private static final String FIND_ALL_WITH_INGREDIENTS_QUERY =
+        "select distinct recipe from FoodRecipeEntity recipe where recipe.id in :ids order by recipe.id";
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor initialization
+     *
+     * @param entityManager JPA entity manager
+     */
+    public FoodRecipeRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<FoodRecipeEntity> findAllAfterId(Specification<FoodRecipeEntity> specification, Long afterId, int limit) {
+        Specification<FoodRecipeEntity> pageSpecification = afterId == null ? specification
+            : specification.and((root, query, builder) -> builder.greaterThan(root.get(ID), afterId));
+
+        // Page is bounded on ids first, as limiting rows of a collection fetch join would page in memory
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<FoodRecipeEntity> root = query.from(FoodRecipeEntity.class);
+        query.select(root.get(ID)).orderBy(builder.asc(root.get(ID)));
+        Predicate predicate = pageSpecification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        List<Long> ids = entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+        return findAllWithIngredients(ids);
+    }
+
+    @Override
+    public List<FoodRecipeEntity> findAllWithIngredients(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return emptyList();
+        }
+        EntityGraph<?> ingredientsGraph = entityManager.getEntityGraph(FoodRecipeEntity.INGREDIENTS_GRAPH);
+        return entityManager.createQuery(FIND_ALL_WITH_INGREDIENTS_QUERY, FoodRecipeEntity.class)
+            .setParameter("ids", ids)
+            .setHint(QueryHints.HINT_FETCHGRAPH, ingredientsGraph)
+            .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+            .getResultList();
+    }
+
+    @Override
+    public void insertAll(List<FoodRecipeEntity> recipeEntities) {
+        recipeEntities.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public void detachAll() {
+        entityManager.clear();
+    }
+}
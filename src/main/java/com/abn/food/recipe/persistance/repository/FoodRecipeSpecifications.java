@@ -0,0 +1,126 @@
+package com.abn.food.recipe.persistance.repository;
+
+import java.util.Set;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+
+/**
+ * Food Recipe search filters as JPA specifications, so they are evaluated by the database as WHERE clauses
+ *
+ * @author Akhtar
+ */
+public final class FoodRecipeSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private FoodRecipeSpecifications() {
+    }
+
+    /**
+     * Combine all requested search filters
+     *
+     * @param criteria search filters
+     * @return specification matching all filters
+     */
+    public static Specification<FoodRecipeEntity> matching(RecipeSearchCriteria criteria) {
+        Specification<FoodRecipeEntity> specification = Specification.where(null);
+        if (Boolean.TRUE.equals(criteria.getIsVegetarian())) {
+            specification = specification.and(isVegetarian());
+        }
+        if (criteria.getNumberOfServings() != null) {
+            specification = specification.and(hasServings(criteria.getNumberOfServings()));
+        }
+        for (String ingredient : criteria.getIncludeIngredients()) {
+            specification = specification.and(hasIngredient(ingredient));
+        }
+        if (!criteria.getExcludeIngredients().isEmpty()) {
+            specification = specification.and(hasNoneOfIngredients(criteria.getExcludeIngredients()));
+        }
+        for (String keyWord : criteria.getInstructionKeyWords()) {
+            specification = specification.and(hasInstructionKeyWord(keyWord));
+        }
+        return specification;
+    }
+
+    /**
+     * Only vegetarian recipes including vegan
+     *
+     * @return specification on dish type
+     */
+    public static Specification<FoodRecipeEntity> isVegetarian() {
+        return (root, query, builder) -> builder.notEqual(root.get("dishType"), DishType.NON_VEGETARIAN);
+    }
+
+    /**
+     * Recipes matching number of servings
+     *
+     * @param servings number of servings
+     * @return specification on servings
+     */
+    public static Specification<FoodRecipeEntity> hasServings(Integer servings) {
+        return (root, query, builder) -> builder.equal(root.get("servings"), servings);
+    }
+
+    /**
+     * Recipes which has requested ingredient, as EXISTS sub query over ingredients and their references
+     *
+     * @param ingredient ingredient name in upper case
+     * @return specification on ingredients
+     */
+    public static Specification<FoodRecipeEntity> hasIngredient(String ingredient) {
+        return (root, query, builder) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<IngredientEntity> ingredientRoot = subquery.from(IngredientEntity.class);
+            Join<IngredientEntity, IngredientReferenceEntity> reference = ingredientRoot.join("referenceEntity");
+            subquery.select(ingredientRoot.get("id"))
+                .where(builder.equal(ingredientRoot.get("foodRecipe"), root),
+                    builder.equal(builder.upper(reference.get("name")), ingredient));
+            return builder.exists(subquery);
+        };
+    }
+
+    /**
+     * Recipes which doesn't have any of requested ingredients, as NOT EXISTS sub query over ingredients and their references
+     *
+     * @param ingredients ingredient names in upper case
+     * @return specification on ingredients
+     */
+    public static Specification<FoodRecipeEntity> hasNoneOfIngredients(Set<String> ingredients) {
+        return (root, query, builder) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<IngredientEntity> ingredientRoot = subquery.from(IngredientEntity.class);
+            Join<IngredientEntity, IngredientReferenceEntity> reference = ingredientRoot.join("referenceEntity");
+            subquery.select(ingredientRoot.get("id"))
+                .where(builder.equal(ingredientRoot.get("foodRecipe"), root),
+                    builder.upper(reference.get("name")).in(ingredients));
+            return builder.not(builder.exists(subquery));
+        };
+    }
+
+    /**
+     * Recipes which has keyword in instructions, matched case-insensitive
+     *
+     * @param keyWord instruction keyword in upper case
+     * @return specification on instructions
+     */
+    public static Specification<FoodRecipeEntity> hasInstructionKeyWord(String keyWord) {
+        return (root, query, builder) -> builder.like(builder.upper(root.get("instructions")),
+            "%" + escapeLikePattern(keyWord) + "%", LIKE_ESCAPE);
+    }
+
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    }
+}
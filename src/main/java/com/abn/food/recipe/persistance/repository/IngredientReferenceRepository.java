@@ -1,8 +1,13 @@
 package com.abn.food.recipe.persistance.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
@@ -16,10 +21,19 @@ import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
 public interface IngredientReferenceRepository extends JpaRepository<IngredientReferenceEntity, Long> {
 
     /**
-     * Fetch matched Ingredient Reference
+     * Fetch matched Ingredient Reference, result is kept in query cache until an ingredient reference is inserted
      *
      * @param name Ingredient name
      * @return matched Ingredient reference
      */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<IngredientReferenceEntity> findByNameEqualsIgnoreCase(String name);
+
+    /**
+     * Fetch matched Ingredient Reference from database, bypassing the query cache
+     *
+     * @param name Ingredient name
+     * @return matched Ingredient reference
+     */
+    Optional<IngredientReferenceEntity> findUncachedByNameEqualsIgnoreCase(String name);
 }
@@ -0,0 +1,209 @@
+package com.abn.food.recipe.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+import com.abn.food.recipe.service.FoodRecipeServiceImpl;
+
+/**
+ * In-memory prefix trie of ingredient reference names for autocompletion. Names are folded to upper case
+ * character by character along the path, while nodes keep the name as it was saved. Completions of a prefix are
+ * collected depth first from the node of the prefix, which yields them in alphabetical order, and the walk stops
+ * as soon as enough names are found, however many references exist.
+ * <p>
+ * Built from all ingredient references before the web server starts serving requests, new references are added as soon as they
+ * are committed. Like the search index, the trie is held per application instance.
+ *
+ * @author Akhtar
+ */
+@Component
+public class IngredientNameTrie implements SmartLifecycle {
+
+    private final IngredientReferenceRepository ingredientReferenceRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private int size;
+    private volatile boolean running;
+
+    /**
+     * Constructor initialization
+     *
+     * @param ingredientReferenceRepository Ingredient Reference Repository
+     */
+    public IngredientNameTrie(IngredientReferenceRepository ingredientReferenceRepository) {
+        this.ingredientReferenceRepository = ingredientReferenceRepository;
+    }
+
+    /**
+     * Build trie in the same phase as search index and catalog, before the web server starts serving requests
+     */
+    @Override
+    public void start() {
+        build();
+        running = true;
+    }
+
+    /**
+     * Nothing to stop, trie is dropped together with application
+     */
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Check if trie was built
+     *
+     * @return true once built
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get lifecycle phase of building trie, before the one of the web server
+     *
+     * @return lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return FoodRecipeServiceImpl.BUILD_PHASE;
+    }
+
+    /**
+     * Add all ingredient references
+     */
+    public void build() {
+        ingredientReferenceRepository.findAll().stream()
+            .map(IngredientReferenceEntity::getName)
+            .forEach(this::add);
+    }
+
+    /**
+     * Add ingredient reference name, names equal ignoring case are kept once
+     *
+     * @param name ingredient reference name
+     */
+    public void add(String name) {
+        String foldedName = fold(name);
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < foldedName.length(); i++) {
+                node = node.childOrAdd(foldedName.charAt(i));
+            }
+            if (node.name == null) {
+                node.name = name;
+                size++;
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get ingredient reference names starting with prefix ignoring case
+     *
+     * @param prefix start of ingredient name
+     * @param limit  maximum number of names
+     * @return names in ascending order of upper-cased name
+     */
+    public List<String> complete(String prefix, int limit) {
+        String foldedPrefix = fold(prefix);
+        List<String> names = new ArrayList<>(Math.min(limit, 16));
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < foldedPrefix.length() && node != null; i++) {
+                node = node.child(foldedPrefix.charAt(i));
+            }
+            if (node == null) {
+                return names;
+            }
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(node);
+            while (!pending.isEmpty() && names.size() < limit) {
+                Node next = pending.pop();
+                if (next.name != null) {
+                    names.add(next.name);
+                }
+                // pushed in reverse, so children are popped in ascending order of character
+                for (int i = next.children.length - 1; i >= 0; i--) {
+                    pending.push(next.children[i]);
+                }
+            }
+            return names;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get number of distinct ingredient reference names
+     *
+     * @return number of names
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String fold(String name) {
+        return TextNormalizer.normalize(name);
+    }
+
+    /**
+     * Node of the trie with children sorted by character, arrays are sized exactly to keep the trie compact
+     */
+    private static final class Node {
+        private static final char[] NO_CHARACTERS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] characters = NO_CHARACTERS;
+        private Node[] children = NO_CHILDREN;
+        private String name;
+
+        private Node child(char character) {
+            int position = Arrays.binarySearch(characters, character);
+            return position < 0 ? null : children[position];
+        }
+
+        private Node childOrAdd(char character) {
+            int position = Arrays.binarySearch(characters, character);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertion = -position - 1;
+            char[] newCharacters = new char[characters.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(characters, 0, newCharacters, 0, insertion);
+            System.arraycopy(children, 0, newChildren, 0, insertion);
+            System.arraycopy(characters, insertion, newCharacters, insertion + 1, characters.length - insertion);
+            System.arraycopy(children, insertion, newChildren, insertion + 1, children.length - insertion);
+            Node child = new Node();
+            newCharacters[insertion] = character;
+            newChildren[insertion] = child;
+            characters = newCharacters;
+            children = newChildren;
+            return child;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.abn.food.recipe.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Term postings of food recipe names and instructions, ranking food recipes by BM25 relevance to free text.
+ * Every term is mapped to a bitmap of recipe ids, while term frequencies and length are kept per recipe.
+ * <p>
+ * Only the best K recipes are kept in a bounded heap, and terms are evaluated by MaxScore: once the heap is full,
+ * terms whose upper bounds together can not beat the worst kept score are no longer iterated, only probed for
+ * recipes reached through other terms. Iteration stops when no remaining term can lift a recipe into the heap.
+ * <p>
+ * Not thread safe, access is guarded by {@link RecipeSearchIndex}.
+ *
+ * @author Akhtar
+ */
+final class InstructionTermIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // term ids are never reused, so a removed term keeps its id if it is indexed again
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> postings = new HashMap<>();
+    private final Map<Integer, TermFrequencies> recipes = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Add terms of food recipe name and instructions, replacing previously added terms of food recipe
+     *
+     * @param recipeId     id of the food recipe
+     * @param recipeName   food recipe name
+     * @param instructions food recipe instructions
+     */
+    void add(int recipeId, String recipeName, String instructions) {
+        remove(recipeId);
+        List<String> terms = tokenize(recipeName);
+        terms.addAll(tokenize(instructions));
+        Map<Integer, Integer> frequencies = new TreeMap<>();
+        for (String term : terms) {
+            frequencies.merge(termIds.computeIfAbsent(term, key -> termIds.size()), 1, Integer::sum);
+        }
+        int[] recipeTermIds = frequencies.keySet().stream().mapToInt(Integer::intValue).toArray();
+        for (int termId : recipeTermIds) {
+            postings.computeIfAbsent(termId, key -> new RoaringBitmap()).add(recipeId);
+        }
+        recipes.put(recipeId, new TermFrequencies(recipeTermIds,
+            frequencies.values().stream().mapToInt(Integer::intValue).toArray(), terms.size()));
+        totalLength += terms.size();
+    }
+
+    /**
+     * Remove food recipe from term postings
+     *
+     * @param recipeId id of the food recipe
+     */
+    void remove(int recipeId) {
+        TermFrequencies termFrequencies = recipes.remove(recipeId);
+        if (termFrequencies == null) {
+            return;
+        }
+        for (int termId : termFrequencies.termIds) {
+            RoaringBitmap recipeIds = postings.get(termId);
+            recipeIds.remove(recipeId);
+            if (recipeIds.isEmpty()) {
+                postings.remove(termId);
+            }
+        }
+        totalLength -= termFrequencies.length;
+    }
+
+    /**
+     * Drop all term postings
+     */
+    void clear() {
+        termIds.clear();
+        postings.clear();
+        recipes.clear();
+        totalLength = 0;
+    }
+
+    /**
+     * Rank food recipes containing any term of the query by BM25 score
+     *
+     * @param queryTerms distinct terms in upper case
+     * @param allowedIds ids of food recipes which may be ranked
+     * @param limit      maximum number of ranked food recipes
+     * @return ids of best food recipes in descending order of score, equal scores in ascending order of id
+     */
+    int[] rank(Collection<String> queryTerms, RoaringBitmap allowedIds, int limit) {
+        if (recipes.isEmpty() || limit < 1) {
+            return new int[0];
+        }
+        double averageLength = (double) totalLength / recipes.size();
+        List<QueryTerm> terms = new ArrayList<>();
+        for (String queryTerm : queryTerms) {
+            Integer termId = termIds.get(queryTerm);
+            RoaringBitmap recipeIds = termId == null ? null : postings.get(termId);
+            if (recipeIds != null) {
+                terms.add(new QueryTerm(termId, recipeIds, recipes.size()));
+            }
+        }
+        // terms with lowest bounds first, bounds[i] is the best score terms 0 to i can add together
+        terms.sort(Comparator.comparingDouble(term -> term.upperBound));
+        double[] bounds = new double[terms.size()];
+        for (int i = 0; i < terms.size(); i++) {
+            bounds[i] = (i == 0 ? 0 : bounds[i - 1]) + terms.get(i).upperBound;
+        }
+
+        PriorityQueue<ScoredRecipe> best = new PriorityQueue<>(ScoredRecipe.WORST_FIRST);
+        double threshold = 0;
+        int firstEssential = 0;
+        while (true) {
+            int candidate = Integer.MAX_VALUE;
+            boolean hasCandidate = false;
+            for (int i = firstEssential; i < terms.size(); i++) {
+                PeekableIntIterator recipeIds = terms.get(i).recipeIds;
+                if (recipeIds.hasNext() && Integer.compareUnsigned(recipeIds.peekNext(), candidate) <= 0) {
+                    candidate = recipeIds.peekNext();
+                    hasCandidate = true;
+                }
+            }
+            if (!hasCandidate) {
+                break;
+            }
+            if (!allowedIds.contains(candidate)) {
+                long nextAllowed = allowedIds.nextValue(candidate);
+                if (nextAllowed < 0) {
+                    break;
+                }
+                for (int i = firstEssential; i < terms.size(); i++) {
+                    terms.get(i).recipeIds.advanceIfNeeded((int) nextAllowed);
+                }
+                continue;
+            }
+            TermFrequencies recipe = recipes.get(candidate);
+            double score = 0;
+            for (int i = firstEssential; i < terms.size(); i++) {
+                PeekableIntIterator recipeIds = terms.get(i).recipeIds;
+                if (recipeIds.hasNext() && recipeIds.peekNext() == candidate) {
+                    score += terms.get(i).score(recipe, averageLength);
+                    recipeIds.next();
+                }
+            }
+            for (int i = firstEssential - 1; i >= 0 && score + bounds[i] > threshold; i--) {
+                if (terms.get(i).postings.contains(candidate)) {
+                    score += terms.get(i).score(recipe, averageLength);
+                }
+            }
+            if (best.size() < limit) {
+                best.add(new ScoredRecipe(candidate, score));
+            }
+            else if (score > threshold) {
+                best.poll();
+                best.add(new ScoredRecipe(candidate, score));
+            }
+            if (best.size() == limit) {
+                threshold = best.peek().score;
+                while (firstEssential < terms.size() && bounds[firstEssential] <= threshold) {
+                    firstEssential++;
+                }
+            }
+        }
+        ScoredRecipe[] ranked = best.toArray(new ScoredRecipe[0]);
+        Arrays.sort(ranked, ScoredRecipe.WORST_FIRST.reversed());
+        return Arrays.stream(ranked).mapToInt(scoredRecipe -> scoredRecipe.recipeId).toArray();
+    }
+
+    /**
+     * Split text into terms of letters and digits, upper-cased like ingredient names and instruction keywords
+     *
+     * @param text text to be tokenized
+     * @return terms in order of text, with duplicates
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : SEPARATOR.split(TextNormalizer.normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Split query into distinct upper-cased terms
+     *
+     * @param query free text query
+     * @return distinct terms in order of query
+     */
+    static Set<String> queryTerms(String query) {
+        return new LinkedHashSet<>(tokenize(query));
+    }
+
+    /**
+     * Term frequencies and number of terms of a food recipe
+     */
+    private static final class TermFrequencies {
+        private final int[] termIds;
+        private final int[] frequencies;
+        private final int length;
+
+        private TermFrequencies(int[] termIds, int[] frequencies, int length) {
+            this.termIds = termIds;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+
+        private int frequency(int termId) {
+            int position = Arrays.binarySearch(termIds, termId);
+            return position < 0 ? 0 : frequencies[position];
+        }
+    }
+
+    /**
+     * Query term with iterator over its postings and the best score it can add to any food recipe
+     */
+    private static final class QueryTerm {
+        private final int termId;
+        private final RoaringBitmap postings;
+        private final PeekableIntIterator recipeIds;
+        private final double idf;
+        private final double upperBound;
+
+        private QueryTerm(int termId, RoaringBitmap postings, int recipeCount) {
+            this.termId = termId;
+            this.postings = postings;
+            this.recipeIds = postings.getIntIterator();
+            int recipesWithTerm = postings.getCardinality();
+            this.idf = Math.log(1 + (recipeCount - recipesWithTerm + 0.5) / (recipesWithTerm + 0.5));
+            // term frequency saturates at K1 + 1 however often the term occurs
+            this.upperBound = idf * (K1 + 1);
+        }
+
+        private double score(TermFrequencies recipe, double averageLength) {
+            int frequency = recipe.frequency(termId);
+            return idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * recipe.length / averageLength));
+        }
+    }
+
+    /**
+     * Food recipe id with its score
+     */
+    private static final class ScoredRecipe {
+        // lowest score first, of equal scores the highest id first
+        private static final Comparator<ScoredRecipe> WORST_FIRST = Comparator.<ScoredRecipe>comparingDouble(scored -> scored.score)
+            .thenComparing(scored -> scored.recipeId, Comparator.reverseOrder());
+
+        private final int recipeId;
+        private final double score;
+
+        private ScoredRecipe(int recipeId, double score) {
+            this.recipeId = recipeId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.abn.food.recipe.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Trigram postings of food recipe instructions. Instructions are upper-cased the same way as search keywords,
+ * every three consecutive characters form a trigram and each trigram is mapped to a bitmap of recipe ids.
+ * A recipe can only contain a keyword if it contains all trigrams of the keyword, so the postings narrow down
+ * candidates which are verified with the exact case-insensitive contains check afterwards.
+ * <p>
+ * Not thread safe, access is guarded by {@link RecipeSearchIndex}.
+ *
+ * @author Akhtar
+ */
+final class InstructionTrigramIndex {
+
+    static final int TRIGRAM_LENGTH = 3;
+
+    private final Map<Long, RoaringBitmap> postings = new HashMap<>();
+
+    /**
+     * Add instruction trigrams of food recipe
+     *
+     * @param recipeId     id of the food recipe
+     * @param instructions food recipe instructions
+     * @return distinct trigrams of instructions, needed to remove recipe later
+     */
+    long[] add(int recipeId, String instructions) {
+        long[] trigrams = tokenize(instructions);
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, key -> new RoaringBitmap()).add(recipeId);
+        }
+        return trigrams;
+    }
+
+    /**
+     * Remove food recipe from trigram postings
+     *
+     * @param recipeId id of the food recipe
+     * @param trigrams distinct trigrams returned when recipe was added
+     */
+    void remove(int recipeId, long[] trigrams) {
+        for (long trigram : trigrams) {
+            RoaringBitmap recipeIds = postings.get(trigram);
+            recipeIds.remove(recipeId);
+            if (recipeIds.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Drop all trigram postings
+     */
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Narrow down matched recipes to candidates which contain all trigrams of the keyword.
+     * Keywords shorter than a trigram do not narrow down matched recipes.
+     *
+     * @param matched matched recipe ids to be narrowed down
+     * @param keyWord instruction keyword in upper case
+     */
+    void narrow(RoaringBitmap matched, String keyWord) {
+        for (long trigram : tokenize(keyWord)) {
+            RoaringBitmap recipeIds = postings.get(trigram);
+            if (recipeIds == null) {
+                matched.clear();
+                return;
+            }
+            matched.and(recipeIds);
+        }
+    }
+
+    /**
+     * Split text into distinct trigrams of its upper-cased characters, each packed into a long
+     *
+     * @param text text to be tokenized
+     * @return distinct trigrams in ascending order
+     */
+    static long[] tokenize(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        String upperCaseText = TextNormalizer.normalize(text);
+        int trigramCount = Math.max(upperCaseText.length() - TRIGRAM_LENGTH + 1, 0);
+        long[] trigrams = new long[trigramCount];
+        for (int i = 0; i < trigramCount; i++) {
+            trigrams[i] = ((long) upperCaseText.charAt(i) << 32)
+                | ((long) upperCaseText.charAt(i + 1) << 16)
+                | upperCaseText.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).distinct().sorted().toArray();
+    }
+}
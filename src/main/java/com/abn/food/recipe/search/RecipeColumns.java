@@ -0,0 +1,163 @@
+package com.abn.food.recipe.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import com.abn.food.recipe.enums.DishType;
+
+/**
+ * Dish type and servings of indexed food recipes in columns of primitive arrays, one slot per food recipe.
+ * Columns are scanned sequentially in blocks of 64 slots by a loop without data dependent branches, so
+ * selecting food recipes reads a few bytes per recipe instead of following references to heap objects.
+ * <p>
+ * Slots are appended in indexing order and overwritten in place on update. Removed slots are left empty until
+ * half of all slots are empty, then columns are compacted. Servings outside of {@value #MAX_SERVINGS} can not be
+ * selected from columns. Not thread safe, callers must serialize writes with scans.
+ *
+ * @author Akhtar
+ */
+public final class RecipeColumns {
+
+    static final int MAX_SERVINGS = 254;
+    private static final byte EMPTY = -1;
+    private static final int OTHER_SERVINGS = 0xFF;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private byte[] dishTypes = new byte[INITIAL_CAPACITY];
+    private byte[] servings = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Check if food recipes with number of servings can be selected from columns
+     *
+     * @param numberOfServings number of servings, null for any
+     * @return true if servings are kept in columns
+     */
+    public static boolean canSelect(Integer numberOfServings) {
+        return numberOfServings == null || (numberOfServings >= 0 && numberOfServings <= MAX_SERVINGS);
+    }
+
+    /**
+     * Add food recipe to columns or replace its values
+     *
+     * @param id               of food recipe
+     * @param dishType         dish type of food recipe
+     * @param numberOfServings number of servings of food recipe
+     */
+    public void put(int id, DishType dishType, Integer numberOfServings) {
+        Integer slot = slotsById.get(id);
+        if (slot == null) {
+            if (size == ids.length) {
+                grow();
+            }
+            slot = size++;
+            slotsById.put(id, slot);
+            ids[slot] = id;
+        }
+        dishTypes[slot] = dishType == null ? EMPTY : (byte) dishType.ordinal();
+        servings[slot] = (byte) (canSelect(numberOfServings) && numberOfServings != null ? numberOfServings : OTHER_SERVINGS);
+    }
+
+    /**
+     * Remove food recipe from columns
+     *
+     * @param id of food recipe
+     */
+    public void remove(int id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        dishTypes[slot] = EMPTY;
+        if (slotsById.size() < size / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Remove all food recipes
+     */
+    public void clear() {
+        slotsById.clear();
+        ids = new int[INITIAL_CAPACITY];
+        dishTypes = new byte[INITIAL_CAPACITY];
+        servings = new byte[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Select food recipes by dish type and number of servings
+     *
+     * @param vegetarianOnly   true to skip non-vegetarian food recipes
+     * @param numberOfServings number of servings, null for any, must be selectable by {@link #canSelect(Integer)}
+     * @return ids of selected food recipes
+     */
+    public RoaringBitmap select(boolean vegetarianOnly, Integer numberOfServings) {
+        if (!canSelect(numberOfServings)) {
+            throw new IllegalArgumentException("Servings " + numberOfServings + " can not be selected from columns");
+        }
+        // every predicate is evaluated for every slot, a disabled predicate compares to a value no slot holds
+        int excludedDishType = vegetarianOnly ? DishType.NON_VEGETARIAN.ordinal() : EMPTY;
+        int servingsMask = numberOfServings == null ? 0 : 0xFF;
+        int wantedServings = numberOfServings == null ? 0 : numberOfServings;
+        int[] columnIds = ids;
+        byte[] dishTypeColumn = dishTypes;
+        byte[] servingsColumn = servings;
+        int[] selected = new int[64];
+        RoaringBitmap selectedIds = new RoaringBitmap();
+        for (int block = 0; block < size; block += 64) {
+            int blockEnd = Math.min(block + 64, size);
+            long selection = 0;
+            for (int slot = block; slot < blockEnd; slot++) {
+                int dishType = dishTypeColumn[slot];
+                boolean matched = (dishType != EMPTY) & (dishType != excludedDishType)
+                    & ((servingsColumn[slot] & servingsMask) == wantedServings);
+                selection |= (matched ? 1L : 0L) << slot;
+            }
+            int count = 0;
+            while (selection != 0) {
+                selected[count++] = columnIds[block + Long.numberOfTrailingZeros(selection)];
+                selection &= selection - 1;
+            }
+            selectedIds.addN(selected, 0, count);
+        }
+        return selectedIds;
+    }
+
+    /**
+     * Get number of food recipes in columns
+     *
+     * @return number of food recipes
+     */
+    public int size() {
+        return slotsById.size();
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        dishTypes = Arrays.copyOf(dishTypes, capacity);
+        servings = Arrays.copyOf(servings, capacity);
+    }
+
+    private void compact() {
+        int compactedSize = 0;
+        for (int slot = 0; slot < size; slot++) {
+            // a removed food recipe indexed again has a later slot
+            if (!Integer.valueOf(slot).equals(slotsById.get(ids[slot]))) {
+                continue;
+            }
+            ids[compactedSize] = ids[slot];
+            dishTypes[compactedSize] = dishTypes[slot];
+            servings[compactedSize] = servings[slot];
+            slotsById.put(ids[slot], compactedSize);
+            compactedSize++;
+        }
+        size = compactedSize;
+    }
+}
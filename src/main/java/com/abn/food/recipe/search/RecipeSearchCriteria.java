@@ -0,0 +1,178 @@
+package com.abn.food.recipe.search;
+
+import static java.util.Optional.ofNullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+
+/**
+ * Normalized filters of a food recipe search
+ *
+ * @author Akhtar
+ */
+public final class RecipeSearchCriteria {
+
+    private static final String NO_FILTERS = "none";
+
+    private final Boolean isVegetarian;
+    private final Integer numberOfServings;
+    private final Set<String> includeIngredients;
+    private final Set<String> excludeIngredients;
+    private final Set<String> instructionKeyWords;
+
+    /**
+     * Constructor initialization
+     *
+     * @param isVegetarian        share food recipes which are only vegetarian(including vegan)
+     * @param numberOfServings    recipes matching number of servings
+     * @param includeIngredients  recipes which has requested ingredients in upper case
+     * @param excludeIngredients  recipes which doesn't have requested ingredients in upper case
+     * @param instructionKeyWords recipes which has instructions from keywords in upper case
+     */
+    public RecipeSearchCriteria(Boolean isVegetarian, Integer numberOfServings, Set<String> includeIngredients,
+                                Set<String> excludeIngredients, Set<String> instructionKeyWords) {
+        this.isVegetarian = isVegetarian;
+        this.numberOfServings = numberOfServings;
+        this.includeIngredients = Set.copyOf(includeIngredients);
+        this.excludeIngredients = Set.copyOf(excludeIngredients);
+        this.instructionKeyWords = Set.copyOf(instructionKeyWords);
+    }
+
+    /**
+     * Get vegetarian(including vegan) filter
+     *
+     * @return true if only vegetarian recipes are requested
+     */
+    public Boolean getIsVegetarian() {
+        return isVegetarian;
+    }
+
+    /**
+     * Get number of servings filter
+     *
+     * @return number of servings
+     */
+    public Integer getNumberOfServings() {
+        return numberOfServings;
+    }
+
+    /**
+     * Get ingredients which should be part of recipe
+     *
+     * @return included ingredient names in upper case
+     */
+    public Set<String> getIncludeIngredients() {
+        return includeIngredients;
+    }
+
+    /**
+     * Get ingredients which should not be part of recipe
+     *
+     * @return excluded ingredient names in upper case
+     */
+    public Set<String> getExcludeIngredients() {
+        return excludeIngredients;
+    }
+
+    /**
+     * Get keywords which should be present in recipe instructions
+     *
+     * @return instruction keywords in upper case
+     */
+    public Set<String> getInstructionKeyWords() {
+        return instructionKeyWords;
+    }
+
+    /**
+     * Get names of filters used in this search, without their values, so that metrics can be tagged with them
+     *
+     * @return used filter names separated by dash in fixed order, none if search is not filtered
+     */
+    public String getUsedFilters() {
+        List<String> usedFilters = new ArrayList<>();
+        if (isVegetarian != null) {
+            usedFilters.add("isVegetarian");
+        }
+        if (numberOfServings != null) {
+            usedFilters.add("numberOfServings");
+        }
+        if (!includeIngredients.isEmpty()) {
+            usedFilters.add("includeIngredients");
+        }
+        if (!excludeIngredients.isEmpty()) {
+            usedFilters.add("excludeIngredients");
+        }
+        if (!instructionKeyWords.isEmpty()) {
+            usedFilters.add("instructions");
+        }
+        return usedFilters.isEmpty() ? NO_FILTERS : String.join("-", usedFilters);
+    }
+
+    /**
+     * Resolve filters once into a matcher of food recipes, evaluated in memory the same way as by index and database.
+     * Ingredient names are resolved to reference ids, so ingredients of every food recipe are only merged
+     * with sorted ids instead of being compared by name. Included names which are unknown match no food recipe.
+     *
+     * @param referenceIds ingredient reference ids by ingredient name in upper case
+     * @return matcher of food recipes with ingredients
+     */
+    public Predicate<FoodRecipeEntity> matcher(Map<String, Integer> referenceIds) {
+        if (!referenceIds.keySet().containsAll(includeIngredients)) {
+            return recipeEntity -> false;
+        }
+        int[] includeIds = resolve(includeIngredients, referenceIds);
+        int[] excludeIds = resolve(excludeIngredients, referenceIds);
+        return recipeEntity -> {
+            if (Boolean.TRUE.equals(isVegetarian) && recipeEntity.getDishType() == DishType.NON_VEGETARIAN) {
+                return false;
+            }
+            if (numberOfServings != null && !numberOfServings.equals(recipeEntity.getServings())) {
+                return false;
+            }
+            int[] ingredientIds = recipeEntity.getIngredientReferenceIds();
+            if (!SortedIds.containsAll(ingredientIds, includeIds) || !SortedIds.isDisjoint(ingredientIds, excludeIds)) {
+                return false;
+            }
+            String instructions = TextNormalizer.normalize(ofNullable(recipeEntity.getInstructions()).orElse(""));
+            return instructionKeyWords.stream().allMatch(instructions::contains);
+        };
+    }
+
+    private static int[] resolve(Set<String> ingredients, Map<String, Integer> referenceIds) {
+        return ingredients.stream()
+            .map(referenceIds::get)
+            .filter(Objects::nonNull)
+            .mapToInt(Integer::intValue)
+            .distinct()
+            .sorted()
+            .toArray();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RecipeSearchCriteria that = (RecipeSearchCriteria) o;
+        return Objects.equals(isVegetarian, that.isVegetarian)
+            && Objects.equals(numberOfServings, that.numberOfServings)
+            && includeIngredients.equals(that.includeIngredients)
+            && excludeIngredients.equals(that.excludeIngredients)
+            && instructionKeyWords.equals(that.instructionKeyWords);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(isVegetarian, numberOfServings, includeIngredients, excludeIngredients, instructionKeyWords);
+    }
+}
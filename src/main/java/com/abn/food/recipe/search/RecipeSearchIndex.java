@@ -0,0 +1,415 @@
+package com.abn.food.recipe.search;
+
+import static java.lang.Math.toIntExact;
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.model.RecipeFacets;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+
+/**
+ * In-process inverted index of food recipes. Every dish type, number of servings and ingredient reference
+ * is mapped to a compressed bitmap of recipe ids, so that filters are resolved with bitmap operations
+ * and only matched recipes have to be loaded from the repository. Instruction keywords are narrowed down
+ * through trigram postings of instructions, and free text is ranked by BM25 through term postings of names
+ * and instructions.
+ * When disabled, all filters are evaluated by the database instead.
+ * <p>
+ * Large indexes can be searched in parallel: the id range is split into fixed-size segments, filters are evaluated
+ * per segment on a dedicated fork/join pool and segments are merged back in id order. Indexes smaller than
+ * the parallel threshold are always searched sequentially.
+ * <p>
+ * With columnar scan, vegetarian and servings filters are resolved by scanning {@link RecipeColumns} instead of
+ * combining dish type and servings bitmaps, and the selection is narrowed by ingredient and keyword bitmaps as before.
+ * <p>
+ * Writers update the index after their commit without ordering among each other, so a food recipe is never replaced by
+ * an older version of itself, and removed food recipe ids are kept as tombstones which are never indexed again.
+ * Ids come from a sequence and are not reused.
+ *
+ * @author Akhtar
+ */
+@Component
+public class RecipeSearchIndex {
+
+    // One roaring container per bitmap and segment, so segments never share containers
+    static final long SEGMENT_SIZE = 1L << 16;
+
+    private final boolean enabled;
+    private final ForkJoinPool searchPool;
+    private final long parallelThreshold;
+    private final boolean columnarScan;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap allRecipes = new RoaringBitmap();
+    private final RoaringBitmap removedRecipes = new RoaringBitmap();
+    private final Map<DishType, RoaringBitmap> dishTypeIndex = new EnumMap<>(DishType.class);
+    private final Map<Integer, RoaringBitmap> servingsIndex = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> ingredientIndex = new HashMap<>();
+    private final Map<String, Integer> ingredientReferenceIds = new HashMap<>();
+    private final Map<Integer, String> ingredientNames = new HashMap<>();
+    private final InstructionTrigramIndex instructionIndex = new InstructionTrigramIndex();
+    private final InstructionTermIndex termIndex = new InstructionTermIndex();
+    private final Map<Integer, IndexedRecipe> indexedRecipes = new HashMap<>();
+    private final RecipeColumns recipeColumns = new RecipeColumns();
+
+    /**
+     * Constructor initialization
+     *
+     * @param enabled           false to skip indexing and search food recipes only in database
+     * @param parallelism       number of threads searching segments in parallel, 0 to always search sequentially
+     * @param parallelThreshold minimum number of indexed food recipes to search in parallel
+     * @param columnarScan      true to resolve vegetarian and servings filters by scanning columns instead of bitmaps
+     */
+    public RecipeSearchIndex(@Value("${recipe.search.index.enabled:true}") boolean enabled,
+                             @Value("${recipe.search.index.parallelism:0}") int parallelism,
+                             @Value("${recipe.search.index.parallel-threshold:100000}") long parallelThreshold,
+                             @Value("${recipe.search.index.columnar-scan:false}") boolean columnarScan) {
+        this.enabled = enabled;
+        this.searchPool = parallelism > 0 ? new ForkJoinPool(parallelism, RecipeSearchIndex::newSearchThread, null, false) : null;
+        this.parallelThreshold = parallelThreshold;
+        this.columnarScan = columnarScan;
+    }
+
+    /**
+     * Stop threads of parallel search once application is stopped
+     */
+    @PreDestroy
+    public void close() {
+        if (searchPool != null) {
+            searchPool.shutdown();
+        }
+    }
+
+    /**
+     * Check if index is used for searching food recipes
+     *
+     * @return true if index is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Add food recipe to index or replace already indexed values of it, unless it was removed or a newer version of it
+     * is indexed already
+     *
+     * @param recipeEntity persisted food recipe with ingredients
+     */
+    public void index(FoodRecipeEntity recipeEntity) {
+        if (!enabled) {
+            return;
+        }
+        int recipeId = toIntExact(recipeEntity.getId());
+        List<IngredientEntity> ingredients = ofNullable(recipeEntity.getIngredients()).orElse(emptyList());
+        int[] referenceIds = recipeEntity.getIngredientReferenceIds();
+
+        lock.writeLock().lock();
+        try {
+            if (removedRecipes.contains(recipeId) || isNewer(indexedRecipes.get(recipeId), recipeEntity.getVersion())) {
+                return;
+            }
+            unIndex(recipeId);
+            for (IngredientEntity ingredient : ingredients) {
+                IngredientReferenceEntity referenceEntity = ingredient.getReferenceEntity();
+                ingredientReferenceIds.put(TextNormalizer.normalize(referenceEntity.getName()), toIntExact(referenceEntity.getId()));
+                ingredientNames.put(toIntExact(referenceEntity.getId()), referenceEntity.getName());
+            }
+            for (int referenceId : referenceIds) {
+                ingredientIndex.computeIfAbsent(referenceId, key -> new RoaringBitmap()).add(recipeId);
+            }
+            dishTypeIndex.computeIfAbsent(recipeEntity.getDishType(), key -> new RoaringBitmap()).add(recipeId);
+            servingsIndex.computeIfAbsent(recipeEntity.getServings(), key -> new RoaringBitmap()).add(recipeId);
+            long[] trigrams = instructionIndex.add(recipeId, recipeEntity.getInstructions());
+            termIndex.add(recipeId, recipeEntity.getRecipeName(), recipeEntity.getInstructions());
+            allRecipes.add(recipeId);
+            if (columnarScan) {
+                recipeColumns.put(recipeId, recipeEntity.getDishType(), recipeEntity.getServings());
+            }
+            indexedRecipes.put(recipeId, new IndexedRecipe(recipeEntity.getVersion(), recipeEntity.getDishType(),
+                recipeEntity.getServings(), referenceIds, trigrams));
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove food recipe from index, it is never indexed again
+     *
+     * @param id of the food recipe
+     */
+    public void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            unIndex(toIntExact(id));
+            removedRecipes.add(toIntExact(id));
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop all indexed food recipes, tombstones of removed food recipes are kept
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            allRecipes.clear();
+            dishTypeIndex.clear();
+            servingsIndex.clear();
+            ingredientIndex.clear();
+            ingredientReferenceIds.clear();
+            ingredientNames.clear();
+            instructionIndex.clear();
+            termIndex.clear();
+            indexedRecipes.clear();
+            recipeColumns.clear();
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resolve dish type, servings and ingredient filters to matched food recipe ids.
+     * Instruction keywords only narrow down candidates, so matched recipes must still be verified
+     * to contain the keywords by the caller.
+     *
+     * @param criteria search filters
+     * @return ids of matched food recipes in ascending order
+     */
+    public RoaringBitmap search(RecipeSearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> required = new ArrayList<>();
+            List<RoaringBitmap> excluded = new ArrayList<>();
+            boolean vegetarianOnly = Boolean.TRUE.equals(criteria.getIsVegetarian());
+            if (columnarScan && (vegetarianOnly || criteria.getNumberOfServings() != null)
+                && RecipeColumns.canSelect(criteria.getNumberOfServings())) {
+                required.add(recipeColumns.select(vegetarianOnly, criteria.getNumberOfServings()));
+            }
+            else {
+                required.add(allRecipes);
+                if (vegetarianOnly) {
+                    excluded.add(bitmapOf(dishTypeIndex.get(DishType.NON_VEGETARIAN)));
+                }
+                if (criteria.getNumberOfServings() != null) {
+                    required.add(bitmapOf(servingsIndex.get(criteria.getNumberOfServings())));
+                }
+            }
+            for (String ingredient : criteria.getIncludeIngredients()) {
+                Integer referenceId = ingredientReferenceIds.get(ingredient);
+                if (referenceId == null) {
+                    return new RoaringBitmap();
+                }
+                required.add(bitmapOf(ingredientIndex.get(referenceId)));
+            }
+            for (String ingredient : criteria.getExcludeIngredients()) {
+                Integer referenceId = ingredientReferenceIds.get(ingredient);
+                if (referenceId != null) {
+                    excluded.add(bitmapOf(ingredientIndex.get(referenceId)));
+                }
+            }
+            // Smallest bitmap is copied first, so intersections only shrink it
+            required.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            if (searchPool == null || allRecipes.getLongCardinality() < parallelThreshold || allRecipes.isEmpty()) {
+                return narrow(FastAggregation.and(required.iterator()), excluded, criteria);
+            }
+            long segments = (Integer.toUnsignedLong(allRecipes.last()) + SEGMENT_SIZE) / SEGMENT_SIZE;
+            return searchPool.invoke(new SegmentSearch(required, excluded, criteria, 0, segments));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank food recipes matching filters by BM25 relevance of their names and instructions to free text.
+     * Instruction keywords of filters only narrow down candidates, as in {@link #search(RecipeSearchCriteria)}.
+     *
+     * @param criteria search filters
+     * @param query    free text, split into terms of letters and digits
+     * @param limit    maximum number of ranked food recipes
+     * @return ids of most relevant food recipes in descending order of relevance
+     */
+    public int[] rank(RecipeSearchCriteria criteria, String query, int limit) {
+        RoaringBitmap matchedIds = search(criteria);
+        lock.readLock().lock();
+        try {
+            return termIndex.rank(InstructionTermIndex.queryTerms(query), matchedIds, limit);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count matched food recipes per dish type, number of servings and ingredient by intersecting cardinalities
+     * of bitmaps, without loading any food recipe. Ingredients are only intersected while they can still be
+     * among the most used ones.
+     *
+     * @param matchedIds     ids of matched food recipes
+     * @param topIngredients maximum number of most used ingredients to count, at least 1
+     * @return counts of matched food recipes per facet value, values without matched food recipes are left out
+     */
+    public RecipeFacets facets(RoaringBitmap matchedIds, int topIngredients) {
+        RecipeFacets facets = new RecipeFacets().setMatched(matchedIds.getLongCardinality());
+        lock.readLock().lock();
+        try {
+            dishTypeIndex.forEach((dishType, recipeIds) -> putCount(facets.getDishTypes(), dishType, matchedIds, recipeIds));
+            servingsIndex.forEach((servings, recipeIds) -> putCount(facets.getServings(), servings, matchedIds, recipeIds));
+            // pairs of reference id and count, least used of the most used ingredients on top of queue
+            Comparator<long[]> byCount = Comparator.<long[]>comparingLong(count -> count[1])
+                .thenComparingLong(count -> -count[0]);
+            PriorityQueue<long[]> mostUsed = new PriorityQueue<>(byCount);
+            for (Map.Entry<Integer, RoaringBitmap> ingredient : ingredientIndex.entrySet()) {
+                if (mostUsed.size() == topIngredients && ingredient.getValue().getLongCardinality() < mostUsed.peek()[1]) {
+                    continue;
+                }
+                long count = RoaringBitmap.andCardinality(matchedIds, ingredient.getValue());
+                if (count > 0) {
+                    mostUsed.add(new long[] {ingredient.getKey(), count});
+                    if (mostUsed.size() > topIngredients) {
+                        mostUsed.poll();
+                    }
+                }
+            }
+            List<long[]> counts = new ArrayList<>(mostUsed);
+            counts.sort(byCount.reversed());
+            counts.forEach(count -> facets.getIngredients().put(ingredientNames.get((int) count[0]), count[1]));
+            return facets;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> void putCount(Map<K, Long> counts, K value, RoaringBitmap matchedIds, RoaringBitmap recipeIds) {
+        long count = RoaringBitmap.andCardinality(matchedIds, recipeIds);
+        if (count > 0) {
+            counts.put(value, count);
+        }
+    }
+
+    private static boolean isNewer(IndexedRecipe indexedRecipe, Long version) {
+        return indexedRecipe != null && indexedRecipe.version != null && version != null && indexedRecipe.version > version;
+    }
+
+    private void unIndex(int recipeId) {
+        IndexedRecipe indexedRecipe = indexedRecipes.remove(recipeId);
+        if (indexedRecipe == null) {
+            return;
+        }
+        allRecipes.remove(recipeId);
+        recipeColumns.remove(recipeId);
+        dishTypeIndex.get(indexedRecipe.dishType).remove(recipeId);
+        servingsIndex.get(indexedRecipe.servings).remove(recipeId);
+        for (int referenceId : indexedRecipe.referenceIds) {
+            ingredientIndex.get(referenceId).remove(recipeId);
+        }
+        instructionIndex.remove(recipeId, indexedRecipe.trigrams);
+        termIndex.remove(recipeId);
+    }
+
+    private RoaringBitmap narrow(RoaringBitmap matched, List<RoaringBitmap> excluded, RecipeSearchCriteria criteria) {
+        for (RoaringBitmap excludedIds : excluded) {
+            matched.andNot(excludedIds);
+        }
+        for (String keyWord : criteria.getInstructionKeyWords()) {
+            instructionIndex.narrow(matched, keyWord);
+        }
+        return matched;
+    }
+
+    private static RoaringBitmap bitmapOf(RoaringBitmap bitmap) {
+        return bitmap == null ? new RoaringBitmap() : bitmap;
+    }
+
+    private static ForkJoinWorkerThread newSearchThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("recipe-search-" + thread.getPoolIndex());
+        return thread;
+    }
+
+    /**
+     * Search of a range of segments, split in halves until single segments are evaluated.
+     * Only reads index while the searching thread holds the read lock.
+     */
+    private final class SegmentSearch extends RecursiveTask<RoaringBitmap> {
+        private final List<RoaringBitmap> required;
+        private final List<RoaringBitmap> excluded;
+        private final RecipeSearchCriteria criteria;
+        private final long firstSegment;
+        private final long endSegment;
+
+        private SegmentSearch(List<RoaringBitmap> required, List<RoaringBitmap> excluded, RecipeSearchCriteria criteria,
+                              long firstSegment, long endSegment) {
+            this.required = required;
+            this.excluded = excluded;
+            this.criteria = criteria;
+            this.firstSegment = firstSegment;
+            this.endSegment = endSegment;
+        }
+
+        @Override
+        protected RoaringBitmap compute() {
+            if (endSegment - firstSegment == 1) {
+                RoaringBitmap segmentMatched = RoaringBitmap.and(required.iterator(), firstSegment * SEGMENT_SIZE, endSegment * SEGMENT_SIZE);
+                return narrow(segmentMatched, excluded, criteria);
+            }
+            long middleSegment = (firstSegment + endSegment) >>> 1;
+            SegmentSearch lowerHalf = new SegmentSearch(required, excluded, criteria, firstSegment, middleSegment);
+            lowerHalf.fork();
+            RoaringBitmap upperMatched = new SegmentSearch(required, excluded, criteria, middleSegment, endSegment).compute();
+            RoaringBitmap matched = lowerHalf.join();
+            // Upper half only has higher ids, so its containers are appended
+            matched.or(upperMatched);
+            return matched;
+        }
+    }
+
+    /**
+     * Indexed values of a food recipe to remove it from bitmaps on update or delete
+     */
+    private static final class IndexedRecipe {
+        private final Long version;
+        private final DishType dishType;
+        private final Integer servings;
+        private final int[] referenceIds;
+        private final long[] trigrams;
+
+        private IndexedRecipe(Long version, DishType dishType, Integer servings, int[] referenceIds, long[] trigrams) {
+            this.version = version;
+            this.dishType = dishType;
+            this.servings = servings;
+            this.referenceIds = referenceIds;
+            this.trigrams = trigrams;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.abn.food.recipe.search;
+
+/**
+ * Set operations on distinct ids in ascending order, merged in a single pass over both arrays
+ *
+ * @author Akhtar
+ */
+final class SortedIds {
+
+    private SortedIds() {
+    }
+
+    /**
+     * Check if all ids of subset are present in ids
+     *
+     * @param ids    distinct ids in ascending order
+     * @param subset distinct ids in ascending order
+     * @return true if ids contain every id of subset
+     */
+    static boolean containsAll(int[] ids, int[] subset) {
+        if (subset.length > ids.length) {
+            return false;
+        }
+        int i = 0;
+        for (int id : subset) {
+            while (i < ids.length && ids[i] < id) {
+                i++;
+            }
+            if (i == ids.length || ids[i] != id) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * Check if both arrays have no id in common
+     *
+     * @param ids   distinct ids in ascending order
+     * @param other distinct ids in ascending order
+     * @return true if no id is present in both
+     */
+    static boolean isDisjoint(int[] ids, int[] other) {
+        int i = 0;
+        int j = 0;
+        while (i < ids.length && j < other.length) {
+            if (ids[i] == other[j]) {
+                return false;
+            }
+            if (ids[i] < other[j]) {
+                i++;
+            }
+            else {
+                j++;
+            }
+        }
+        return true;
+    }
+}
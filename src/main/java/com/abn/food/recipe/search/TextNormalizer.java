@@ -0,0 +1,26 @@
+package com.abn.food.recipe.search;
+
+import java.util.Locale;
+
+/**
+ * Case folding shared by every lookup of ingredient names and instruction keywords, so that names and keywords are
+ * stored, indexed and searched in the same form. Folding is independent of the default locale of the JVM, e.g. the
+ * Turkish locale would fold {@code i} to a dotted capital {@code İ} that no stored name matches.
+ *
+ * @author Akhtar
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Fold text to upper case of the root locale
+     *
+     * @param text ingredient name, instruction keyword or instructions
+     * @return upper-cased text
+     */
+    public static String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,191 @@
+package com.abn.food.recipe.service;
+
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toUnmodifiableList;
+
+import java.util.List;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.search.TextNormalizer;
+
+/**
+ * Immutable copy of a committed food recipe held by {@link RecipeCatalogSnapshot} or decoded from
+ * {@link MappedRecipeStore}, detached from persistence context
+ *
+ * @author Akhtar
+ */
+public final class CatalogRecipe {
+
+    private final Long id;
+    private final Long version;
+    private final String recipeName;
+    private final DishType dishType;
+    private final Integer servings;
+    private final String instructions;
+    private final String upperCaseInstructions;
+    private final List<Ingredient> ingredients;
+
+    CatalogRecipe(Long id, Long version, String recipeName, DishType dishType, Integer servings, String instructions,
+                  List<Ingredient> ingredients) {
+        this.id = id;
+        this.version = version;
+        this.recipeName = recipeName;
+        this.dishType = dishType;
+        this.servings = servings;
+        this.instructions = instructions;
+        this.upperCaseInstructions = instructions == null ? "" : TextNormalizer.normalize(instructions);
+        this.ingredients = List.copyOf(ingredients);
+    }
+
+    /**
+     * Copy committed food recipe with its ingredients
+     *
+     * @param recipeEntity committed food recipe with ingredient references loaded
+     * @return immutable copy of food recipe
+     */
+    public static CatalogRecipe of(FoodRecipeEntity recipeEntity) {
+        List<Ingredient> ingredients = ofNullable(recipeEntity.getIngredients()).orElse(emptyList())
+            .stream().map(Ingredient::new).collect(toUnmodifiableList());
+        return new CatalogRecipe(recipeEntity.getId(), recipeEntity.getVersion(), recipeEntity.getRecipeName(),
+            recipeEntity.getDishType(), recipeEntity.getServings(), recipeEntity.getInstructions(), ingredients);
+    }
+
+    /**
+     * Get food recipe id
+     *
+     * @return food recipe id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Get version of food recipe
+     *
+     * @return version
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get recipe name
+     *
+     * @return recipe name
+     */
+    public String getRecipeName() {
+        return recipeName;
+    }
+
+    /**
+     * Get dish type
+     *
+     * @return dish type
+     */
+    public DishType getDishType() {
+        return dishType;
+    }
+
+    /**
+     * Get number of servings
+     *
+     * @return number of servings
+     */
+    public Integer getServings() {
+        return servings;
+    }
+
+    /**
+     * Get instructions
+     *
+     * @return instructions
+     */
+    public String getInstructions() {
+        return instructions;
+    }
+
+    /**
+     * Check whether instructions contain all keywords
+     *
+     * @param keyWords instruction keywords in upper case
+     * @return true if every keyword is found in instructions
+     */
+    public boolean containsAll(Iterable<String> keyWords) {
+        for (String keyWord : keyWords) {
+            if (!upperCaseInstructions.contains(keyWord)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get ingredients in the order they were saved
+     *
+     * @return unmodifiable ingredients
+     */
+    public List<Ingredient> getIngredients() {
+        return ingredients;
+    }
+
+    /**
+     * Immutable copy of an ingredient of food recipe
+     */
+    public static final class Ingredient {
+        private final Long referenceId;
+        private final String name;
+        private final Integer quantity;
+        private final String unit;
+
+        private Ingredient(IngredientEntity ingredientEntity) {
+            this(ingredientEntity.getReferenceEntity().getId(), ingredientEntity.getReferenceEntity().getName(),
+                ingredientEntity.getQuantity(), ingredientEntity.getUnit());
+        }
+
+        Ingredient(Long referenceId, String name, Integer quantity, String unit) {
+            this.referenceId = referenceId;
+            this.name = name;
+            this.quantity = quantity;
+            this.unit = unit;
+        }
+
+        /**
+         * Get id of ingredient reference
+         *
+         * @return ingredient reference id
+         */
+        public Long getReferenceId() {
+            return referenceId;
+        }
+
+        /**
+         * Get ingredient name
+         *
+         * @return ingredient name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Get quantity
+         *
+         * @return quantity
+         */
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        /**
+         * Get unit of quantity
+         *
+         * @return unit, may be empty
+         */
+        public String getUnit() {
+            return unit;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.abn.food.recipe.service;
+
+/**
+ * Committed food recipes of {@link RecipeCatalog} addressed by id, readable from any thread without locks
+ *
+ * @author Akhtar
+ */
+public interface CatalogRecipes {
+
+    /**
+     * Get food recipe by id
+     *
+     * @param id of food recipe
+     * @return food recipe, null if not in catalog
+     */
+    CatalogRecipe get(Long id);
+}
@@ -0,0 +1,184 @@
+package com.abn.food.recipe.service;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abn.food.recipe.mapper.FoodRecipeMapper;
+import com.abn.food.recipe.model.BulkIngestError;
+import com.abn.food.recipe.model.BulkIngestReport;
+import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.repository.FoodRecipeRepository;
+import com.abn.food.recipe.search.RecipeSearchIndex;
+
+/**
+ * Food Recipe bulk ingestion. Food recipes are read one by one from the request and saved in chunks,
+ * each chunk in its own transaction with batched inserts. When a chunk fails, its food recipes are saved
+ * one by one to report only the failing ones.
+ *
+ * @author Akhtar
+ */
+@Service
+public class FoodRecipeBulkServiceImpl {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FoodRecipeBulkServiceImpl.class);
+
+    private final FoodRecipeMapper foodRecipeMapper;
+    private final FoodRecipeRepository foodRecipeRepository;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeCatalogVersion recipeCatalogVersion;
+    private final RecipeSearchCache recipeSearchCache;
+    private final RecipeCatalog recipeCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    /**
+     * Constructor initialization
+     *
+     * @param foodRecipeMapper     Food Recipe Mapper
+     * @param foodRecipeRepository Food Recipe Repository
+     * @param recipeSearchIndex    Food Recipe search index
+     * @param recipeCatalogVersion version of all food recipes in inventory
+     * @param recipeSearchCache    cache of food recipe search pages
+     * @param recipeCatalog        read model of committed food recipes
+     * @param transactionManager   transaction manager for transaction per chunk
+     * @param chunkSize            number of food recipes saved per transaction
+     */
+    public FoodRecipeBulkServiceImpl(FoodRecipeMapper foodRecipeMapper, FoodRecipeRepository foodRecipeRepository,
+                                     RecipeSearchIndex recipeSearchIndex, RecipeCatalogVersion recipeCatalogVersion,
+                                     RecipeSearchCache recipeSearchCache, RecipeCatalog recipeCatalog,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${recipe.bulk.chunk-size:500}") int chunkSize) {
+        this.foodRecipeMapper = foodRecipeMapper;
+        this.foodRecipeRepository = foodRecipeRepository;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeCatalogVersion = recipeCatalogVersion;
+        this.recipeSearchCache = recipeSearchCache;
+        this.recipeCatalog = recipeCatalog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Save new food recipes in inventory. Food recipes which can not be read or saved are reported
+     * without affecting the others.
+     *
+     * @param foodRecipes new food recipes to be saved, read lazily
+     * @return counts, errors and throughput of ingestion
+     */
+    public BulkIngestReport saveFoodRecipes(Iterator<FoodRecipe> foodRecipes) {
+        long start = System.nanoTime();
+        BulkIngestReport report = new BulkIngestReport();
+        List<ChunkItem> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (hasNext(foodRecipes, index, report)) {
+            try {
+                chunk.add(new ChunkItem(index, foodRecipes.next()));
+            }
+            catch (RuntimeException e) {
+                report.addError(index, errorMessage(e));
+            }
+            index++;
+            if (chunk.size() == chunkSize) {
+                saveChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        saveChunk(chunk, report);
+
+        report.getErrors().sort(comparingInt(BulkIngestError::getIndex));
+        report.setReceived(index).setDuration(System.nanoTime() - start);
+        LOG.info("Bulk ingestion saved {} of {} food recipes in {} ms, {} recipes/s", report.getSaved(), report.getReceived(),
+            report.getDurationMillis(), Math.round(report.getRecipesPerSecond()));
+        return report;
+    }
+
+    private boolean hasNext(Iterator<FoodRecipe> foodRecipes, int index, BulkIngestReport report) {
+        try {
+            return foodRecipes.hasNext();
+        }
+        catch (RuntimeException e) {
+            // Malformed content can not be skipped reliably, so reading stops at the first unreadable food recipe
+            report.addError(index, errorMessage(e));
+            return false;
+        }
+    }
+
+    private void saveChunk(List<ChunkItem> chunk, BulkIngestReport report) {
+        List<ChunkItem> mappedItems = mapEntities(chunk, report);
+        if (mappedItems.isEmpty()) {
+            return;
+        }
+        try {
+            insertAll(mappedItems);
+            report.addSaved(mappedItems.size());
+        }
+        catch (RuntimeException e) {
+            LOG.warn("Bulk ingestion chunk failed, saving its food recipes one by one", e);
+            for (ChunkItem item : mapEntities(mappedItems, report)) {
+                try {
+                    insertAll(List.of(item));
+                    report.addSaved(1);
+                }
+                catch (RuntimeException itemException) {
+                    report.addError(item.index, errorMessage(itemException));
+                }
+            }
+        }
+    }
+
+    private List<ChunkItem> mapEntities(List<ChunkItem> chunk, BulkIngestReport report) {
+        List<ChunkItem> mappedItems = new ArrayList<>(chunk.size());
+        for (ChunkItem item : chunk) {
+            try {
+                item.entity = new FoodRecipeEntity();
+                foodRecipeMapper.formFoodRecipeEntity(item.foodRecipe, item.entity, null);
+                mappedItems.add(item);
+            }
+            catch (RuntimeException e) {
+                report.addError(item.index, errorMessage(e));
+            }
+        }
+        return mappedItems;
+    }
+
+    private void insertAll(List<ChunkItem> items) {
+        List<FoodRecipeEntity> recipeEntities = items.stream().map(item -> item.entity).collect(toList());
+        transactionTemplate.executeWithoutResult(status -> foodRecipeRepository.insertAll(recipeEntities));
+        recipeCatalog.put(recipeEntities);
+        recipeEntities.forEach(recipeSearchIndex::index);
+        recipeSearchCache.invalidate(recipeEntities);
+        recipeCatalogVersion.increment();
+    }
+
+    private static String errorMessage(RuntimeException exception) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(exception);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    /**
+     * Food recipe read from request with its position, mapped to a new entity before every save attempt
+     */
+    private static final class ChunkItem {
+        private final int index;
+        private final FoodRecipe foodRecipe;
+        private FoodRecipeEntity entity;
+
+        private ChunkItem(int index, FoodRecipe foodRecipe) {
+            this.index = index;
+            this.foodRecipe = foodRecipe;
+        }
+    }
+}
@@ -1,38 +1,149 @@
 package com.abn.food.recipe.service;
 
+import static java.lang.Math.toIntExact;
+import static java.util.Optional.ofNullable;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
-import com.abn.food.recipe.enums.DishType;
 import com.abn.food.recipe.mapper.FoodRecipeMapper;
 import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.model.RecipeFacets;
 import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
 import com.abn.food.recipe.persistance.repository.FoodRecipeRepository;
+import com.abn.food.recipe.persistance.repository.FoodRecipeSpecifications;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.search.RecipeSearchIndex;
+import com.abn.food.recipe.search.TextNormalizer;
 
 /**
- * Food Recipe Service Implementation
+ * Food Recipe Service Implementation. Search index and catalog are built once on start-up, before the web server
+ * starts serving, so no request sees them empty or partially built.
  *
  * @author Akhtar
  */
 @Service
-public class FoodRecipeServiceImpl {
+public class FoodRecipeServiceImpl implements SmartLifecycle {
+
+    /**
+     * Lifecycle phase of in-memory structures built from inventory, started before the web server whose lifecycle is
+     * started in phase Integer.MAX_VALUE - 1
+     */
+    public static final int BUILD_PHASE = 0;
+    private static final long MAX_INDEXED_ID = Integer.MAX_VALUE + 1L;
+    private static final int INDEX_BATCH_SIZE = 500;
+    private static final int STREAM_BATCH_SIZE = 100;
 
     private final FoodRecipeMapper foodRecipeMapper;
     private final FoodRecipeRepository foodRecipeRepository;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeCatalogVersion recipeCatalogVersion;
+    private final RecipeSearchCache recipeSearchCache;
+    private final RecipeSearchMetrics recipeSearchMetrics;
+    private final RecipeCatalog recipeCatalog;
+    private final RecipeResponseCache recipeResponseCache;
+    private volatile boolean running;
 
     /**
      * Constructor initialization
      *
      * @param foodRecipeMapper     Food Recipe Mapper
      * @param foodRecipeRepository Food Recipe Repository
+     * @param recipeSearchIndex    Food Recipe search index
+     * @param recipeCatalogVersion version of all food recipes in inventory
+     * @param recipeSearchCache    cache of food recipe search pages
+     * @param recipeSearchMetrics  latency and size metrics of food recipe searches
+     * @param recipeCatalog        read model of committed food recipes
+     * @param recipeResponseCache  cache of serialized food recipe responses
      */
-    public FoodRecipeServiceImpl(FoodRecipeMapper foodRecipeMapper, FoodRecipeRepository foodRecipeRepository) {
+    public FoodRecipeServiceImpl(FoodRecipeMapper foodRecipeMapper, FoodRecipeRepository foodRecipeRepository,
+                                 RecipeSearchIndex recipeSearchIndex, RecipeCatalogVersion recipeCatalogVersion,
+                                 RecipeSearchCache recipeSearchCache, RecipeSearchMetrics recipeSearchMetrics,
+                                 RecipeCatalog recipeCatalog, RecipeResponseCache recipeResponseCache) {
         this.foodRecipeMapper = foodRecipeMapper;
         this.foodRecipeRepository = foodRecipeRepository;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeCatalogVersion = recipeCatalogVersion;
+        this.recipeSearchCache = recipeSearchCache;
+        this.recipeSearchMetrics = recipeSearchMetrics;
+        this.recipeCatalog = recipeCatalog;
+        this.recipeResponseCache = recipeResponseCache;
+    }
+
+    /**
+     * Build search index and catalog before the web server starts serving requests
+     */
+    @Override
+    public void start() {
+        buildSearchIndex();
+        running = true;
+    }
+
+    /**
+     * Nothing to stop, index and catalog are dropped together with application
+     */
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Check if search index and catalog were built
+     *
+     * @return true once built
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get lifecycle phase of building search index and catalog, before the one of the web server
+     *
+     * @return lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return BUILD_PHASE;
+    }
+
+    /**
+     * Build search index and catalog from all ingredient references and food recipes in inventory. A food recipe
+     * updated or removed while its batch is indexed is never replaced by the older version read in the batch.
+     * Pages searched meanwhile are dropped from cache and the catalog version changes once built.
+     */
+    public void buildSearchIndex() {
+        if (!recipeSearchIndex.isEnabled() && !recipeCatalog.isEnabled()) {
+            return;
+        }
+        recipeCatalog.loadReferences();
+        recipeSearchIndex.clear();
+        recipeCatalog.startRebuild();
+        List<FoodRecipeEntity> recipeEntities = foodRecipeRepository.findAllAfterId(Specification.where(null), null, INDEX_BATCH_SIZE);
+        while (!recipeEntities.isEmpty()) {
+            recipeCatalog.put(recipeEntities);
+            recipeEntities.forEach(recipeSearchIndex::index);
+            Long lastId = recipeEntities.get(recipeEntities.size() - 1).getId();
+            recipeEntities = foodRecipeRepository.findAllAfterId(Specification.where(null), lastId, INDEX_BATCH_SIZE);
+        }
+        recipeCatalog.finishRebuild();
+        recipeSearchCache.invalidateAll();
+        recipeCatalogVersion.increment();
     }
 
     /**
@@ -66,11 +177,41 @@ public class FoodRecipeServiceImpl {
      * @return food recipe from inventory
      */
     public FoodRecipe getIndividualFoodRecipe(Long id) {
+        if (recipeCatalog.isEnabled()) {
+            return ofNullable(recipeCatalog.recipes().get(id))
+                .map(catalogRecipe -> foodRecipeMapper.formFoodRecipeModel(catalogRecipe, true))
+                .orElseThrow(() -> new IdNotFoundException(id));
+        }
         return foodRecipeRepository.findById(id)
             .map(recipeEntity -> foodRecipeMapper.formFoodRecipeModel(recipeEntity, true))
             .orElseThrow(() -> new IdNotFoundException(id));
     }
 
+    /**
+     * Get version of requested food recipe without loading its ingredients
+     *
+     * @param id of the food recipe
+     * @return version of food recipe from inventory
+     */
+    public Long getFoodRecipeVersion(Long id) {
+        if (recipeCatalog.isEnabled()) {
+            return ofNullable(recipeCatalog.recipes().get(id))
+                .map(CatalogRecipe::getVersion)
+                .orElseThrow(() -> new IdNotFoundException(id));
+        }
+        return foodRecipeRepository.findVersionById(id)
+            .orElseThrow(() -> new IdNotFoundException(id));
+    }
+
+    /**
+     * Get version of all food recipes in inventory, which changes whenever any food recipe changes
+     *
+     * @return current catalog version
+     */
+    public String getCatalogVersion() {
+        return recipeCatalogVersion.current();
+    }
+
     /**
      * Delete existing food recipe from inventory
      *
@@ -78,43 +219,283 @@ public class FoodRecipeServiceImpl {
      */
     public void removeFoodRecipe(Long id) {
         foodRecipeRepository.deleteById(id);
+        recipeSearchIndex.remove(id);
+        recipeCatalog.remove(id);
+        recipeSearchCache.invalidate(id);
+        recipeResponseCache.invalidate(id);
+        recipeCatalogVersion.increment();
+    }
+
+    /**
+     * Get page of matched food recipes from inventory ordered by id, from cache when the same page was searched before
+     *
+     * @param criteria search filters with ingredients and instruction keywords in upper case
+     * @param afterId  id of last food recipe from previous page, null for first page
+     * @param limit    maximum number of food recipes in page
+     * @return matched food recipes with id to fetch next page
+     */
+    public RecipePage getAllFoodRecipes(RecipeSearchCriteria criteria, Long afterId, int limit) {
+        return recipeSearchCache.get(criteria, afterId, limit, () -> findPage(criteria, afterId, limit));
+    }
+
+    /**
+     * Stream all matched food recipes from inventory ordered by id, in batches of bounded size.
+     * Each batch is loaded by keyset, handed over and detached before the next one is loaded,
+     * so memory does not grow with number of matched food recipes. Batches are not cached.
+     *
+     * @param criteria search filters with ingredients and instruction keywords in upper case
+     * @param afterId  id of food recipe to start after, null to start from first
+     * @param consumer receives matched food recipes batch by batch
+     */
+    public void streamAllFoodRecipes(RecipeSearchCriteria criteria, Long afterId, Consumer<List<FoodRecipe>> consumer) {
+        Long nextAfterId = afterId;
+        do {
+            RecipePage recipePage = findPage(criteria, nextAfterId, STREAM_BATCH_SIZE);
+            foodRecipeRepository.detachAll();
+            if (!recipePage.getRecipes().isEmpty()) {
+                consumer.accept(recipePage.getRecipes());
+            }
+            nextAfterId = recipePage.getNextAfterId();
+        }
+        while (nextAfterId != null);
+    }
+
+    /**
+     * Check if food recipes can be ranked by relevance, which needs the search index
+     *
+     * @return true if search index is enabled
+     */
+    public boolean canRankFoodRecipes() {
+        return recipeSearchIndex.isEnabled();
+    }
+
+    /**
+     * Get most relevant matched food recipes to free text, ranked by BM25 over recipe names and instructions.
+     * Only the best food recipes are kept while ranking, so cost grows with limit rather than with inventory.
+     * Ranked food recipes are not cached and have no next page.
+     *
+     * @param criteria search filters with ingredients and instruction keywords in upper case
+     * @param query    free text to rank food recipes by
+     * @param limit    maximum number of food recipes
+     * @return matched food recipes in descending order of relevance
+     */
+    public RecipePage rankFoodRecipes(RecipeSearchCriteria criteria, String query, int limit) {
+        RecipeSearchMetrics.Sample sample = recipeSearchMetrics.start(criteria);
+        sample.startStage();
+        int[] rankedIds = recipeSearchIndex.rank(criteria, query, limit);
+        sample.stopStage(RecipeSearchMetrics.INDEX_STAGE);
+        RecipePage recipePage;
+        if (recipeCatalog.isEnabled()) {
+            sample.startStage();
+            CatalogRecipes catalogRecipes = recipeCatalog.recipes();
+            List<CatalogRecipe> recipes = Arrays.stream(rankedIds)
+                .mapToObj(id -> catalogRecipes.get((long) id))
+                // ranked by index before a concurrent delete removed it from catalog
+                .filter(recipe -> recipe != null && recipe.containsAll(criteria.getInstructionKeyWords()))
+                .collect(toList());
+            sample.stopStage(RecipeSearchMetrics.LOAD_STAGE);
+            sample.count(rankedIds.length, recipes.size());
+            recipePage = toPage(recipes, limit, CatalogRecipe::getId,
+                recipe -> foodRecipeMapper.formFoodRecipeModel(recipe, false), sample);
+        }
+        else {
+            sample.startStage();
+            Map<Long, FoodRecipeEntity> recipeEntitiesById = foodRecipeRepository.findAllWithIngredients(
+                    Arrays.stream(rankedIds).mapToObj(id -> (long) id).collect(toList()))
+                .stream()
+                .collect(toMap(FoodRecipeEntity::getId, identity()));
+            List<FoodRecipeEntity> recipeEntities = Arrays.stream(rankedIds)
+                .mapToObj(id -> recipeEntitiesById.get((long) id))
+                .filter(entity -> entity != null && criteria.getInstructionKeyWords().stream()
+                    .allMatch(TextNormalizer.normalize(entity.getInstructions())::contains))
+                .collect(toList());
+            sample.stopStage(RecipeSearchMetrics.LOAD_STAGE);
+            sample.count(rankedIds.length, recipeEntities.size());
+            recipePage = toPage(recipeEntities, limit, FoodRecipeEntity::getId,
+                entity -> foodRecipeMapper.formFoodRecipeModel(entity, false), sample);
+        }
+        sample.stop();
+        return recipePage;
     }
 
     /**
-     * Get all matched food recipes from inventory
+     * Count matched food recipes per dish type, number of servings and most used ingredient in a single search.
+     * With search index, counts are cardinalities of bitmaps and only candidates of instruction keywords are read.
      *
-     * @param isVegetarian        share food recipes which are only vegetarian(including vegan)
-     * @param numberOfServings    recipes matching number of servings
-     * @param includeIngredients  recipes which has requested ingredients
-     * @param excludeIngredients  recipes which doesn't have requested ingredients
-     * @param instructionKeyWords recipes which has instructions from keywords
-     * @return all food recipes
-     */
-    public List<FoodRecipe> getAllFoodRecipes(Boolean isVegetarian, Integer numberOfServings, Set<String> includeIngredients,
-                                              Set<String> excludeIngredients, Set<String> instructionKeyWords) {
-        return foodRecipeRepository.findAll()
-            .stream()
-            .filter(entity -> !Boolean.TRUE.equals(isVegetarian) || !entity.getDishType().equals(DishType.NON_VEGETARIAN))
-            .filter(entity -> numberOfServings == null || numberOfServings.equals(entity.getServings()))
-            .filter(entity -> includeIngredients.isEmpty() || entity.getAllIngredientNamesInUpperCase().containsAll(includeIngredients))
-            .filter(entity -> excludeIngredients.isEmpty() || checkExcludedIngredientsDoesntExist(entity.getAllIngredientNamesInUpperCase(), excludeIngredients))
-            .filter(entity -> instructionKeyWords.isEmpty() || instructionKeyWords.stream().allMatch(entity.getInstructions().toUpperCase()::contains))
-            .map(entity -> foodRecipeMapper.formFoodRecipeModel(entity, false))
-            .collect(toList());
-    }
-
-    private boolean checkExcludedIngredientsDoesntExist(Set<String> entityIngredients, Set<String> userExcludedIngredients) {
-        for (String s : userExcludedIngredients) {
-            if (entityIngredients.contains(s)) {
-                return false;
+     * @param criteria       search filters with ingredients and instruction keywords in upper case
+     * @param topIngredients maximum number of most used ingredients to count, at least 1
+     * @return counts of matched food recipes per facet value
+     */
+    public RecipeFacets getFoodRecipeFacets(RecipeSearchCriteria criteria, int topIngredients) {
+        if (!recipeSearchIndex.isEnabled()) {
+            return countFacetsFromDatabase(criteria, topIngredients);
+        }
+        RoaringBitmap matchedIds = recipeSearchIndex.search(criteria);
+        if (!criteria.getInstructionKeyWords().isEmpty()) {
+            matchedIds = dropCandidatesWithoutKeyWords(matchedIds, criteria);
+        }
+        return recipeSearchIndex.facets(matchedIds, topIngredients);
+    }
+
+    private RoaringBitmap dropCandidatesWithoutKeyWords(RoaringBitmap candidateIds, RecipeSearchCriteria criteria) {
+        RoaringBitmap matchedIds = new RoaringBitmap();
+        if (recipeCatalog.isEnabled()) {
+            CatalogRecipes catalogRecipes = recipeCatalog.recipes();
+            candidateIds.forEach((int id) -> {
+                CatalogRecipe recipe = catalogRecipes.get((long) id);
+                if (recipe != null && recipe.containsAll(criteria.getInstructionKeyWords())) {
+                    matchedIds.add(id);
+                }
+            });
+            return matchedIds;
+        }
+        IntIterator idIterator = candidateIds.getIntIterator();
+        while (idIterator.hasNext()) {
+            List<Long> ids = new ArrayList<>(INDEX_BATCH_SIZE);
+            while (ids.size() < INDEX_BATCH_SIZE && idIterator.hasNext()) {
+                ids.add((long) idIterator.next());
+            }
+            foodRecipeRepository.findAllWithIngredients(ids).stream()
+                .filter(entity -> criteria.getInstructionKeyWords().stream().allMatch(TextNormalizer.normalize(entity.getInstructions())::contains))
+                .forEach(entity -> matchedIds.add(toIntExact(entity.getId())));
+            foodRecipeRepository.detachAll();
+        }
+        return matchedIds;
+    }
+
+    private RecipeFacets countFacetsFromDatabase(RecipeSearchCriteria criteria, int topIngredients) {
+        RecipeFacets facets = new RecipeFacets();
+        Map<String, Long> ingredientCounts = new HashMap<>();
+        Specification<FoodRecipeEntity> specification = FoodRecipeSpecifications.matching(criteria);
+        List<FoodRecipeEntity> recipeEntities = foodRecipeRepository.findAllAfterId(specification, null, INDEX_BATCH_SIZE);
+        while (!recipeEntities.isEmpty()) {
+            for (FoodRecipeEntity recipeEntity : recipeEntities) {
+                facets.setMatched(facets.getMatched() + 1);
+                facets.getDishTypes().merge(recipeEntity.getDishType(), 1L, Long::sum);
+                facets.getServings().merge(recipeEntity.getServings(), 1L, Long::sum);
+                recipeEntity.getIngredients().stream()
+                    .map(ingredient -> ingredient.getReferenceEntity().getName())
+                    .distinct()
+                    .forEach(name -> ingredientCounts.merge(name, 1L, Long::sum));
+            }
+            Long lastId = recipeEntities.get(recipeEntities.size() - 1).getId();
+            foodRecipeRepository.detachAll();
+            recipeEntities = foodRecipeRepository.findAllAfterId(specification, lastId, INDEX_BATCH_SIZE);
+        }
+        ingredientCounts.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(topIngredients)
+            .forEach(count -> facets.getIngredients().put(count.getKey(), count.getValue()));
+        return facets;
+    }
+
+    private RecipePage findPage(RecipeSearchCriteria criteria, Long afterId, int limit) {
+        RecipeSearchMetrics.Sample sample = recipeSearchMetrics.start(criteria);
+        RecipePage recipePage;
+        if (recipeSearchIndex.isEnabled() && recipeCatalog.isEnabled()) {
+            List<CatalogRecipe> recipes = findAllFromCatalog(criteria, afterId, limit + 1, sample);
+            recipePage = toPage(recipes, limit, CatalogRecipe::getId,
+                recipe -> foodRecipeMapper.formFoodRecipeModel(recipe, false), sample);
+        }
+        else {
+            List<FoodRecipeEntity> recipeEntities;
+            if (recipeSearchIndex.isEnabled()) {
+                recipeEntities = findAllFromIndex(criteria, afterId, limit + 1, sample);
+            }
+            else {
+                sample.startStage();
+                recipeEntities = foodRecipeRepository.findAllAfterId(FoodRecipeSpecifications.matching(criteria), afterId, limit + 1);
+                sample.stopStage(RecipeSearchMetrics.QUERY_STAGE);
+                sample.count(recipeEntities.size(), recipeEntities.size());
+            }
+            recipePage = toPage(recipeEntities, limit, FoodRecipeEntity::getId,
+                entity -> foodRecipeMapper.formFoodRecipeModel(entity, false), sample);
+        }
+        sample.stop();
+        return recipePage;
+    }
+
+    private static <T> RecipePage toPage(List<T> matched, int limit, ToLongFunction<T> idFunction,
+                                         Function<T, FoodRecipe> modelFunction, RecipeSearchMetrics.Sample sample) {
+        sample.startStage();
+        List<T> pageRecipes = matched.subList(0, Math.min(limit, matched.size()));
+        Long nextAfterId = matched.size() > limit ? idFunction.applyAsLong(matched.get(limit - 1)) : null;
+        List<FoodRecipe> recipes = pageRecipes.stream().map(modelFunction).collect(toList());
+        long[] recipeIds = pageRecipes.stream().mapToLong(idFunction).toArray();
+        sample.stopStage(RecipeSearchMetrics.MAP_STAGE);
+        return new RecipePage(recipes, recipeIds, nextAfterId);
+    }
+
+    private List<CatalogRecipe> findAllFromCatalog(RecipeSearchCriteria criteria, Long afterId, int limit, RecipeSearchMetrics.Sample sample) {
+        IntIterator idIterator = searchIndex(criteria, afterId, sample).getIntIterator();
+        CatalogRecipes catalogRecipes = recipeCatalog.recipes();
+        List<CatalogRecipe> recipes = new ArrayList<>(limit);
+        while (recipes.size() < limit && idIterator.hasNext()) {
+            sample.startStage();
+            List<CatalogRecipe> candidates = new ArrayList<>();
+            while (candidates.size() < limit - recipes.size() && idIterator.hasNext()) {
+                // matched by index before a concurrent delete removed it from catalog
+                CatalogRecipe candidate = catalogRecipes.get((long) idIterator.next());
+                if (candidate != null) {
+                    candidates.add(candidate);
+                }
+            }
+            sample.stopStage(RecipeSearchMetrics.LOAD_STAGE);
+            sample.startStage();
+            int matchedBefore = recipes.size();
+            candidates.stream()
+                .filter(recipe -> recipe.containsAll(criteria.getInstructionKeyWords()))
+                .forEach(recipes::add);
+            sample.stopStage(RecipeSearchMetrics.FILTER_STAGE);
+            sample.count(candidates.size(), recipes.size() - matchedBefore);
+        }
+        return recipes;
+    }
+
+    private RoaringBitmap searchIndex(RecipeSearchCriteria criteria, Long afterId, RecipeSearchMetrics.Sample sample) {
+        sample.startStage();
+        RoaringBitmap matchedIds = recipeSearchIndex.search(criteria);
+        if (afterId != null) {
+            matchedIds.remove(0L, Math.min(afterId + 1, MAX_INDEXED_ID));
+        }
+        sample.stopStage(RecipeSearchMetrics.INDEX_STAGE);
+        return matchedIds;
+    }
+
+    private List<FoodRecipeEntity> findAllFromIndex(RecipeSearchCriteria criteria, Long afterId, int limit, RecipeSearchMetrics.Sample sample) {
+        RoaringBitmap matchedIds = searchIndex(criteria, afterId, sample);
+        // Only load as many matched recipes as page needs, trigram candidates without instruction keywords are dropped
+        List<FoodRecipeEntity> recipeEntities = new ArrayList<>(limit);
+        IntIterator idIterator = matchedIds.getIntIterator();
+        while (recipeEntities.size() < limit && idIterator.hasNext()) {
+            List<Long> ids = new ArrayList<>();
+            while (ids.size() < limit - recipeEntities.size() && idIterator.hasNext()) {
+                ids.add((long) idIterator.next());
             }
+            sample.startStage();
+            List<FoodRecipeEntity> candidates = foodRecipeRepository.findAllWithIngredients(ids);
+            sample.stopStage(RecipeSearchMetrics.LOAD_STAGE);
+            sample.startStage();
+            int matchedBefore = recipeEntities.size();
+            candidates.stream()
+                .filter(entity -> criteria.getInstructionKeyWords().isEmpty()
+                    || criteria.getInstructionKeyWords().stream().allMatch(TextNormalizer.normalize(entity.getInstructions())::contains))
+                .forEach(recipeEntities::add);
+            sample.stopStage(RecipeSearchMetrics.FILTER_STAGE);
+            sample.count(candidates.size(), recipeEntities.size() - matchedBefore);
         }
-        return true;
+        return recipeEntities;
     }
 
     private FoodRecipe persistAndGetFoodRecipe(FoodRecipe foodRecipeModel, Long id, FoodRecipeEntity recipeEntity) {
         foodRecipeMapper.formFoodRecipeEntity(foodRecipeModel, recipeEntity, id);
         FoodRecipeEntity savedEntity = foodRecipeRepository.save(recipeEntity);
+        // added to catalog before it is indexed, so a search never finds it missing from catalog
+        recipeCatalog.put(List.of(savedEntity));
+        recipeSearchIndex.index(savedEntity);
+        recipeSearchCache.invalidate(List.of(savedEntity));
+        recipeResponseCache.invalidate(savedEntity.getId());
+        recipeCatalogVersion.increment();
         return foodRecipeMapper.formFoodRecipeModel(savedEntity, true);
     }
 
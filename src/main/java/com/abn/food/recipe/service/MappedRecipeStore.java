@@ -0,0 +1,542 @@
+package com.abn.food.recipe.service;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import com.abn.food.recipe.enums.DishType;
+
+/**
+ * Food recipes kept off heap in memory-mapped files, so that catalogs of millions of food recipes add no objects
+ * to heap until they are read.
+ * <p>
+ * {@value #DATA_FILE} holds records appended one after another. Every record starts with a fixed-width header of id,
+ * version, servings, dish type and offset and length of its UTF-8 instructions blob, followed by varint encoded name
+ * and ingredients, which refer to ingredient names by reference id. {@value #INDEX_FILE} holds the offset of the latest
+ * record of every food recipe at position 8 &times; id, 0 if there is none. Both files are mapped in regions and read in
+ * place, so a reopened store is readable at once without reading any record. Records are only decoded when read.
+ * <p>
+ * Records of updated and removed food recipes are left behind as dead bytes. Once dead bytes exceed a region and the
+ * compaction ratio of all record bytes, live records are copied into new files, which then replace the current ones.
+ * Live bytes and the highest stored id are kept in the file header, so neither opening a store nor retaining food
+ * recipes scans index slots beyond the highest id. Writers must be serialized by caller, readers never lock: a record is
+ * written completely before its offset is published, and reads of replaced files are repeated on the new ones.
+ *
+ * @author Akhtar
+ */
+final class MappedRecipeStore implements CatalogRecipes, Closeable {
+
+    static final String DATA_FILE = "recipes.dat";
+    static final String INDEX_FILE = "recipes.idx";
+    static final int DEFAULT_REGION_SIZE = 1 << 28;
+
+    private static final int MAGIC = 0x52435031;
+    private static final int FORMAT_VERSION = 1;
+    private static final int END_POSITION = 8;
+    private static final int LIVE_BYTES_POSITION = 16;
+    private static final int MAX_ID_POSITION = 24;
+    private static final String COMPACTED_SUFFIX = ".compacted";
+    private static final long FIRST_RECORD = 64;
+    private static final int RECORD_HEADER_SIZE = 32;
+    private static final long MAX_ID = Integer.MAX_VALUE;
+    private static final long NO_VERSION = Long.MIN_VALUE;
+    private static final int NO_SERVINGS = Integer.MIN_VALUE;
+    private static final DishType[] DISH_TYPES = DishType.values();
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final LongFunction<String> referenceNames;
+    private final int regionSize;
+    private final double compactionRatio;
+    private volatile StoreFiles files;
+    private volatile long end;
+    private volatile long liveBytes;
+    private long maxId;
+
+    /**
+     * Open store in directory, creating its files if they do not exist
+     *
+     * @param directory       directory of store files
+     * @param referenceNames  ingredient names by reference id
+     * @param regionSize      bytes mapped at once, no record can be larger
+     * @param compactionRatio share of dead bytes in all record bytes above which records are compacted, 1 to never compact
+     * @throws IOException if files can not be opened or mapped
+     */
+    MappedRecipeStore(Path directory, LongFunction<String> referenceNames, int regionSize, double compactionRatio) throws IOException {
+        if (regionSize < FIRST_RECORD || regionSize % Long.BYTES != 0) {
+            throw new IllegalArgumentException("Region size must be a multiple of 8 bytes of at least " + FIRST_RECORD);
+        }
+        Files.createDirectories(directory);
+        recoverCompaction(directory);
+        this.directory = directory;
+        this.referenceNames = referenceNames;
+        this.regionSize = regionSize;
+        this.compactionRatio = compactionRatio;
+        this.files = new StoreFiles(directory, "", regionSize);
+        ByteBuffer header = files.data.region(0);
+        int magic = header.getInt(0);
+        int formatVersion = header.getInt(4);
+        if (magic == 0) {
+            this.end = FIRST_RECORD;
+            this.maxId = -1;
+            writeHeader(files.data, end);
+        }
+        else if (magic != MAGIC || formatVersion != FORMAT_VERSION) {
+            close();
+            throw new IOException("Unsupported food recipe store in " + directory);
+        }
+        else {
+            this.end = (long) LONGS.getAcquire(header, END_POSITION);
+            this.liveBytes = header.getLong(LIVE_BYTES_POSITION);
+            this.maxId = header.getLong(MAX_ID_POSITION);
+        }
+    }
+
+    @Override
+    public CatalogRecipe get(Long id) {
+        if (id == null || id < 0 || id > MAX_ID) {
+            return null;
+        }
+        StoreFiles current = files;
+        try {
+            long offset = current.offset(id);
+            return offset == 0 ? null : decode(current.data, offset);
+        }
+        catch (UncheckedIOException e) {
+            if (current == files) {
+                throw e;
+            }
+            // files were closed by compaction while being read
+            return get(id);
+        }
+    }
+
+    /**
+     * Get number of bytes of records which were replaced or removed, including unused ends of regions
+     *
+     * @return dead bytes of data file
+     */
+    long deadBytes() {
+        return end - FIRST_RECORD - liveBytes;
+    }
+
+    /**
+     * Append food recipe unless the same or a newer version of it is stored
+     *
+     * @param recipe committed food recipe
+     */
+    void put(CatalogRecipe recipe) {
+        long id = recipe.getId();
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Food recipe id " + id + " can not be stored");
+        }
+        StoreFiles current = files;
+        long previous = current.offset(id);
+        if (previous != 0 && recipe.getVersion() != null) {
+            long storedVersion = current.data.region(previous).getLong(current.data.position(previous) + Long.BYTES);
+            if (storedVersion != NO_VERSION && storedVersion >= recipe.getVersion()) {
+                return;
+            }
+        }
+        byte[] record = encode(recipe);
+        if (record.length > regionSize) {
+            throw new IllegalArgumentException("Food recipe " + id + " is larger than a region of the store");
+        }
+        long offset = append(current.data, end, record);
+        end = offset + align(record.length);
+        liveBytes += align(record.length) - (previous == 0 ? 0 : align(recordLength(current.data, previous)));
+        maxId = Math.max(maxId, id);
+        writeHeader(current.data, end);
+        current.publish(id, offset);
+        compactIfNeeded();
+    }
+
+    /**
+     * Remove food recipe, its records are left behind until compacted
+     *
+     * @param id of removed food recipe
+     */
+    void remove(Long id) {
+        if (get(id) != null) {
+            unpublish(id);
+            compactIfNeeded();
+        }
+    }
+
+    /**
+     * Remove all food recipes except the given ones
+     *
+     * @param ids of food recipes to keep
+     */
+    void retain(RoaringBitmap ids) {
+        StoreFiles current = files;
+        for (long id = 0; id <= maxId; id++) {
+            if (!ids.contains((int) id) && current.offset(id) != 0) {
+                unpublish(id);
+            }
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Write mapped changes to disk and close files
+     *
+     * @throws IOException if files can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        files.close();
+    }
+
+    private void unpublish(long id) {
+        StoreFiles current = files;
+        liveBytes -= align(recordLength(current.data, current.offset(id)));
+        writeHeader(current.data, end);
+        current.publish(id, 0);
+    }
+
+    private void compactIfNeeded() {
+        long deadBytes = deadBytes();
+        if (deadBytes >= regionSize && deadBytes > compactionRatio * (end - FIRST_RECORD)) {
+            try {
+                compact();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Food recipe store can not be compacted in " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * Copy live records into new files and replace current files with them. Compacted index is moved before compacted
+     * data, so an interrupted compaction is either dropped or finished by {@link #recoverCompaction(Path)}.
+     */
+    private void compact() throws IOException {
+        StoreFiles current = files;
+        deleteCompactedFiles(directory);
+        StoreFiles compacted = new StoreFiles(directory, COMPACTED_SUFFIX, regionSize);
+        long compactedEnd = FIRST_RECORD;
+        try {
+            for (long id = 0; id <= maxId; id++) {
+                long offset = current.offset(id);
+                if (offset != 0) {
+                    byte[] record = new byte[recordLength(current.data, offset)];
+                    current.data.region(offset).duplicate().position(current.data.position(offset)).get(record);
+                    long compactedOffset = append(compacted.data, compactedEnd, record);
+                    compactedEnd = compactedOffset + align(record.length);
+                    compacted.publish(id, compactedOffset);
+                }
+            }
+            writeHeader(compacted.data, compactedEnd);
+            compacted.force();
+            Files.move(directory.resolve(INDEX_FILE + COMPACTED_SUFFIX), directory.resolve(INDEX_FILE), ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+        catch (IOException | RuntimeException e) {
+            compacted.close();
+            deleteCompactedFiles(directory);
+            throw e;
+        }
+        files = compacted;
+        end = compactedEnd;
+        try {
+            Files.move(directory.resolve(DATA_FILE + COMPACTED_SUFFIX), directory.resolve(DATA_FILE), ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+        finally {
+            current.close();
+        }
+    }
+
+    private void writeHeader(MappedFile data, long dataEnd) {
+        ByteBuffer header = data.region(0);
+        header.putLong(LIVE_BYTES_POSITION, liveBytes);
+        header.putLong(MAX_ID_POSITION, maxId);
+        LONGS.setRelease(header, END_POSITION, dataEnd);
+        header.putInt(4, FORMAT_VERSION);
+        header.putInt(0, MAGIC);
+    }
+
+    private static void recoverCompaction(Path directory) throws IOException {
+        Path compactedData = directory.resolve(DATA_FILE + COMPACTED_SUFFIX);
+        if (Files.exists(directory.resolve(INDEX_FILE + COMPACTED_SUFFIX))) {
+            // interrupted before any file was replaced, current files are complete
+            deleteCompactedFiles(directory);
+        }
+        else if (Files.exists(compactedData)) {
+            // interrupted after index was replaced, compacted data belongs to it
+            Files.move(compactedData, directory.resolve(DATA_FILE), ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteCompactedFiles(Path directory) throws IOException {
+        Files.deleteIfExists(directory.resolve(INDEX_FILE + COMPACTED_SUFFIX));
+        Files.deleteIfExists(directory.resolve(DATA_FILE + COMPACTED_SUFFIX));
+    }
+
+    private static long append(MappedFile data, long dataEnd, byte[] record) {
+        long offset = dataEnd;
+        if (data.position(offset) + record.length > data.regionSize) {
+            // records never span regions, the rest of the current region is left unused
+            offset = (offset / data.regionSize + 1) * data.regionSize;
+        }
+        data.region(offset).duplicate().position(data.position(offset)).put(record);
+        return offset;
+    }
+
+    private static int recordLength(MappedFile data, long offset) {
+        ByteBuffer region = data.region(offset);
+        int start = data.position(offset);
+        return region.getInt(start + 24) + Math.max(region.getInt(start + 28), 0);
+    }
+
+    private static byte[] encode(CatalogRecipe recipe) {
+        byte[] instructions = recipe.getInstructions() == null ? null : recipe.getInstructions().getBytes(UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(RECORD_HEADER_SIZE + 16 * recipe.getIngredients().size()
+            + (instructions == null ? 0 : instructions.length));
+        out.writeBytes(new byte[RECORD_HEADER_SIZE]);
+        writeString(out, recipe.getRecipeName());
+        writeVarint(out, recipe.getIngredients().size());
+        for (CatalogRecipe.Ingredient ingredient : recipe.getIngredients()) {
+            writeVarint(out, ingredient.getReferenceId());
+            writeVarint(out, ingredient.getQuantity() == null ? 0 : zigZag(ingredient.getQuantity()) + 1);
+            writeString(out, ingredient.getUnit());
+        }
+        int instructionsOffset = out.size();
+        if (instructions != null) {
+            out.writeBytes(instructions);
+        }
+        byte[] record = out.toByteArray();
+        ByteBuffer.wrap(record)
+            .putLong(recipe.getId())
+            .putLong(recipe.getVersion() == null ? NO_VERSION : recipe.getVersion())
+            .putInt(recipe.getServings() == null ? NO_SERVINGS : recipe.getServings())
+            .putInt(recipe.getDishType() == null ? -1 : recipe.getDishType().ordinal())
+            .putInt(instructionsOffset)
+            .putInt(instructions == null ? -1 : instructions.length);
+        return record;
+    }
+
+    private CatalogRecipe decode(MappedFile data, long offset) {
+        ByteBuffer record = data.region(offset).duplicate();
+        int start = data.position(offset);
+        long version = record.getLong(start + 8);
+        int servings = record.getInt(start + 16);
+        int dishType = record.getInt(start + 20);
+        int instructionsOffset = record.getInt(start + 24);
+        int instructionsLength = record.getInt(start + 28);
+        record.position(start + RECORD_HEADER_SIZE);
+        String recipeName = readString(record);
+        int ingredientCount = (int) readVarint(record);
+        List<CatalogRecipe.Ingredient> ingredients = new ArrayList<>(ingredientCount);
+        for (int i = 0; i < ingredientCount; i++) {
+            long referenceId = readVarint(record);
+            long quantity = readVarint(record);
+            String unit = readString(record);
+            ingredients.add(new CatalogRecipe.Ingredient(referenceId, referenceNames.apply(referenceId),
+                quantity == 0 ? null : unZigZag(quantity - 1), unit));
+        }
+        String instructions = null;
+        if (instructionsLength >= 0) {
+            byte[] bytes = new byte[instructionsLength];
+            record.position(start + instructionsOffset).get(bytes);
+            instructions = new String(bytes, UTF_8);
+        }
+        return new CatalogRecipe(record.getLong(start), version == NO_VERSION ? null : version,
+            recipeName, dishType < 0 ? null : DISH_TYPES[dishType], servings == NO_SERVINGS ? null : servings,
+            instructions, ingredients);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarint(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        writeVarint(out, bytes.length + 1L);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer record) {
+        long length = readVarint(record);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) length - 1];
+        record.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer record) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = record.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        while (b < 0);
+        return value;
+    }
+
+    private static long zigZag(int value) {
+        return Integer.toUnsignedLong((value << 1) ^ (value >> 31));
+    }
+
+    private static int unZigZag(long value) {
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    private static long align(int length) {
+        return (length + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * Data and index file read together, both are replaced at once by compaction
+     */
+    private static final class StoreFiles implements Closeable {
+        private final MappedFile data;
+        private final MappedFile index;
+
+        private StoreFiles(Path directory, String suffix, int regionSize) throws IOException {
+            this.data = new MappedFile(directory.resolve(DATA_FILE + suffix), regionSize);
+            try {
+                this.index = new MappedFile(directory.resolve(INDEX_FILE + suffix), regionSize);
+            }
+            catch (IOException e) {
+                data.close();
+                throw e;
+            }
+        }
+
+        private long offset(long id) {
+            long position = id * Long.BYTES;
+            ByteBuffer region = index.mappedRegion(position);
+            return region == null ? 0 : (long) LONGS.getAcquire(region, index.position(position));
+        }
+
+        private void publish(long id, long offset) {
+            long position = id * Long.BYTES;
+            LONGS.setRelease(index.region(position), index.position(position), offset);
+        }
+
+        private void force() {
+            data.force();
+            index.force();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                data.close();
+            }
+            finally {
+                index.close();
+            }
+        }
+    }
+
+    /**
+     * File mapped lazily in regions of equal size, the file grows by whole regions
+     */
+    private static final class MappedFile implements Closeable {
+        private final FileChannel channel;
+        private final int regionSize;
+        private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+
+        private MappedFile(Path path, int regionSize) throws IOException {
+            this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+            this.regionSize = regionSize;
+        }
+
+        private ByteBuffer region(long offset) {
+            int regionIndex = (int) (offset / regionSize);
+            MappedByteBuffer[] mapped = regions;
+            return regionIndex < mapped.length && mapped[regionIndex] != null ? mapped[regionIndex] : map(regionIndex);
+        }
+
+        private ByteBuffer mappedRegion(long offset) {
+            int regionIndex = (int) (offset / regionSize);
+            MappedByteBuffer[] mapped = regions;
+            if (regionIndex < mapped.length && mapped[regionIndex] != null) {
+                return mapped[regionIndex];
+            }
+            // regions beyond the file are not mapped for reading, so reads never grow the file
+            return offset < size() ? map(regionIndex) : null;
+        }
+
+        private int position(long offset) {
+            return (int) (offset % regionSize);
+        }
+
+        private long size() {
+            try {
+                return channel.size();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private synchronized MappedByteBuffer map(int regionIndex) {
+            MappedByteBuffer[] mapped = regions;
+            if (regionIndex < mapped.length && mapped[regionIndex] != null) {
+                return mapped[regionIndex];
+            }
+            try {
+                MappedByteBuffer region = channel.map(READ_WRITE, (long) regionIndex * regionSize, regionSize);
+                MappedByteBuffer[] grown = Arrays.copyOf(mapped, Math.max(mapped.length, regionIndex + 1));
+                grown[regionIndex] = region;
+                regions = grown;
+                return region;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void force() {
+            for (MappedByteBuffer region : regions) {
+                if (region != null) {
+                    region.force();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            force();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.abn.food.recipe.service;
+
+import static java.lang.Math.toIntExact;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import javax.annotation.PreDestroy;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read model of all committed food recipes and ingredient references. Readers get the current
+ * {@link RecipeCatalogSnapshot} without locking, writers copy the touched part of it once their changes are committed
+ * and swap it in. Writers are serialized, so no change is lost when two of them copy the same snapshot. Their changes are
+ * applied after commit in any order, so a food recipe is never replaced by an older version of itself, and removed
+ * food recipe ids are kept as tombstones which are never added again. Ids come from a sequence and are not reused.
+ * <p>
+ * When a store path is configured, food recipes are kept off heap in a {@link MappedRecipeStore} instead and only
+ * ingredient references stay in the snapshot. The store survives restarts, rebuilding it only writes food recipes
+ * whose version changed in the meantime. Records left behind by updates and removals are compacted once they exceed the
+ * compaction ratio, and their bytes are published as metric.
+ * <p>
+ * Like the search index, the catalog is held per application instance and rebuilt on start-up, before requests are served.
+ *
+ * @author Akhtar
+ */
+@Component
+public class RecipeCatalog {
+
+    private final IngredientReferenceRepository ingredientReferenceRepository;
+    private final boolean enabled;
+    private final MappedRecipeStore store;
+    private volatile RecipeCatalogSnapshot snapshot = RecipeCatalogSnapshot.EMPTY;
+    private final RoaringBitmap removedIds = new RoaringBitmap();
+    private RoaringBitmap rebuiltIds;
+
+    /**
+     * Constructor initialization
+     *
+     * @param ingredientReferenceRepository Ingredient Reference Repository
+     * @param meterRegistry                 registry for dead bytes of off-heap food recipe store
+     * @param enabled                       false to serve all reads from database
+     * @param storePath                     directory of off-heap food recipe store, empty to keep food recipes on heap
+     * @param compactionRatio               share of dead bytes in off-heap food recipe store above which it is compacted
+     */
+    public RecipeCatalog(IngredientReferenceRepository ingredientReferenceRepository, MeterRegistry meterRegistry,
+                         @Value("${recipe.catalog.snapshot.enabled:true}") boolean enabled,
+                         @Value("${recipe.catalog.store.path:}") String storePath,
+                         @Value("${recipe.catalog.store.compaction-ratio:0.5}") double compactionRatio) {
+        this.ingredientReferenceRepository = ingredientReferenceRepository;
+        this.enabled = enabled;
+        this.store = enabled && !storePath.isBlank() ? openStore(Path.of(storePath), compactionRatio) : null;
+        if (store != null) {
+            Gauge.builder("recipe.catalog.store.dead.bytes", store, MappedRecipeStore::deadBytes)
+                .description("Bytes of replaced and removed food recipe records not yet compacted")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Load all ingredient references before food recipes are added while search index is built
+     */
+    public void loadReferences() {
+        if (enabled) {
+            addReferences(ingredientReferenceRepository.findAll());
+        }
+    }
+
+    /**
+     * Check if reads are served from catalog
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get current snapshot, it never changes once returned
+     *
+     * @return current snapshot
+     */
+    public RecipeCatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Get food recipes of catalog, either the current snapshot or the off-heap store
+     *
+     * @return food recipes by id
+     */
+    public CatalogRecipes recipes() {
+        return store == null ? snapshot : store;
+    }
+
+    /**
+     * Add or replace committed food recipes together with their ingredient references, removed food recipes are skipped
+     *
+     * @param recipeEntities committed food recipes with ingredient references loaded
+     */
+    public void put(Collection<FoodRecipeEntity> recipeEntities) {
+        if (!enabled) {
+            return;
+        }
+        // copied before entering the lock, so writers only wait for each other while segments are copied
+        Collection<CatalogRecipe> copiedRecipes = recipeEntities.stream().map(CatalogRecipe::of).collect(toList());
+        synchronized (this) {
+            Collection<CatalogRecipe> recipes = copiedRecipes.stream()
+                .filter(recipe -> !removedIds.contains(toIntExact(recipe.getId())))
+                .collect(toList());
+            if (store == null) {
+                snapshot = snapshot.withRecipes(recipes);
+                return;
+            }
+            // names are published before the records referring to them
+            snapshot = snapshot.withReferences(snapshot.newReferencesOf(recipes));
+            recipes.forEach(store::put);
+            if (rebuiltIds != null) {
+                recipes.forEach(recipe -> rebuiltIds.add(toIntExact(recipe.getId())));
+            }
+        }
+    }
+
+    /**
+     * Remove a deleted food recipe, it is never added again. Its ingredient references are kept.
+     *
+     * @param id of deleted food recipe
+     */
+    public synchronized void remove(Long id) {
+        if (!enabled) {
+            return;
+        }
+        removedIds.add(toIntExact(id));
+        if (store == null) {
+            snapshot = snapshot.withoutRecipe(id);
+        }
+        else {
+            store.remove(id);
+        }
+    }
+
+    /**
+     * Start rebuilding catalog from all food recipes, which are added by {@link #put(Collection)} until
+     * {@link #finishRebuild()}. Food recipes kept on heap are removed at once, stored ones which are not added again
+     * are removed when rebuild is finished. Ingredient references are kept.
+     */
+    public synchronized void startRebuild() {
+        if (store == null) {
+            snapshot = snapshot.withoutRecipes();
+        }
+        else {
+            rebuiltIds = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * Finish rebuilding catalog, removing stored food recipes which were not added since rebuild started
+     */
+    public synchronized void finishRebuild() {
+        if (rebuiltIds != null) {
+            store.retain(rebuiltIds);
+            rebuiltIds = null;
+        }
+    }
+
+    /**
+     * Close off-heap store once application is stopped
+     *
+     * @throws IOException if store can not be closed
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private MappedRecipeStore openStore(Path directory, double compactionRatio) {
+        try {
+            return new MappedRecipeStore(directory, referenceId -> snapshot.getReferenceName(referenceId),
+                MappedRecipeStore.DEFAULT_REGION_SIZE, compactionRatio);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Food recipe store can not be opened in " + directory, e);
+        }
+    }
+
+    private synchronized void addReferences(Collection<IngredientReferenceEntity> referenceEntities) {
+        snapshot = snapshot.withReferences(referenceEntities.stream()
+            .collect(toMap(IngredientReferenceEntity::getId, IngredientReferenceEntity::getName)));
+    }
+}
@@ -0,0 +1,247 @@
+package com.abn.food.recipe.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of committed food recipes and ingredient references, safe to read from any thread without locks.
+ * <p>
+ * Food recipes are kept by id in segments of {@value #SEGMENT_SIZE} ids. A change copies the array of segments and only
+ * the segments it touches, all other segments are shared with the previous snapshot, so cost of a change does not grow
+ * with the number of food recipes in segments left untouched. Ingredient references are segmented by id the same way,
+ * so adding references only copies the segments of the added ids, however many references exist. Names of all
+ * references are listed once per set of references, when first read.
+ *
+ * @author Akhtar
+ */
+public final class RecipeCatalogSnapshot implements CatalogRecipes {
+
+    static final int SEGMENT_SIZE = 1024;
+    private static final int SEGMENT_BITS = Integer.numberOfTrailingZeros(SEGMENT_SIZE);
+    private static final int SLOT_MASK = SEGMENT_SIZE - 1;
+
+    static final RecipeCatalogSnapshot EMPTY = new RecipeCatalogSnapshot(new CatalogRecipe[0][], 0, References.EMPTY);
+
+    private final CatalogRecipe[][] segments;
+    private final int size;
+    private final References references;
+
+    private RecipeCatalogSnapshot(CatalogRecipe[][] segments, int size, References references) {
+        this.segments = segments;
+        this.size = size;
+        this.references = references;
+    }
+
+    @Override
+    public CatalogRecipe get(Long id) {
+        if (id == null || id < 0 || (id >>> SEGMENT_BITS) >= segments.length) {
+            return null;
+        }
+        CatalogRecipe[] segment = segments[(int) (id >>> SEGMENT_BITS)];
+        return segment == null ? null : segment[(int) (id & SLOT_MASK)];
+    }
+
+    /**
+     * Get number of food recipes in snapshot
+     *
+     * @return number of food recipes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get names of all ingredient references ordered by id
+     *
+     * @return unmodifiable ingredient names
+     */
+    public List<String> getReferenceNames() {
+        return references.names();
+    }
+
+    /**
+     * Get name of ingredient reference
+     *
+     * @param referenceId id of ingredient reference
+     * @return ingredient name, null if reference is not in snapshot
+     */
+    public String getReferenceName(Long referenceId) {
+        return references.get(referenceId);
+    }
+
+    /**
+     * Copy snapshot with added or replaced food recipes and their ingredient references.
+     * A food recipe is not replaced by an older version of itself.
+     *
+     * @param recipes committed food recipes
+     * @return new snapshot
+     */
+    RecipeCatalogSnapshot withRecipes(Collection<CatalogRecipe> recipes) {
+        if (recipes.isEmpty()) {
+            return this;
+        }
+        long maxId = recipes.stream().mapToLong(CatalogRecipe::getId).max().getAsLong();
+        CatalogRecipe[][] copiedSegments = Arrays.copyOf(segments, Math.max(segments.length, segmentCount(maxId)));
+        // segments copied by this change are written in place
+        boolean[] copied = new boolean[copiedSegments.length];
+        Map<Long, String> newReferences = new TreeMap<>();
+        int newSize = size;
+        for (CatalogRecipe recipe : recipes) {
+            int segmentIndex = (int) (recipe.getId() >>> SEGMENT_BITS);
+            if (!copied[segmentIndex]) {
+                CatalogRecipe[] segment = copiedSegments[segmentIndex];
+                copiedSegments[segmentIndex] = segment == null ? new CatalogRecipe[SEGMENT_SIZE] : segment.clone();
+                copied[segmentIndex] = true;
+            }
+            CatalogRecipe[] segment = copiedSegments[segmentIndex];
+            int slot = (int) (recipe.getId() & SLOT_MASK);
+            CatalogRecipe existing = segment[slot];
+            if (existing == null) {
+                newSize++;
+            }
+            else if (isNewer(existing, recipe)) {
+                continue;
+            }
+            segment[slot] = recipe;
+            addReferences(recipe, newReferences);
+        }
+        return new RecipeCatalogSnapshot(copiedSegments, newSize, references).withReferences(newReferences);
+    }
+
+    /**
+     * Copy snapshot without a food recipe, ingredient references are kept
+     *
+     * @param id of removed food recipe
+     * @return new snapshot, this snapshot if food recipe is not in it
+     */
+    RecipeCatalogSnapshot withoutRecipe(Long id) {
+        if (get(id) == null) {
+            return this;
+        }
+        int segmentIndex = (int) (id >>> SEGMENT_BITS);
+        CatalogRecipe[][] copiedSegments = segments.clone();
+        copiedSegments[segmentIndex] = segments[segmentIndex].clone();
+        copiedSegments[segmentIndex][(int) (id & SLOT_MASK)] = null;
+        return new RecipeCatalogSnapshot(copiedSegments, size - 1, references);
+    }
+
+    /**
+     * Copy snapshot without any food recipe, ingredient references are kept
+     *
+     * @return new snapshot
+     */
+    RecipeCatalogSnapshot withoutRecipes() {
+        return new RecipeCatalogSnapshot(EMPTY.segments, 0, references);
+    }
+
+    /**
+     * Copy snapshot with added ingredient references
+     *
+     * @param names ingredient names by reference id
+     * @return new snapshot, this snapshot if all references are already in it
+     */
+    RecipeCatalogSnapshot withReferences(Map<Long, String> names) {
+        References addedReferences = references.with(names);
+        return addedReferences == references ? this : new RecipeCatalogSnapshot(segments, size, addedReferences);
+    }
+
+    /**
+     * Collect ingredient references of food recipes which are not in snapshot yet
+     *
+     * @param recipes food recipes
+     * @return ingredient names by reference id
+     */
+    Map<Long, String> newReferencesOf(Collection<CatalogRecipe> recipes) {
+        Map<Long, String> newReferences = new TreeMap<>();
+        recipes.forEach(recipe -> addReferences(recipe, newReferences));
+        return newReferences;
+    }
+
+    private void addReferences(CatalogRecipe recipe, Map<Long, String> newReferences) {
+        recipe.getIngredients().stream()
+            .filter(ingredient -> references.get(ingredient.getReferenceId()) == null)
+            .forEach(ingredient -> newReferences.put(ingredient.getReferenceId(), ingredient.getName()));
+    }
+
+    private static int segmentCount(long maxId) {
+        return Math.toIntExact((maxId >>> SEGMENT_BITS) + 1);
+    }
+
+    private static boolean isNewer(CatalogRecipe existing, CatalogRecipe recipe) {
+        return existing.getVersion() != null && recipe.getVersion() != null && existing.getVersion() > recipe.getVersion();
+    }
+
+    /**
+     * Immutable ingredient names by reference id in segments of {@value #SEGMENT_SIZE} ids, shared by all snapshots
+     * until a reference is added
+     */
+    private static final class References {
+        private static final References EMPTY = new References(new String[0][], 0);
+
+        private final String[][] segments;
+        private final int size;
+        private volatile List<String> names;
+
+        private References(String[][] segments, int size) {
+            this.segments = segments;
+            this.size = size;
+        }
+
+        private String get(Long referenceId) {
+            if (referenceId == null || referenceId < 0 || (referenceId >>> SEGMENT_BITS) >= segments.length) {
+                return null;
+            }
+            String[] segment = segments[(int) (referenceId >>> SEGMENT_BITS)];
+            return segment == null ? null : segment[(int) (referenceId & SLOT_MASK)];
+        }
+
+        private References with(Map<Long, String> addedNames) {
+            String[][] copiedSegments = null;
+            boolean[] copied = null;
+            int newSize = size;
+            for (Map.Entry<Long, String> name : addedNames.entrySet()) {
+                if (name.getValue() == null || get(name.getKey()) != null) {
+                    continue;
+                }
+                if (copiedSegments == null) {
+                    long maxId = Collections.max(addedNames.keySet());
+                    copiedSegments = Arrays.copyOf(segments, Math.max(segments.length, segmentCount(maxId)));
+                    copied = new boolean[copiedSegments.length];
+                }
+                int segmentIndex = (int) (name.getKey() >>> SEGMENT_BITS);
+                if (!copied[segmentIndex]) {
+                    String[] segment = copiedSegments[segmentIndex];
+                    copiedSegments[segmentIndex] = segment == null ? new String[SEGMENT_SIZE] : segment.clone();
+                    copied[segmentIndex] = true;
+                }
+                copiedSegments[segmentIndex][(int) (name.getKey() & SLOT_MASK)] = name.getValue();
+                newSize++;
+            }
+            return copiedSegments == null ? this : new References(copiedSegments, newSize);
+        }
+
+        private List<String> names() {
+            List<String> listedNames = names;
+            if (listedNames == null) {
+                List<String> collectedNames = new ArrayList<>(size);
+                for (String[] segment : segments) {
+                    if (segment != null) {
+                        for (String name : segment) {
+                            if (name != null) {
+                                collectedNames.add(name);
+                            }
+                        }
+                    }
+                }
+                listedNames = Collections.unmodifiableList(collectedNames);
+                names = listedNames;
+            }
+            return listedNames;
+        }
+    }
+}
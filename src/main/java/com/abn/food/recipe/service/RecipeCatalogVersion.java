@@ -0,0 +1,37 @@
+package com.abn.food.recipe.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the whole food recipe catalog, incremented after every saved, updated or deleted food recipe.
+ * Search results can only change together with it, so it is shared as ETag of searches.
+ * <p>
+ * Versions are counted in memory per application instance, like the search index. They are prefixed with
+ * the start time of the instance, so versions shared before a restart never match afterwards.
+ *
+ * @author Akhtar
+ */
+@Component
+public class RecipeCatalogVersion {
+
+    private final String instancePrefix = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX) + "-";
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Get current catalog version
+     *
+     * @return current catalog version
+     */
+    public String current() {
+        return instancePrefix + version.get();
+    }
+
+    /**
+     * Increment catalog version once changes of food recipes are committed
+     */
+    public void increment() {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,69 @@
+package com.abn.food.recipe.service;
+
+import java.util.List;
+
+import com.abn.food.recipe.model.FoodRecipe;
+
+/**
+ * Page of matched food recipes ordered by id
+ *
+ * @author Akhtar
+ */
+public class RecipePage {
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final List<FoodRecipe> recipes;
+    private final long[] recipeIds;
+    private final Long nextAfterId;
+
+    /**
+     * Constructor initialization
+     *
+     * @param recipes     food recipes of current page
+     * @param nextAfterId id of last food recipe in current page if more recipes are available, otherwise null
+     */
+    public RecipePage(List<FoodRecipe> recipes, Long nextAfterId) {
+        this(recipes, NO_IDS, nextAfterId);
+    }
+
+    /**
+     * Constructor initialization with ids of food recipes, so that cached page can be invalidated by id
+     *
+     * @param recipes     food recipes of current page
+     * @param recipeIds   ids of food recipes of current page in ascending order
+     * @param nextAfterId id of last food recipe in current page if more recipes are available, otherwise null
+     */
+    RecipePage(List<FoodRecipe> recipes, long[] recipeIds, Long nextAfterId) {
+        this.recipes = recipes;
+        this.recipeIds = recipeIds;
+        this.nextAfterId = nextAfterId;
+    }
+
+    /**
+     * Get food recipes of current page
+     *
+     * @return food recipes
+     */
+    public List<FoodRecipe> getRecipes() {
+        return recipes;
+    }
+
+    /**
+     * Get ids of food recipes of current page
+     *
+     * @return ids in ascending order
+     */
+    long[] getRecipeIds() {
+        return recipeIds;
+    }
+
+    /**
+     * Get id after which next page starts
+     *
+     * @return id of last food recipe in current page, null if there is no next page
+     */
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+}
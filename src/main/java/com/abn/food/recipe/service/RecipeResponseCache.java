@@ -0,0 +1,162 @@
+package com.abn.food.recipe.service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache of serialized food recipe responses by id, version and base URL of links, so that popular food recipes
+ * are written from bytes without being loaded, mapped or serialized again. Size is bounded by total number of cached
+ * bytes. Maximum of 0 bytes disables the cache.
+ * <p>
+ * Responses are only looked up by the current version of a food recipe, so a response of an older version is never
+ * served even if it was cached after its food recipe changed. Updated and removed food recipes drop their responses
+ * to free memory. Cached keys are indexed by food recipe id, so that dropping responses of a food recipe only touches
+ * its own keys instead of scanning the whole cache.
+ *
+ * @author Akhtar
+ */
+@Component
+public class RecipeResponseCache {
+
+    static final String CACHE_NAME = "recipeResponses";
+    // id, version, shared link prefix and entry overhead of the cache
+    private static final int KEY_WEIGHT = 64;
+
+    private final FoodRecipeLinkFactory foodRecipeLinkFactory;
+    private final boolean enabled;
+    private final Cache<ResponseKey, byte[]> responses;
+    private final Map<Long, Set<ResponseKey>> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor initialization
+     *
+     * @param foodRecipeLinkFactory food recipe self link factory, links of cached responses depend on base URL
+     * @param meterRegistry         registry for hit, miss and eviction metrics of cache
+     * @param maximumBytes          maximum number of bytes of all cached responses, 0 to disable cache
+     */
+    public RecipeResponseCache(FoodRecipeLinkFactory foodRecipeLinkFactory, MeterRegistry meterRegistry,
+                               @Value("${recipe.response.cache.maximum-bytes:16777216}") long maximumBytes) {
+        this.foodRecipeLinkFactory = foodRecipeLinkFactory;
+        this.enabled = maximumBytes > 0;
+        this.responses = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((ResponseKey key, byte[] body) -> body.length + KEY_WEIGHT)
+            .removalListener((ResponseKey key, byte[] body, RemovalCause cause) -> unindex(key))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    /**
+     * Check if responses are cached
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get cached response of food recipe in its current version
+     *
+     * @param id      of the food recipe
+     * @param version current version of the food recipe
+     * @return serialized response, null if not cached
+     */
+    public byte[] get(Long id, Long version) {
+        return responses.getIfPresent(new ResponseKey(id, version, foodRecipeLinkFactory.selfLinkPrefix()));
+    }
+
+    /**
+     * Cache response of food recipe, cached bytes must not be modified afterwards
+     *
+     * @param id      of the food recipe
+     * @param version version of the food recipe the response was serialized from
+     * @param body    serialized response
+     */
+    public void put(Long id, Long version, byte[] body) {
+        if (enabled) {
+            ResponseKey key = new ResponseKey(id, version, foodRecipeLinkFactory.selfLinkPrefix());
+            // Cached and indexed together per id, so invalidation never misses a response cached at the same time
+            keysById.compute(id, (recipeId, keys) -> {
+                Set<ResponseKey> indexedKeys = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                indexedKeys.add(key);
+                responses.put(key, body);
+                return indexedKeys;
+            });
+        }
+    }
+
+    /**
+     * Drop cached responses of all versions of a food recipe
+     *
+     * @param id of the updated or removed food recipe
+     */
+    public void invalidate(Long id) {
+        if (enabled) {
+            keysById.compute(id, (recipeId, keys) -> {
+                if (keys != null) {
+                    responses.invalidateAll(keys);
+                }
+                return null;
+            });
+        }
+    }
+
+    private void unindex(ResponseKey key) {
+        keysById.computeIfPresent(key.id, (recipeId, keys) -> {
+            // Evicted or replaced key may have been cached again before its removal is notified
+            if (!responses.asMap().containsKey(key)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Food recipe version rendered with links of a base URL
+     */
+    private static final class ResponseKey {
+        private final Long id;
+        private final Long version;
+        private final String selfLinkPrefix;
+
+        private ResponseKey(Long id, Long version, String selfLinkPrefix) {
+            this.id = id;
+            this.version = version;
+            this.selfLinkPrefix = selfLinkPrefix;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ResponseKey that = (ResponseKey) o;
+            return id.equals(that.id)
+                && Objects.equals(version, that.version)
+                && selfLinkPrefix.equals(that.selfLinkPrefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, version, selfLinkPrefix);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.abn.food.recipe.service;
+
+import static java.lang.Math.toIntExact;
+import static java.util.Collections.emptyList;
+import static java.util.Optional.ofNullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
+import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.model.Ingredient;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.search.TextNormalizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache of food recipe search pages by normalized filters, cursor, limit and base URL of links.
+ * Size is bounded by estimated heap bytes of all cached pages, so that memory stays bounded however large pages and
+ * their food recipes are. Maximum of 0 bytes disables the cache.
+ * <p>
+ * Saved, updated and removed food recipes only invalidate pages they can change: pages which contain the food recipe,
+ * and pages whose filters match it and whose id range covers it. Pages loaded while a food recipe changed are not kept,
+ * as they might have been read before the change was committed.
+ *
+ * @author Akhtar
+ */
+@Component
+public class RecipeSearchCache {
+
+    static final String CACHE_NAME = "recipeSearchResults";
+    // Estimated heap bytes of objects without their strings and lists, for 64-bit JVMs with compressed references
+    private static final int PAGE_BYTES = 128;
+    private static final int RECIPE_BYTES = 96;
+    private static final int INGREDIENT_BYTES = 32;
+    private static final int LINK_BYTES = 120;
+    private static final int LIST_ELEMENT_BYTES = 8;
+    // Header, hash and array of a string, each character is one byte for Latin-1 and two bytes otherwise
+    private static final int STRING_BYTES = 40;
+
+    private final FoodRecipeLinkFactory foodRecipeLinkFactory;
+    private final boolean enabled;
+    private final Cache<SearchKey, RecipePage> pages;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructor initialization
+     *
+     * @param foodRecipeLinkFactory food recipe self link factory, links of cached food recipes depend on base URL
+     * @param meterRegistry         registry for hit, miss, eviction and load metrics of cache
+     * @param maximumBytes          maximum estimated heap bytes of all cached pages, 0 to disable cache
+     */
+    public RecipeSearchCache(FoodRecipeLinkFactory foodRecipeLinkFactory, MeterRegistry meterRegistry,
+                             @Value("${recipe.search.cache.maximum-bytes:16777216}") long maximumBytes) {
+        this.foodRecipeLinkFactory = foodRecipeLinkFactory;
+        this.enabled = maximumBytes > 0;
+        this.pages = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((SearchKey key, RecipePage page) -> estimateBytes(page))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, CACHE_NAME);
+        // Load metrics are only bound by CaffeineCacheMetrics for loading caches
+        TimeGauge.builder("cache.load.duration", pages, TimeUnit.NANOSECONDS, cache -> cache.stats().totalLoadTime())
+            .tag("cache", CACHE_NAME)
+            .description("The time the cache has spent loading new values")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.load", pages, cache -> cache.stats().loadSuccessCount())
+            .tags("cache", CACHE_NAME, "result", "success")
+            .description("The number of times cache lookup methods have successfully loaded a new value")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.load", pages, cache -> cache.stats().loadFailureCount())
+            .tags("cache", CACHE_NAME, "result", "failure")
+            .description("The number of times cache lookup methods failed to load a new value")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get cached page of matched food recipes, page is loaded and cached if not found
+     *
+     * @param criteria search filters
+     * @param afterId  id of last food recipe from previous page, null for first page
+     * @param limit    maximum number of food recipes in page
+     * @param loader   loads page of matched food recipes with their ids
+     * @return matched food recipes with id to fetch next page
+     */
+    public RecipePage get(RecipeSearchCriteria criteria, Long afterId, int limit, Supplier<RecipePage> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        SearchKey key = new SearchKey(criteria, afterId, limit, foodRecipeLinkFactory.selfLinkPrefix());
+        long invalidationsBeforeLoad = invalidations.get();
+        RecipePage page = pages.get(key, searchKey -> loader.get());
+        if (invalidations.get() != invalidationsBeforeLoad) {
+            pages.asMap().remove(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Invalidate pages which saved or updated food recipes can change
+     *
+     * @param recipeEntities saved or updated food recipes with ingredients
+     */
+    public void invalidate(Collection<FoodRecipeEntity> recipeEntities) {
+        invalidations.incrementAndGet();
+        // Ingredient names of cached filters can only match references of these food recipes
+        Map<String, Integer> referenceIds = new HashMap<>();
+        for (FoodRecipeEntity recipeEntity : recipeEntities) {
+            recipeEntity.getIngredients().forEach(ingredient -> referenceIds.put(
+                TextNormalizer.normalize(ingredient.getReferenceEntity().getName()), toIntExact(ingredient.getReferenceEntity().getId())));
+        }
+        pages.asMap().entrySet().removeIf(entry -> {
+            Predicate<FoodRecipeEntity> matcher = entry.getKey().criteria.matcher(referenceIds);
+            return recipeEntities.stream()
+                .anyMatch(recipeEntity -> contains(entry.getValue(), recipeEntity.getId())
+                    || coversId(entry.getKey(), entry.getValue(), recipeEntity.getId()) && matcher.test(recipeEntity));
+        });
+    }
+
+    /**
+     * Invalidate pages which contain removed food recipe
+     *
+     * @param id of the removed food recipe
+     */
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        pages.asMap().values().removeIf(page -> contains(page, id));
+    }
+
+    /**
+     * Invalidate all pages, once all food recipes were indexed again
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    /**
+     * Estimate heap bytes held by a cached page, its key is small and shared with other pages of the same filters
+     *
+     * @param page page of food recipes
+     * @return estimated bytes, at most {@link Integer#MAX_VALUE}
+     */
+    static int estimateBytes(RecipePage page) {
+        long bytes = PAGE_BYTES + (long) Long.BYTES * page.getRecipeIds().length;
+        for (FoodRecipe recipe : page.getRecipes()) {
+            bytes += RECIPE_BYTES + estimateBytes(recipe.getRecipeName()) + estimateBytes(recipe.getInstructions());
+            for (Ingredient ingredient : ofNullable(recipe.getIngredients()).orElse(emptyList())) {
+                bytes += LIST_ELEMENT_BYTES + INGREDIENT_BYTES + estimateBytes(ingredient.getName()) + estimateBytes(ingredient.getUnit());
+            }
+            for (String ingredientWithQuantity : ofNullable(recipe.getIngredientsWithQuantity()).orElse(emptyList())) {
+                bytes += LIST_ELEMENT_BYTES + estimateBytes(ingredientWithQuantity);
+            }
+            for (Link link : recipe.getLinks()) {
+                bytes += LIST_ELEMENT_BYTES + LINK_BYTES + estimateBytes(link.getHref());
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long estimateBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        boolean latin1 = value.chars().allMatch(character -> character < 256);
+        return STRING_BYTES + (latin1 ? value.length() : 2L * value.length());
+    }
+
+    private static boolean contains(RecipePage page, Long id) {
+        return Arrays.binarySearch(page.getRecipeIds(), id) >= 0;
+    }
+
+    private static boolean coversId(SearchKey key, RecipePage page, Long id) {
+        return (key.afterId == null || key.afterId < id) && (page.getNextAfterId() == null || id < page.getNextAfterId());
+    }
+
+    /**
+     * Normalized search of a page, filters are compared as sets regardless of order they were requested in
+     */
+    private static final class SearchKey {
+        private final RecipeSearchCriteria criteria;
+        private final Long afterId;
+        private final int limit;
+        private final String selfLinkPrefix;
+
+        private SearchKey(RecipeSearchCriteria criteria, Long afterId, int limit, String selfLinkPrefix) {
+            this.criteria = criteria;
+            this.afterId = afterId;
+            this.limit = limit;
+            this.selfLinkPrefix = selfLinkPrefix;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SearchKey that = (SearchKey) o;
+            return limit == that.limit
+                && criteria.equals(that.criteria)
+                && Objects.equals(afterId, that.afterId)
+                && selfLinkPrefix.equals(that.selfLinkPrefix);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(criteria, afterId, limit, selfLinkPrefix);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.abn.food.recipe.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.abn.food.recipe.persistance.SqlStatementCounter;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Latency of every stage of a food recipe search, together with food recipes scanned and matched and SQL statements
+ * issued per search. All meters are tagged by filters used in search and publish percentile histograms.
+ *
+ * @author Akhtar
+ */
+@Component
+public class RecipeSearchMetrics {
+
+    static final String INDEX_STAGE = "index";
+    static final String QUERY_STAGE = "query";
+    static final String LOAD_STAGE = "load";
+    static final String FILTER_STAGE = "filter";
+    static final String MAP_STAGE = "map";
+
+    private static final String FILTERS_TAG = "filters";
+
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    /**
+     * Constructor initialization
+     *
+     * @param meterRegistry       registry for search metrics
+     * @param sqlStatementCounter counter of SQL statements issued per thread
+     */
+    public RecipeSearchMetrics(MeterRegistry meterRegistry, SqlStatementCounter sqlStatementCounter) {
+        this.meterRegistry = meterRegistry;
+        this.sqlStatementCounter = sqlStatementCounter;
+    }
+
+    /**
+     * Start measuring a search, stages are measured until the sample is stopped
+     *
+     * @param criteria search filters to tag metrics with
+     * @return sample of search
+     */
+    public Sample start(RecipeSearchCriteria criteria) {
+        return new Sample(criteria.getUsedFilters());
+    }
+
+    /**
+     * Measurements of a single search, not thread safe
+     */
+    public final class Sample {
+        private final String filters;
+        private final long statementsBefore = sqlStatementCounter.count();
+        private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+        private long stageStart;
+        private long rowsScanned;
+        private long rowsMatched;
+
+        private Sample(String filters) {
+            this.filters = filters;
+        }
+
+        /**
+         * Start measuring a stage
+         */
+        public void startStage() {
+            stageStart = meterRegistry.config().clock().monotonicTime();
+        }
+
+        /**
+         * Stop measuring a stage, time of stages measured repeatedly is summed up
+         *
+         * @param stage name of the stage
+         */
+        public void stopStage(String stage) {
+            stageNanos.merge(stage, meterRegistry.config().clock().monotonicTime() - stageStart, Long::sum);
+        }
+
+        /**
+         * Count food recipes read from index or database and food recipes matching all filters
+         *
+         * @param scanned number of food recipes read
+         * @param matched number of food recipes matched
+         */
+        public void count(long scanned, long matched) {
+            rowsScanned += scanned;
+            rowsMatched += matched;
+        }
+
+        /**
+         * Stop measuring search and record all measurements
+         */
+        public void stop() {
+            stageNanos.forEach((stage, nanos) -> Timer.builder("recipe.search.stage")
+                .description("Time spent in a stage of food recipe search")
+                .tags(FILTERS_TAG, filters, "stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+            summary("recipe.search.rows.scanned", "Food recipes read per search").record(rowsScanned);
+            summary("recipe.search.rows.matched", "Food recipes matching filters per search").record(rowsMatched);
+            summary("recipe.search.statements", "SQL statements issued per search")
+                .record(sqlStatementCounter.count() - statementsBefore);
+        }
+
+        private DistributionSummary summary(String name, String description) {
+            return DistributionSummary.builder(name)
+                .description(description)
+                .tags(FILTERS_TAG, filters)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        }
+    }
+}
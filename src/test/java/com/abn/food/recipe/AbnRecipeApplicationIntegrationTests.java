@@ -3,12 +3,21 @@ package com.abn.food.recipe;
 import static com.abn.food.recipe.enums.DishType.NON_VEGETARIAN;
 import static com.abn.food.recipe.enums.DishType.VEGAN;
 import static com.abn.food.recipe.enums.DishType.VEGETARIAN;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.io.IOException;
@@ -21,8 +30,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.google.common.base.Charsets;
 import com.google.common.io.Resources;
@@ -205,6 +216,123 @@ class AbnRecipeApplicationIntegrationTests {
             .andExpect(jsonPath("$.ingredients").isArray());
     }
 
+    @Test
+    @Order(8)
+    void getFoodRecipesPageByPage() throws Exception {
+        MvcResult firstPage = mvc.perform(get(URL)
+                .contentType(APPLICATION_JSON)
+                .param("excludeIngredients", "rice")
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[1].servings").value(5))
+            .andExpect(jsonPath("$.[2]").doesNotHaveJsonPath())
+            .andExpect(header().string("Link", containsString("excludeIngredients=rice")))
+            .andReturn();
+
+        mvc.perform(get(URL)
+                .contentType(APPLICATION_JSON)
+                .param("excludeIngredients", "rice")
+                .param("limit", "2")
+                .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].servings").value(12))
+            .andExpect(jsonPath("$.[1]").doesNotHaveJsonPath())
+            .andExpect(header().doesNotExist("Link"));
+    }
+
+    @Test
+    @Order(9)
+    void postFoodRecipesInBulk() throws Exception {
+        String saffronRice = "{\"recipeName\":\"Saffron rice\",\"dishType\":\"VEGAN\",\"servings\":3,"
+            + "\"ingredients\":[{\"name\":\"saffron\",\"quantity\":1,\"unit\":\"gm\"},{\"name\":\"rice\",\"quantity\":300,\"unit\":\"gm\"}],"
+            + "\"instructions\":\"Boil rice with saffron\"}";
+        String withoutInstructions = "{\"recipeName\":\"Saffron milk\",\"dishType\":\"VEGETARIAN\",\"servings\":1,"
+            + "\"ingredients\":[{\"name\":\"saffron\",\"quantity\":1,\"unit\":\"gm\"}]}";
+        mvc.perform(post(URL + "/bulk")
+                .contentType(APPLICATION_NDJSON)
+                .content(saffronRice + "\n" + withoutInstructions + "\n" + saffronRice + "\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.received").value(3))
+            .andExpect(jsonPath("$.saved").value(2))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.errors[0].index").value(1))
+            .andExpect(jsonPath("$.recipesPerSecond").isNumber());
+
+        mvc.perform(post(URL + "/bulk")
+                .contentType(APPLICATION_JSON)
+                .content("[" + saffronRice + "]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.saved").value(1));
+
+        mvc.perform(get(URL)
+                .contentType(APPLICATION_JSON)
+                .param("includeIngredients", "Saffron")
+                .param("instructions", "boil"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[2].recipeName").value("Saffron rice"))
+            .andExpect(jsonPath("$.[3]").doesNotHaveJsonPath());
+    }
+
+    @Test
+    @Order(10)
+    void streamFoodRecipes() throws Exception {
+        MvcResult result = mvc.perform(get(URL)
+                .accept(APPLICATION_NDJSON)
+                .param("includeIngredients", "saffron"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_NDJSON));
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{\"recipeName\":\"Saffron rice\""), line);
+        }
+
+        String foodRecipes = mvc.perform(get(URL)
+                .accept(APPLICATION_JSON)
+                .param("includeIngredients", "saffron"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertEquals(foodRecipes, "[" + String.join(",", lines) + "]");
+    }
+
+    @Test
+    @Order(11)
+    void getFoodRecipesConditionally() throws Exception {
+        String recipeETag = mvc.perform(get(URL + "/1"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String catalogETag = mvc.perform(get(URL))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get(URL + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, recipeETag))
+            .andExpect(status().isNotModified());
+        mvc.perform(get(URL)
+                .header(HttpHeaders.IF_NONE_MATCH, catalogETag))
+            .andExpect(status().isNotModified());
+
+        // Only quantity of an ingredient changes
+        mvc.perform(put(URL + "/1")
+                .contentType(APPLICATION_JSON)
+                .content(convertJsonToStringFromFile("egg_omelette_update.json").replace("\"quantity\": 10", "\"quantity\": 15")))
+            .andExpect(status().isOk());
+
+        mvc.perform(get(URL + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, recipeETag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(recipeETag)))
+            .andExpect(jsonPath("$.ingredients.[1].quantity").value(15));
+        mvc.perform(get(URL)
+                .header(HttpHeaders.IF_NONE_MATCH, catalogETag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(catalogETag)));
+    }
+
     private String convertJsonToStringFromFile(String fileName) {
         try {
             return Resources.toString(Resources.getResource(fileName), Charsets.UTF_8);
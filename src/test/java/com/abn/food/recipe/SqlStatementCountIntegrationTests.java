@@ -0,0 +1,296 @@
+package com.abn.food.recipe;
+
+import static java.util.Collections.emptySet;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer.OrderAnnotation;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
+import com.abn.food.recipe.mapper.FoodRecipeMapper;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.repository.FoodRecipeRepository;
+import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.search.RecipeSearchIndex;
+import com.abn.food.recipe.service.FoodRecipeServiceImpl;
+import com.abn.food.recipe.service.RecipeCatalog;
+import com.abn.food.recipe.service.RecipeCatalogVersion;
+import com.abn.food.recipe.service.RecipeResponseCache;
+import com.abn.food.recipe.service.RecipeSearchCache;
+import com.abn.food.recipe.service.RecipeSearchMetrics;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Guards number of SQL statements per request to stay constant regardless of number of food recipes returned
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:statementCount",
+    "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(OrderAnnotation.class)
+class SqlStatementCountIntegrationTests {
+
+    private static final String URL = "/abn/kitchen/foodRecipe";
+
+    @Autowired private MockMvc mvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private FoodRecipeMapper foodRecipeMapper;
+    @Autowired private FoodRecipeRepository foodRecipeRepository;
+    @Autowired private IngredientReferenceRepository referenceRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private RecipeSearchMetrics recipeSearchMetrics;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void postFoodRecipes() throws Exception {
+        postFoodRecipe("poached rhubarb.json");
+        for (int i = 0; i < 10; i++) {
+            postFoodRecipe("biryani.json");
+        }
+    }
+
+    @Test
+    @Order(1)
+    void getFoodRecipesWithConstantStatements() throws Exception {
+        long singleRecipeStatements = countStatements(get(URL).param("isVegetarian", "true"), 1);
+        long allRecipesStatements = countStatements(get(URL), 11);
+
+        assertEquals(0, singleRecipeStatements);
+        assertEquals(singleRecipeStatements, allRecipesStatements);
+    }
+
+    @Test
+    @Order(2)
+    void getFoodRecipesFromDatabaseWithConstantStatements() {
+        FoodRecipeServiceImpl databaseSearchService = new FoodRecipeServiceImpl(foodRecipeMapper, foodRecipeRepository,
+            new RecipeSearchIndex(false, 0, 0, false), new RecipeCatalogVersion(),
+            new RecipeSearchCache(new FoodRecipeLinkFactory(), new SimpleMeterRegistry(), 100000), recipeSearchMetrics,
+            new RecipeCatalog(null, new SimpleMeterRegistry(), false, "", 0.5), new RecipeResponseCache(new FoodRecipeLinkFactory(), new SimpleMeterRegistry(), 0));
+        Statistics statistics = statistics();
+
+        databaseSearchService.getAllFoodRecipes(new RecipeSearchCriteria(true, null, emptySet(), emptySet(), emptySet()), null, 100);
+        long singleRecipeStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        int recipes = databaseSearchService.getAllFoodRecipes(new RecipeSearchCriteria(null, null, emptySet(), emptySet(), emptySet()), null, 100)
+            .getRecipes().size();
+
+        assertEquals(11, recipes);
+        assertEquals(2, singleRecipeStatements);
+        assertEquals(singleRecipeStatements, statistics.getPrepareStatementCount());
+        assertEquals(2.0, meterRegistry.get("recipe.search.statements").tag("filters", "isVegetarian").summary().max());
+    }
+
+    @Test
+    @Order(3)
+    void getFoodRecipeWithoutStatements() throws Exception {
+        Statistics statistics = statistics();
+        mvc.perform(get(URL + "/2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.ingredients.[3].name").value("oil"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Order(4)
+    void getNotModifiedFoodRecipeWithoutLoadingIt() throws Exception {
+        String eTag = mvc.perform(get(URL + "/2"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Statistics statistics = statistics();
+        mvc.perform(get(URL + "/2")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @Order(5)
+    void postFoodRecipesInBulkWithBatchedInserts() throws Exception {
+        String recipe = "{\"recipeName\":\"Rice\",\"dishType\":\"VEGAN\",\"servings\":2,\"instructions\":\"Boil\","
+            + "\"ingredients\":[{\"name\":\"rice\",\"quantity\":1},{\"name\":\"salt\",\"quantity\":1},{\"name\":\"water\",\"quantity\":1}]}";
+        StringBuilder recipes = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            recipes.append(recipe).append('\n');
+        }
+        Statistics statistics = statistics();
+        mvc.perform(post(URL + "/bulk")
+                .contentType(APPLICATION_NDJSON)
+                .content(recipes.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.saved").value(40));
+
+        // 40 recipes with 120 ingredients: few sequence calls, reference lookups and one batch per table
+        assertTrue(statistics.getPrepareStatementCount() < 15, statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    @Order(6)
+    void getSameFoodRecipesAgainFromCache() throws Exception {
+        countStatements(get(URL).param("numberOfServings", "3"), 10);
+
+        assertEquals(0, countStatements(get(URL).param("numberOfServings", "3"), 10));
+        mvc.perform(get("/actuator/metrics/cache.gets").param("tag", "cache:recipeSearchResults").param("tag", "result:hit"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+    }
+
+    @Test
+    @Order(7)
+    void getFoodRecipesWithStageMetrics() throws Exception {
+        countStatements(get(URL).param("numberOfServings", "3").param("includeIngredients", "rice"), 10);
+
+        String filters = "filters:numberOfServings-includeIngredients";
+        mvc.perform(get("/actuator/metrics/recipe.search.stage").param("tag", filters).param("tag", "stage:load"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[?(@.statistic=='COUNT')].value").value(1.0));
+        mvc.perform(get("/actuator/metrics/recipe.search.rows.matched").param("tag", filters))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[?(@.statistic=='TOTAL')].value").value(10.0));
+        mvc.perform(get("/actuator/metrics/recipe.search.statements").param("tag", filters))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[?(@.statistic=='TOTAL')].value").value(0.0));
+        mvc.perform(get("/actuator/metrics/recipe.response.size").param("tag", filters).param("tag", "uri:" + URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[?(@.statistic=='TOTAL')].value").value(hasItem(greaterThan(0.0))));
+        mvc.perform(get("/actuator/metrics/recipe.response.serialization").param("tag", filters))
+            .andExpect(status().isOk());
+        mvc.perform(get("/actuator/metrics/recipe.mapping").param("tag", "stage:links"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(8)
+    void findFoodRecipeAndReferencesFromSecondLevelCache() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> foodRecipeRepository.findById(2L).orElseThrow().getIngredients()
+            .forEach(IngredientEntity::getReferenceEntity));
+        referenceRepository.findByNameEqualsIgnoreCase("OIL");
+
+        Statistics statistics = statistics();
+        String firstIngredient = transactionTemplate.execute(status -> foodRecipeRepository.findById(2L).orElseThrow()
+            .getIngredients().get(0).getReferenceEntity().getName());
+        referenceRepository.findByNameEqualsIgnoreCase("OIL");
+
+        assertEquals("onion", firstIngredient);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(FoodRecipeEntity.class.getName() + ".ingredients").getHitCount());
+        mvc.perform(get("/actuator/metrics/hibernate.second.level.cache.requests")
+                .param("tag", "region:" + FoodRecipeEntity.class.getName()).param("tag", "result:hit"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.measurements[0].value").value(greaterThan(0.0)));
+    }
+
+    @Test
+    @Order(9)
+    void putFoodRecipeWithOnlyChangedIngredients() throws Exception {
+        String biryani = convertJsonToStringFromFile("biryani.json");
+        String oilInTablespoons = biryani.replace("\"unit\": \"ml\"", "\"unit\": \"tbsp\"");
+        String saltAdded = oilInTablespoons.replace("\"ingredients\": [", "\"ingredients\": [{\"name\": \"SALT\", \"quantity\": 1},");
+
+        Statistics unchanged = putFoodRecipe(4L, biryani);
+        assertEntityChanges(unchanged, 0, 0, 0);
+
+        Statistics unitChanged = putFoodRecipe(4L, oilInTablespoons);
+        // ingredient and version of food recipe, ingredients are read from second-level cache
+        assertEntityChanges(unitChanged, 2, 0, 0);
+        assertEquals(2, unitChanged.getPrepareStatementCount());
+
+        Statistics ingredientAdded = putFoodRecipe(4L, saltAdded);
+        assertEntityChanges(ingredientAdded, 1, 1, 0);
+        assertTrue(ingredientAdded.getPrepareStatementCount() <= 4, ingredientAdded.getPrepareStatementCount() + " statements");
+
+        String oilRemoved = saltAdded.replace(",\n    {\n      \"name\": \"oil\",\n      \"quantity\": 100,\n      \"unit\": \"tbsp\"\n    }", "");
+        Statistics ingredientRemoved = putFoodRecipe(4L, oilRemoved);
+        assertEntityChanges(ingredientRemoved, 1, 0, 1);
+
+        mvc.perform(get(URL + "/4"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.ingredients.length()").value(4))
+            .andExpect(jsonPath("$.ingredients.[0].name").value("salt"));
+    }
+
+    private static void assertEntityChanges(Statistics statistics, long updates, long inserts, long deletes) {
+        assertEquals(updates, statistics.getEntityUpdateCount(), "updates");
+        assertEquals(inserts, statistics.getEntityInsertCount(), "inserts");
+        assertEquals(deletes, statistics.getEntityDeleteCount(), "deletes");
+    }
+
+    private Statistics putFoodRecipe(Long id, String content) throws Exception {
+        Statistics statistics = statistics();
+        mvc.perform(put(URL + "/" + id)
+                .contentType(APPLICATION_JSON)
+                .content(content))
+            .andExpect(status().isOk());
+        return statistics;
+    }
+
+    private long countStatements(RequestBuilder request, int expectedRecipes) throws Exception {
+        Statistics statistics = statistics();
+        mvc.perform(request)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(expectedRecipes));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private void postFoodRecipe(String fileName) throws Exception {
+        mvc.perform(post(URL)
+                .contentType(APPLICATION_JSON)
+                .content(convertJsonToStringFromFile(fileName)))
+            .andExpect(status().isCreated());
+    }
+
+    private String convertJsonToStringFromFile(String fileName) {
+        try {
+            return Resources.toString(Resources.getResource(fileName), Charsets.UTF_8);
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
@@ -1,41 +1,75 @@
 package com.abn.food.recipe.controller;
 
 import static com.abn.food.recipe.enums.DishType.NON_VEGETARIAN;
+import static com.abn.food.recipe.enums.DishType.VEGAN;
 import static java.util.Collections.emptySet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.abn.food.recipe.model.BulkIngestReport;
 import com.abn.food.recipe.model.FoodRecipe;
 import com.abn.food.recipe.model.Ingredient;
+import com.abn.food.recipe.model.RecipeFacets;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.service.FoodRecipeBulkServiceImpl;
 import com.abn.food.recipe.service.FoodRecipeServiceImpl;
+import com.abn.food.recipe.service.RecipePage;
+import com.abn.food.recipe.service.RecipeResponseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(FoodRecipeController.class)
+@Import(SimpleMeterRegistry.class)
 class FoodRecipeControllerTest {
 
     private static final String URL = "/abn/kitchen/foodRecipe";
 
     @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
     @MockBean private FoodRecipeServiceImpl foodRecipeService;
+    @MockBean private FoodRecipeBulkServiceImpl foodRecipeBulkService;
+    @MockBean private RecipeResponseCache recipeResponseCache;
 
     @Test
     void postFoodRecipe() throws Exception {
@@ -53,6 +87,41 @@ class FoodRecipeControllerTest {
 
     }
 
+    @Test
+    void postFoodRecipesAsNdjson() throws Exception {
+        List<String> recipeNames = new ArrayList<>();
+        given(foodRecipeBulkService.saveFoodRecipes(any())).willAnswer(invocation -> {
+            Iterator<FoodRecipe> foodRecipes = invocation.getArgument(0);
+            foodRecipes.forEachRemaining(foodRecipe -> recipeNames.add(foodRecipe.getRecipeName()));
+            return new BulkIngestReport().addSaved(recipeNames.size()).setReceived(recipeNames.size());
+        });
+        mockMvc.perform(post(URL + "/bulk")
+                .contentType(APPLICATION_NDJSON)
+                .content("{\"recipeName\":\"Omelette\",\"servings\":2}\n{\"recipeName\":\"Pancakes\",\"servings\":4}\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.received").value(2))
+            .andExpect(jsonPath("$.saved").value(2))
+            .andExpect(jsonPath("$.failed").value(0));
+        assertEquals(List.of("Omelette", "Pancakes"), recipeNames);
+    }
+
+    @Test
+    void postFoodRecipesAsArray() throws Exception {
+        List<String> recipeNames = new ArrayList<>();
+        given(foodRecipeBulkService.saveFoodRecipes(any())).willAnswer(invocation -> {
+            Iterator<FoodRecipe> foodRecipes = invocation.getArgument(0);
+            foodRecipes.forEachRemaining(foodRecipe -> recipeNames.add(foodRecipe.getRecipeName()));
+            return new BulkIngestReport().addError(1, "invalid").setReceived(recipeNames.size());
+        });
+        mockMvc.perform(post(URL + "/bulk")
+                .contentType(APPLICATION_JSON)
+                .content("[{\"recipeName\":\"Omelette\"},{\"recipeName\":\"Pancakes\"}]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.errors[0].index").value(1));
+        assertEquals(List.of("Omelette", "Pancakes"), recipeNames);
+    }
+
     @Test
     void putFoodRecipe() throws Exception {
         given(foodRecipeService.updateFoodRecipe(any(), eq(1L))).willReturn(foodRecipe());
@@ -70,7 +139,8 @@ class FoodRecipeControllerTest {
 
     @Test
     void getFoodRecipes() throws Exception {
-        given(foodRecipeService.getAllFoodRecipes(null, null, emptySet(), emptySet(), emptySet())).willReturn(List.of(foodRecipe()));
+        given(foodRecipeService.getAllFoodRecipes(criteria(null, null, emptySet()), null, 100))
+            .willReturn(new RecipePage(List.of(foodRecipe()), null));
         mockMvc.perform(get(URL)
                 .contentType(APPLICATION_JSON))
             .andExpect(status().isOk())
@@ -80,9 +150,78 @@ class FoodRecipeControllerTest {
             .andExpect(jsonPath("$.[0].ingredients").isArray());
     }
 
+    @Test
+    void getFoodRecipesNotModified() throws Exception {
+        given(foodRecipeService.getCatalogVersion()).willReturn("k1-3");
+        mockMvc.perform(get(URL)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"k1-3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"k1-3\""))
+            .andExpect(content().string(""));
+        verify(foodRecipeService, never()).getAllFoodRecipes(any(), any(), anyInt());
+
+        given(foodRecipeService.getAllFoodRecipes(criteria(null, null, emptySet()), null, 100))
+            .willReturn(new RecipePage(List.of(foodRecipe()), null));
+        mockMvc.perform(get(URL)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"k1-2\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"k1-3\""))
+            .andExpect(jsonPath("$.[0].servings").value(4));
+    }
+
+    @Test
+    void getRankedFoodRecipes() throws Exception {
+        given(foodRecipeService.canRankFoodRecipes()).willReturn(true);
+        given(foodRecipeService.rankFoodRecipes(criteria(true, null, emptySet()), "slow roast", 5))
+            .willReturn(new RecipePage(List.of(foodRecipe()), null));
+        mockMvc.perform(get(URL)
+                .param("isVegetarian", "true")
+                .param("query", "slow roast")
+                .param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[0].servings").value(4));
+
+        mockMvc.perform(get(URL)
+                .param("query", "slow roast")
+                .param("cursor", "Mw"))
+            .andExpect(status().isBadRequest());
+        given(foodRecipeService.canRankFoodRecipes()).willReturn(false);
+        mockMvc.perform(get(URL)
+                .param("query", "slow roast"))
+            .andExpect(status().isBadRequest());
+        verify(foodRecipeService, never()).getAllFoodRecipes(any(), any(), anyInt());
+    }
+
+    @Test
+    void getFoodRecipeFacets() throws Exception {
+        RecipeFacets facets = new RecipeFacets().setMatched(3);
+        facets.getDishTypes().put(VEGAN, 3L);
+        facets.getServings().put(4, 3L);
+        facets.getIngredients().put("eggs", 2L);
+        given(foodRecipeService.getCatalogVersion()).willReturn("k1-3");
+        given(foodRecipeService.getFoodRecipeFacets(new RecipeSearchCriteria(true, null, Set.of("EGGS"), emptySet(), emptySet()), 5)).willReturn(facets);
+        mockMvc.perform(get(URL + "/facets")
+                .param("isVegetarian", "true")
+                .param("includeIngredients", "eggs")
+                .param("topIngredients", "5"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"k1-3\""))
+            .andExpect(jsonPath("$.matched").value(3))
+            .andExpect(jsonPath("$.dishTypes.VEGAN").value(3))
+            .andExpect(jsonPath("$.servings['4']").value(3))
+            .andExpect(jsonPath("$.ingredients.eggs").value(2));
+
+        mockMvc.perform(get(URL + "/facets")
+                .param("topIngredients", "101"))
+            .andExpect(status().isBadRequest());
+        verify(foodRecipeService, never()).getAllFoodRecipes(any(), any(), anyInt());
+    }
+
     @Test
     void getFoodRecipesWithQueries() throws Exception {
-        given(foodRecipeService.getAllFoodRecipes(true, 4, emptySet(), emptySet(), emptySet())).willReturn(List.of(foodRecipe()));
+        given(foodRecipeService.getAllFoodRecipes(criteria(true, 4, emptySet()), null, 100))
+            .willReturn(new RecipePage(List.of(foodRecipe()), null));
         mockMvc.perform(get(URL)
                 .contentType(APPLICATION_JSON)
                 .param("isVegetarian", "true")
@@ -96,7 +235,8 @@ class FoodRecipeControllerTest {
 
     @Test
     void getFoodRecipesWithIngredientsSearch() throws Exception {
-        given(foodRecipeService.getAllFoodRecipes(eq(null), eq(4), eq(emptySet()), eq(emptySet()), anySet())).willReturn(List.of(foodRecipe()));
+        given(foodRecipeService.getAllFoodRecipes(criteria(null, 4, Set.of("OVEN")), null, 100))
+            .willReturn(new RecipePage(List.of(foodRecipe()), null));
         mockMvc.perform(get(URL)
                 .contentType(APPLICATION_JSON)
                 .param("instructions", "oven")
@@ -108,18 +248,147 @@ class FoodRecipeControllerTest {
             .andExpect(jsonPath("$.[0].ingredients").isArray());
     }
 
+    @Test
+    void getFoodRecipesPageWithNextLink() throws Exception {
+        given(foodRecipeService.getAllFoodRecipes(criteria(true, null, emptySet()), null, 1))
+            .willReturn(new RecipePage(List.of(foodRecipe()), 7L));
+        String nextCursor = RecipeCursor.encode(7L);
+        mockMvc.perform(get(URL)
+                .contentType(APPLICATION_JSON)
+                .param("isVegetarian", "true")
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(FoodRecipeController.NEXT_CURSOR_HEADER, nextCursor))
+            .andExpect(header().string("Link", "<http://localhost/abn/kitchen/foodRecipe?isVegetarian=true&cursor="
+                + nextCursor + "&limit=1>;rel=\"next\""))
+            .andExpect(jsonPath("$.[0].servings").value(4));
+
+        given(foodRecipeService.getAllFoodRecipes(criteria(true, null, emptySet()), 7L, 1))
+            .willReturn(new RecipePage(List.of(foodRecipe()), null));
+        mockMvc.perform(get(URL)
+                .contentType(APPLICATION_JSON)
+                .param("isVegetarian", "true")
+                .param("cursor", nextCursor)
+                .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(header().doesNotExist(FoodRecipeController.NEXT_CURSOR_HEADER))
+            .andExpect(jsonPath("$.[0].servings").value(4));
+    }
+
+    @Test
+    void getFoodRecipesWithInvalidPageRequest() throws Exception {
+        mockMvc.perform(get(URL)
+                .contentType(APPLICATION_JSON)
+                .param("cursor", "not-a-cursor"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("1000"));
+
+        mockMvc.perform(get(URL)
+                .contentType(APPLICATION_JSON)
+                .param("limit", "1001"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("limit should be between 1 and 1000"));
+    }
+
+    @Test
+    void streamFoodRecipes() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<FoodRecipe>> consumer = invocation.getArgument(2);
+            consumer.accept(List.of(foodRecipe(), foodRecipe()));
+            consumer.accept(List.of(foodRecipe()));
+            return null;
+        }).when(foodRecipeService).streamAllFoodRecipes(eq(criteria(true, null, emptySet())), eq(5L), any());
+        MvcResult result = mockMvc.perform(get(URL)
+                .accept(APPLICATION_NDJSON)
+                .param("isVegetarian", "true")
+                .param("cursor", RecipeCursor.encode(5L)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_NDJSON));
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(objectMapper.readTree(lines[2]).get("servings").asInt(), 4);
+    }
+
+    @Test
+    void getFoodRecipesAsJsonByDefault() throws Exception {
+        given(foodRecipeService.getAllFoodRecipes(criteria(null, null, emptySet()), null, 100))
+            .willReturn(new RecipePage(List.of(foodRecipe()), null));
+        mockMvc.perform(get(URL)
+                .accept(MediaType.ALL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(APPLICATION_JSON))
+            .andExpect(jsonPath("$.[0].servings").value(4));
+    }
+
     @Test
     void getFoodRecipe() throws Exception {
-        given(foodRecipeService.getIndividualFoodRecipe(1L)).willReturn(foodRecipe());
+        FoodRecipe foodRecipe = foodRecipe();
+        foodRecipe.setVersion(2L);
+        given(foodRecipeService.getIndividualFoodRecipe(1L)).willReturn(foodRecipe);
         mockMvc.perform(get(URL + "/1")
                 .contentType(APPLICATION_JSON))
             .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+            .andExpect(jsonPath("$.version").doesNotExist())
             .andExpect(jsonPath("$.servings").value(4))
             .andExpect(jsonPath("$.dishType").value(NON_VEGETARIAN.name()))
             .andExpect(jsonPath("$.instructions").value("Cook Yourself"))
             .andExpect(jsonPath("$.ingredients").isArray());
     }
 
+    @Test
+    void getFoodRecipeSerializedIntoResponseCache() throws Exception {
+        FoodRecipe foodRecipe = foodRecipe();
+        foodRecipe.setVersion(3L);
+        given(foodRecipeService.getIndividualFoodRecipe(1L)).willReturn(foodRecipe);
+        String renderedBody = mockMvc.perform(get(URL + "/1"))
+            .andReturn().getResponse().getContentAsString();
+
+        given(recipeResponseCache.isEnabled()).willReturn(true);
+        given(foodRecipeService.getFoodRecipeVersion(1L)).willReturn(2L);
+        mockMvc.perform(get(URL + "/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, APPLICATION_JSON_VALUE))
+            .andExpect(content().string(renderedBody));
+        ArgumentCaptor<byte[]> cachedBody = ArgumentCaptor.forClass(byte[].class);
+        verify(recipeResponseCache).put(eq(1L), eq(3L), cachedBody.capture());
+        assertEquals(renderedBody, new String(cachedBody.getValue(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getFoodRecipeFromResponseCache() throws Exception {
+        byte[] cachedBody = "{\"servings\":4}".getBytes(StandardCharsets.UTF_8);
+        given(recipeResponseCache.isEnabled()).willReturn(true);
+        given(foodRecipeService.getFoodRecipeVersion(1L)).willReturn(2L);
+        given(recipeResponseCache.get(1L, 2L)).willReturn(cachedBody);
+        mockMvc.perform(get(URL + "/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+            .andExpect(content().bytes(cachedBody));
+
+        mockMvc.perform(get(URL + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+            .andExpect(status().isNotModified());
+        verify(foodRecipeService, never()).getIndividualFoodRecipe(any());
+    }
+
+    @Test
+    void getFoodRecipeNotModified() throws Exception {
+        given(foodRecipeService.getFoodRecipeVersion(1L)).willReturn(2L);
+        mockMvc.perform(get(URL + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+            .andExpect(content().string(""));
+        verify(foodRecipeService, never()).getIndividualFoodRecipe(any());
+    }
+
     @Test
     void deleteFoodRecipe() throws Exception {
         mockMvc.perform(delete(URL + "/1")
@@ -127,6 +396,10 @@ class FoodRecipeControllerTest {
             .andExpect(status().isNoContent());
     }
 
+    private RecipeSearchCriteria criteria(Boolean isVegetarian, Integer numberOfServings, Set<String> instructions) {
+        return new RecipeSearchCriteria(isVegetarian, numberOfServings, emptySet(), emptySet(), instructions);
+    }
+
     private FoodRecipe foodRecipe() {
         FoodRecipe foodRecipe = new FoodRecipe();
         foodRecipe.setServings(4);
@@ -1,6 +1,8 @@
 package com.abn.food.recipe.controller;
 
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -13,20 +15,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
 import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+import com.abn.food.recipe.search.IngredientNameTrie;
+import com.abn.food.recipe.service.RecipeCatalog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(IngredientsReferenceController.class)
+@Import(SimpleMeterRegistry.class)
 class IngredientsReferenceControllerTest {
 
     private static final String URL = "/abn/kitchen/reference/ingredients";
 
     @Autowired private MockMvc mockMvc;
     @MockBean private IngredientReferenceRepository referenceRepository;
+    @MockBean private RecipeCatalog recipeCatalog;
+    @MockBean private IngredientNameTrie ingredientNameTrie;
 
     @Test
     void getAllReferenceIngredients() throws Exception {
@@ -38,4 +48,38 @@ class IngredientsReferenceControllerTest {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.[0]").value("egg"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllReferenceIngredientsFromCatalog() throws Exception {
+        RecipeCatalog enabledCatalog = new RecipeCatalog(referenceRepository, new SimpleMeterRegistry(), true, "", 0.5);
+        IngredientReferenceEntity reference = new IngredientReferenceEntity();
+        reference.setId(1L);
+        reference.setName("milk");
+        given(referenceRepository.findAll()).willReturn(List.of(reference));
+        enabledCatalog.loadReferences();
+        given(recipeCatalog.isEnabled()).willReturn(true);
+        given(recipeCatalog.current()).willReturn(enabledCatalog.current());
+
+        mockMvc.perform(get(URL)
+                .contentType(APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0]").value("milk"));
+        verify(referenceRepository).findAll();
+    }
+
+    @Test
+    void autocompleteReferenceIngredients() throws Exception {
+        given(ingredientNameTrie.complete("mi", 10)).willReturn(List.of("milk", "mint"));
+        mockMvc.perform(get(URL + "/autocomplete")
+                .param("prefix", "mi"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0]").value("milk"))
+            .andExpect(jsonPath("$.[1]").value("mint"));
+
+        mockMvc.perform(get(URL + "/autocomplete")
+                .param("prefix", "mi")
+                .param("limit", "101"))
+            .andExpect(status().isBadRequest());
+        verify(referenceRepository, never()).findAll();
+    }
+}
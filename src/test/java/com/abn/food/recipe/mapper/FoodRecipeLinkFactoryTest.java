@@ -0,0 +1,71 @@
+package com.abn.food.recipe.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+
+import com.abn.food.recipe.controller.FoodRecipeController;
+
+class FoodRecipeLinkFactoryTest {
+
+    private final FoodRecipeLinkFactory foodRecipeLinkFactory = new FoodRecipeLinkFactory();
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void selfLinkWithoutRequest() {
+        assertSameAsLinkTo(7L);
+    }
+
+    @Test
+    void selfLinkPerBaseUrl() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abn/kitchen/foodRecipe");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        assertSameAsLinkTo(1L);
+        assertSameAsLinkTo(12L);
+
+        MockHttpServletRequest otherHostRequest = new MockHttpServletRequest("GET", "/abn/kitchen/foodRecipe");
+        otherHostRequest.setServerName("recipes.example.com");
+        otherHostRequest.setServerPort(8443);
+        otherHostRequest.setScheme("https");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(otherHostRequest));
+        assertSameAsLinkTo(1L);
+        assertEquals("https://recipes.example.com:8443/abn/kitchen/foodRecipe/3", foodRecipeLinkFactory.selfLink(3L).getHref());
+    }
+
+    @Test
+    void selfLinkBehindForwardedHeaders() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abn/kitchen/foodRecipe");
+        request.addHeader("X-Forwarded-Proto", "https");
+        request.addHeader("X-Forwarded-Host", "kitchen.example.com");
+        request.addHeader("X-Forwarded-Port", "443");
+        request.addHeader("X-Forwarded-Prefix", "/recipes");
+
+        new ForwardedHeaderFilter().doFilter(request, new MockHttpServletResponse(), (forwardedRequest, response) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) forwardedRequest));
+            assertSameAsLinkTo(5L);
+            assertEquals("https://kitchen.example.com/recipes/abn/kitchen/foodRecipe/5",
+                foodRecipeLinkFactory.selfLink(5L).getHref());
+        });
+    }
+
+    private void assertSameAsLinkTo(Long id) {
+        // affordances of linkTo are not rendered in HAL, so links are compared as rendered
+        Link expectedLink = linkTo(methodOn(FoodRecipeController.class).getFoodRecipe(id, null)).withSelfRel();
+        assertEquals(expectedLink.toString(), foodRecipeLinkFactory.selfLink(id).toString());
+    }
+}
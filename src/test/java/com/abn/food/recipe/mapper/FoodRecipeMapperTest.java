@@ -4,32 +4,50 @@ import static com.abn.food.recipe.enums.DishType.VEGAN;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.abn.food.recipe.model.FoodRecipe;
 import com.abn.food.recipe.model.Ingredient;
 import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
 import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
 import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+import com.abn.food.recipe.search.IngredientNameTrie;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class FoodRecipeMapperTest {
 
     @Mock private IngredientReferenceRepository referenceRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private IngredientNameTrie ingredientNameTrie;
+
+    private FoodRecipeMapper foodRecipeMapper;
 
-    @InjectMocks private FoodRecipeMapper foodRecipeMapper;
+    @BeforeEach
+    void createFoodRecipeMapper() {
+        foodRecipeMapper = new FoodRecipeMapper(
+            new IngredientReferenceCache(referenceRepository, transactionManager, ingredientNameTrie, new SimpleMeterRegistry(), 100),
+            new FoodRecipeLinkFactory(), new SimpleMeterRegistry());
+    }
 
     @Test
     void formFoodRecipeEntity() {
@@ -39,7 +57,7 @@ class FoodRecipeMapperTest {
         FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
 
         foodRecipeMapper.formFoodRecipeEntity(getFoodRecipe(), recipeEntity, 1L);
-        verify(referenceRepository, times(0)).save(any());
+        verify(referenceRepository, times(0)).saveAndFlush(any());
 
         assertEquals("Egg fry", recipeEntity.getRecipeName());
         assertEquals(VEGAN, recipeEntity.getDishType());
@@ -64,12 +82,12 @@ class FoodRecipeMapperTest {
     @Test
     void formFoodRecipeEntityWithIngredientReferenceNotFound() {
         when(referenceRepository.findByNameEqualsIgnoreCase("egg")).thenReturn(Optional.empty());
-        when(referenceRepository.save(any())).thenReturn(new IngredientReferenceEntity());
+        when(referenceRepository.saveAndFlush(any())).thenReturn(new IngredientReferenceEntity());
 
         FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
 
         foodRecipeMapper.formFoodRecipeEntity(getFoodRecipe(), recipeEntity, 1L);
-        verify(referenceRepository, times(1)).save(any());
+        verify(referenceRepository, times(1)).saveAndFlush(any());
 
         assertEquals(VEGAN, recipeEntity.getDishType());
         assertEquals(Integer.valueOf(4), recipeEntity.getServings());
@@ -79,6 +97,59 @@ class FoodRecipeMapperTest {
         assertNull(recipeEntity.getIngredients().get(0).getUnit());
     }
 
+    @Test
+    void formFoodRecipeEntityUpdatingOnlyChangedIngredients() {
+        IngredientReferenceEntity milkReference = getReferenceEntity(3L, "milk");
+        when(referenceRepository.findByNameEqualsIgnoreCase("milk")).thenReturn(Optional.of(milkReference));
+        IngredientEntity egg = getIngredientEntity(getReferenceEntity(1L, "egg"), 1);
+        IngredientEntity salt = getIngredientEntity(getReferenceEntity(2L, "salt"), 1);
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        List<IngredientEntity> storedIngredients = new ArrayList<>(List.of(egg, salt));
+        recipeEntity.setIngredients(storedIngredients);
+        FoodRecipe foodRecipe = getFoodRecipe();
+        foodRecipe.getIngredients().get(0).setName("EGG");
+        foodRecipe.getIngredients().add(new Ingredient());
+        foodRecipe.getIngredients().get(1).setName("milk");
+        foodRecipe.getIngredients().get(1).setQuantity(1);
+
+        foodRecipeMapper.formFoodRecipeEntity(foodRecipe, recipeEntity, 1L);
+
+        assertSame(storedIngredients, recipeEntity.getIngredients());
+        assertEquals(2, storedIngredients.size());
+        assertSame(egg, storedIngredients.get(0));
+        assertEquals(Integer.valueOf(2), egg.getQuantity());
+        assertEquals(Long.valueOf(3L), storedIngredients.get(1).getReferenceEntity().getId());
+        assertSame(recipeEntity, storedIngredients.get(1).getFoodRecipe());
+        verify(referenceRepository, never()).findByNameEqualsIgnoreCase("EGG");
+    }
+
+    @Test
+    void formFoodRecipeEntityWithUnchangedIngredients() {
+        IngredientEntity egg = getIngredientEntity(getReferenceEntity(1L, "egg"), 2);
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        // immutable, as an untouched list keeps version of food recipe
+        recipeEntity.setIngredients(List.of(egg));
+
+        foodRecipeMapper.formFoodRecipeEntity(getFoodRecipe(), recipeEntity, 1L);
+
+        assertEquals(List.of(egg), recipeEntity.getIngredients());
+        verifyNoInteractions(referenceRepository);
+    }
+
+    private IngredientReferenceEntity getReferenceEntity(Long id, String name) {
+        IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
+        referenceEntity.setId(id);
+        referenceEntity.setName(name);
+        return referenceEntity;
+    }
+
+    private IngredientEntity getIngredientEntity(IngredientReferenceEntity referenceEntity, Integer quantity) {
+        IngredientEntity ingredientEntity = new IngredientEntity();
+        ingredientEntity.setReferenceEntity(referenceEntity);
+        ingredientEntity.setQuantity(quantity);
+        return ingredientEntity;
+    }
+
     private FoodRecipe getFoodRecipe() {
         FoodRecipe foodRecipe = new FoodRecipe();
         foodRecipe.setRecipeName("Egg fry");
@@ -0,0 +1,131 @@
+package com.abn.food.recipe.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+import com.abn.food.recipe.search.IngredientNameTrie;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class IngredientReferenceCacheTest {
+
+    @Mock private IngredientReferenceRepository referenceRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private IngredientNameTrie ingredientNameTrie;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IngredientReferenceCache referenceCache;
+
+    @BeforeEach
+    void createReferenceCache() {
+        referenceCache = new IngredientReferenceCache(referenceRepository, transactionManager, ingredientNameTrie, meterRegistry, 100);
+    }
+
+    @Test
+    void getOrCreateFromWarmedUpCache() {
+        when(referenceRepository.findAll(PageRequest.of(0, 100)))
+            .thenReturn(new PageImpl<>(List.of(getReferenceEntity(1L, "Eggs"), getReferenceEntity(2L, "milk"))));
+        referenceCache.warmUp();
+
+        IngredientReferenceEntity referenceEntity = referenceCache.getOrCreate("EGGS");
+        assertEquals(Long.valueOf(1), referenceEntity.getId());
+        assertEquals("Eggs", referenceEntity.getName());
+        assertEquals(Long.valueOf(2), referenceCache.getOrCreate("Milk").getId());
+        verify(referenceRepository, never()).findByNameEqualsIgnoreCase(any());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getOrCreateLooksUpOnlyOnce() {
+        when(referenceRepository.findByNameEqualsIgnoreCase("eggs")).thenReturn(Optional.of(getReferenceEntity(1L, "Eggs")));
+
+        assertEquals(Long.valueOf(1), referenceCache.getOrCreate("eggs").getId());
+        assertEquals(Long.valueOf(1), referenceCache.getOrCreate("EGGS").getId());
+        verify(referenceRepository, times(1)).findByNameEqualsIgnoreCase(any());
+        verify(referenceRepository, never()).saveAndFlush(any());
+        verify(ingredientNameTrie, times(1)).add("Eggs");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void getOrCreateConcurrentlyCreatesSingleReference() throws Exception {
+        when(referenceRepository.findByNameEqualsIgnoreCase(any())).thenReturn(Optional.empty());
+        when(referenceRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            IngredientReferenceEntity referenceEntity = invocation.getArgument(0);
+            referenceEntity.setId(7L);
+            return referenceEntity;
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<IngredientReferenceEntity>> requests = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                requests.add(() -> referenceCache.getOrCreate("saffron"));
+            }
+            for (Future<IngredientReferenceEntity> reference : executorService.invokeAll(requests)) {
+                assertEquals(Long.valueOf(7), reference.get().getId());
+            }
+        }
+        finally {
+            executorService.shutdown();
+        }
+        verify(referenceRepository, times(1)).saveAndFlush(any());
+        verify(ingredientNameTrie, times(1)).add("saffron");
+    }
+
+    @Test
+    void getOrCreateReferenceCreatedByAnotherInstance() {
+        when(referenceRepository.findByNameEqualsIgnoreCase("Saffron")).thenReturn(Optional.empty());
+        when(referenceRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("UK_INGREDIENT_REFERENCE_NAME"));
+        when(referenceRepository.findUncachedByNameEqualsIgnoreCase("Saffron")).thenReturn(Optional.of(getReferenceEntity(9L, "saffron")));
+
+        assertEquals(Long.valueOf(9), referenceCache.getOrCreate("Saffron").getId());
+        verify(ingredientNameTrie, times(1)).add("saffron");
+    }
+
+    @Test
+    void warmUpBeforeWebServerStarts() {
+        when(referenceRepository.findAll(PageRequest.of(0, 100))).thenReturn(new PageImpl<>(List.of(getReferenceEntity(1L, "Eggs"))));
+        referenceCache.start();
+
+        assertTrue(referenceCache.isRunning());
+        assertTrue(referenceCache.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1);
+        assertEquals(Long.valueOf(1), referenceCache.getOrCreate("eggs").getId());
+    }
+
+    private IngredientReferenceEntity getReferenceEntity(Long id, String name) {
+        IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
+        referenceEntity.setId(id);
+        referenceEntity.setName(name);
+        return referenceEntity;
+    }
+}
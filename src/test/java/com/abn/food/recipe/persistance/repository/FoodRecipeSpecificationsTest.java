@@ -0,0 +1,105 @@
+package com.abn.food.recipe.persistance.repository;
+
+import static com.abn.food.recipe.enums.DishType.NON_VEGETARIAN;
+import static com.abn.food.recipe.enums.DishType.VEGAN;
+import static com.abn.food.recipe.enums.DishType.VEGETARIAN;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+
+@DataJpaTest
+class FoodRecipeSpecificationsTest {
+
+    @Autowired private FoodRecipeRepository foodRecipeRepository;
+    @Autowired private IngredientReferenceRepository referenceRepository;
+
+    @BeforeEach
+    void saveFoodRecipes() {
+        saveFoodRecipe("Omelette", NON_VEGETARIAN, 2, "Beat eggs and fry in oil", "eggs", "oil");
+        saveFoodRecipe("Pancakes", VEGETARIAN, 4, "Mix 100% of the milk and bake in oven", "milk", "sugar", "eggs");
+        saveFoodRecipe("Rhubarb", VEGAN, 4, "Poach rhubarb_stalks in sugar syrup", "rhubarb", "sugar");
+    }
+
+    @Test
+    void findAllWithoutFilters() {
+        assertEquals(List.of("Omelette", "Pancakes", "Rhubarb"), search(null, null, emptySet(), emptySet(), emptySet()));
+    }
+
+    @Test
+    void findAllVegetarianWithServings() {
+        assertEquals(List.of("Pancakes", "Rhubarb"), search(true, null, emptySet(), emptySet(), emptySet()));
+        assertEquals(List.of("Omelette"), search(false, 2, emptySet(), emptySet(), emptySet()));
+    }
+
+    @Test
+    void findAllWithIncludeAndExcludeIngredients() {
+        assertEquals(List.of("Omelette", "Pancakes"), search(null, null, Set.of("EGGS"), emptySet(), emptySet()));
+        assertEquals(List.of("Pancakes"), search(null, null, Set.of("EGGS", "SUGAR"), emptySet(), emptySet()));
+        assertEquals(List.of("Rhubarb"), search(null, null, emptySet(), Set.of("EGGS", "SALT"), emptySet()));
+        assertEquals(List.of(), search(null, null, Set.of("SALT"), emptySet(), emptySet()));
+    }
+
+    @Test
+    void findAllWithInstructionKeyWords() {
+        assertEquals(List.of("Pancakes"), search(null, null, emptySet(), emptySet(), Set.of("OVEN", "MILK")));
+        assertEquals(List.of("Pancakes"), search(null, null, emptySet(), emptySet(), Set.of("100%")));
+        assertEquals(List.of("Rhubarb"), search(null, null, emptySet(), emptySet(), Set.of("B_S")));
+        assertEquals(List.of(), search(null, null, emptySet(), emptySet(), Set.of("0_%")));
+    }
+
+    @Test
+    void findAllAfterIdPageByPage() {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria(null, 4, emptySet(), emptySet(), emptySet());
+        List<FoodRecipeEntity> firstPage = foodRecipeRepository.findAllAfterId(FoodRecipeSpecifications.matching(criteria), null, 1);
+        assertEquals(List.of("Pancakes"), firstPage.stream().map(FoodRecipeEntity::getRecipeName).collect(toList()));
+
+        List<FoodRecipeEntity> nextPage = foodRecipeRepository.findAllAfterId(FoodRecipeSpecifications.matching(criteria),
+            firstPage.get(0).getId(), 5);
+        assertEquals(List.of("Rhubarb"), nextPage.stream().map(FoodRecipeEntity::getRecipeName).collect(toList()));
+    }
+
+    private List<String> search(Boolean isVegetarian, Integer servings, Set<String> include, Set<String> exclude,
+                                Set<String> keyWords) {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria(isVegetarian, servings, include, exclude, keyWords);
+        return foodRecipeRepository.findAll(FoodRecipeSpecifications.matching(criteria), Sort.by("id"))
+            .stream().map(FoodRecipeEntity::getRecipeName).collect(toList());
+    }
+
+    private void saveFoodRecipe(String name, DishType dishType, Integer servings, String instructions, String... ingredients) {
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        recipeEntity.setRecipeName(name);
+        recipeEntity.setDishType(dishType);
+        recipeEntity.setServings(servings);
+        recipeEntity.setInstructions(instructions);
+        recipeEntity.setIngredients(new ArrayList<>());
+        for (String ingredient : ingredients) {
+            IngredientReferenceEntity referenceEntity = referenceRepository.findByNameEqualsIgnoreCase(ingredient)
+                .orElseGet(() -> {
+                    IngredientReferenceEntity newReference = new IngredientReferenceEntity();
+                    newReference.setName(ingredient);
+                    return referenceRepository.save(newReference);
+                });
+            IngredientEntity ingredientEntity = new IngredientEntity();
+            ingredientEntity.setQuantity(1);
+            ingredientEntity.setReferenceEntity(referenceEntity);
+            recipeEntity.getIngredients().add(ingredientEntity.setFoodRecipe(recipeEntity));
+        }
+        foodRecipeRepository.save(recipeEntity);
+    }
+}
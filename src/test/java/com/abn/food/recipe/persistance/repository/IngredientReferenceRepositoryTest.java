@@ -0,0 +1,31 @@
+package com.abn.food.recipe.persistance.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+
+@DataJpaTest
+class IngredientReferenceRepositoryTest {
+
+    @Autowired private IngredientReferenceRepository referenceRepository;
+
+    @Test
+    void rejectNameEqualIgnoringCase() {
+        IngredientReferenceEntity saffron = referenceRepository.saveAndFlush(getReferenceEntity("Saffron"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> referenceRepository.saveAndFlush(getReferenceEntity("SAFFRON")));
+        assertEquals(saffron.getId(), referenceRepository.findUncachedByNameEqualsIgnoreCase("saffron").orElseThrow().getId());
+    }
+
+    private IngredientReferenceEntity getReferenceEntity(String name) {
+        IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
+        referenceEntity.setName(name);
+        return referenceEntity;
+    }
+}
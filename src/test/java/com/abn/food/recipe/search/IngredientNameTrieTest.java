@@ -0,0 +1,68 @@
+package com.abn.food.recipe.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+
+@ExtendWith(MockitoExtension.class)
+class IngredientNameTrieTest {
+
+    @Mock private IngredientReferenceRepository referenceRepository;
+
+    private IngredientNameTrie ingredientNameTrie;
+
+    @BeforeEach
+    void buildTrie() {
+        when(referenceRepository.findAll()).thenReturn(List.of(getReferenceEntity("Milk"), getReferenceEntity("mint"),
+            getReferenceEntity("milk chocolate"), getReferenceEntity("Eggs"), getReferenceEntity("Miso")));
+        ingredientNameTrie = new IngredientNameTrie(referenceRepository);
+        ingredientNameTrie.build();
+    }
+
+    @Test
+    void completePrefixIgnoringCase() {
+        assertEquals(List.of("Milk", "milk chocolate", "mint", "Miso"), ingredientNameTrie.complete("mi", 10));
+        assertEquals(List.of("Milk", "milk chocolate"), ingredientNameTrie.complete("MIL", 10));
+        assertEquals(List.of("Milk", "milk chocolate"), ingredientNameTrie.complete("mI", 2));
+        assertEquals(List.of("Eggs", "Milk"), ingredientNameTrie.complete("", 2));
+        assertEquals(List.of(), ingredientNameTrie.complete("salt", 10));
+        assertEquals(List.of(), ingredientNameTrie.complete("milky", 10));
+    }
+
+    @Test
+    void addNamesIncrementally() {
+        ingredientNameTrie.add("Mild cheddar");
+        ingredientNameTrie.add("MILK");
+
+        assertEquals(List.of("Mild cheddar", "Milk", "milk chocolate"), ingredientNameTrie.complete("mil", 10));
+        assertEquals(6, ingredientNameTrie.size());
+    }
+
+    @Test
+    void buildTrieBeforeWebServerStarts() {
+        IngredientNameTrie startedTrie = new IngredientNameTrie(referenceRepository);
+        startedTrie.start();
+
+        assertTrue(startedTrie.isRunning());
+        assertTrue(startedTrie.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1);
+        assertEquals(List.of("Milk", "milk chocolate"), startedTrie.complete("mil", 10));
+    }
+
+    private IngredientReferenceEntity getReferenceEntity(String name) {
+        IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
+        referenceEntity.setName(name);
+        return referenceEntity;
+    }
+}
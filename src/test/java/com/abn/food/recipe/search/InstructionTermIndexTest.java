@@ -0,0 +1,108 @@
+package com.abn.food.recipe.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+class InstructionTermIndexTest {
+
+    private static final RoaringBitmap ALL_RECIPES = RoaringBitmap.bitmapOf(IntStream.range(0, 1000).toArray());
+
+    private final InstructionTermIndex termIndex = new InstructionTermIndex();
+
+    @BeforeEach
+    void addRecipes() {
+        termIndex.add(1, "Roast chicken", "Slow roast in oven for two hours");
+        termIndex.add(2, "Pancakes", "Fry in pan on stove");
+        termIndex.add(3, "Slow cooked beans", "Cook slowly on stove, then bake in oven");
+        termIndex.add(4, "Oven fries", "Bake in oven, oven must be hot");
+    }
+
+    @Test
+    void tokenizeIntoUpperCaseTerms() {
+        assertEquals(List.of("SLOW", "ROAST", "2", "HOURS"), InstructionTermIndex.tokenize("slow-roast, 2 hours!"));
+        assertEquals(List.of(), InstructionTermIndex.tokenize(null));
+        assertEquals(Set.of("OVEN", "ROAST"), InstructionTermIndex.queryTerms("oven Roast OVEN"));
+        assertEquals(List.of(TextNormalizer.normalize("stir"), TextNormalizer.normalize("in")), InstructionTermIndex.tokenize("stir in"));
+    }
+
+    @Test
+    void rankByRelevance() {
+        assertArrayEquals(new int[] {1, 3, 4}, rank("slow roast oven", 3));
+        assertArrayEquals(new int[] {1}, rank("slow roast oven", 1));
+        assertArrayEquals(new int[] {4, 1, 3}, rank("oven", 10));
+        assertArrayEquals(new int[0], rank("grill", 10));
+        assertArrayEquals(new int[] {3, 4}, termIndex.rank(InstructionTermIndex.queryTerms("slow roast oven"), RoaringBitmap.bitmapOf(2, 3, 4), 2));
+    }
+
+    @Test
+    void replaceAndRemoveRecipes() {
+        termIndex.add(4, "Salad", "Mix leaves");
+        termIndex.remove(1);
+
+        assertArrayEquals(new int[] {3}, rank("oven", 10));
+        assertArrayEquals(new int[] {4}, rank("salad", 10));
+        termIndex.clear();
+        assertArrayEquals(new int[0], rank("salad", 10));
+    }
+
+    @Test
+    void rankSameRecipesAsExhaustiveScoring() {
+        InstructionTermIndex randomIndex = new InstructionTermIndex();
+        Random random = new Random(42);
+        List<List<String>> recipeTerms = new ArrayList<>();
+        for (int recipeId = 0; recipeId < 1000; recipeId++) {
+            List<String> terms = new ArrayList<>();
+            int length = 3 + random.nextInt(20);
+            for (int i = 0; i < length; i++) {
+                // skewed vocabulary, so that terms have very different document frequencies
+                terms.add("T" + (int) Math.pow(random.nextInt(1000), 2) / 10000);
+            }
+            recipeTerms.add(terms);
+            randomIndex.add(recipeId, null, String.join(" ", terms));
+        }
+
+        for (String query : List.of("T0 T1 T50", "T2 T3", "T90 T98 T99 T0", "T7")) {
+            for (int limit : new int[] {1, 5, 50}) {
+                assertArrayEquals(exhaustiveRank(recipeTerms, query, limit),
+                    randomIndex.rank(InstructionTermIndex.queryTerms(query), ALL_RECIPES, limit), query + " top " + limit);
+            }
+        }
+    }
+
+    private int[] rank(String query, int limit) {
+        return termIndex.rank(InstructionTermIndex.queryTerms(query), ALL_RECIPES, limit);
+    }
+
+    private static int[] exhaustiveRank(List<List<String>> recipeTerms, String query, int limit) {
+        double averageLength = recipeTerms.stream().mapToInt(List::size).average().orElse(0);
+        double[] scores = new double[recipeTerms.size()];
+        for (String term : InstructionTermIndex.queryTerms(query)) {
+            long recipesWithTerm = recipeTerms.stream().filter(terms -> terms.contains(term)).count();
+            double idf = Math.log(1 + (recipeTerms.size() - recipesWithTerm + 0.5) / (recipesWithTerm + 0.5));
+            for (int recipeId = 0; recipeId < recipeTerms.size(); recipeId++) {
+                List<String> terms = recipeTerms.get(recipeId);
+                long frequency = terms.stream().filter(term::equals).count();
+                scores[recipeId] += idf * frequency * (InstructionTermIndex.K1 + 1) / (frequency + InstructionTermIndex.K1
+                    * (1 - InstructionTermIndex.B + InstructionTermIndex.B * terms.size() / averageLength));
+            }
+        }
+        return IntStream.range(0, scores.length)
+            .filter(recipeId -> scores[recipeId] > 0)
+            .boxed()
+            .sorted(Comparator.<Integer>comparingDouble(recipeId -> -scores[recipeId]).thenComparing(recipeId -> recipeId))
+            .limit(limit)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+}
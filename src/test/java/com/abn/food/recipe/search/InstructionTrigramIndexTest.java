@@ -0,0 +1,53 @@
+package com.abn.food.recipe.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+class InstructionTrigramIndexTest {
+
+    private final InstructionTrigramIndex instructionIndex = new InstructionTrigramIndex();
+
+    @BeforeEach
+    void addInstructions() {
+        instructionIndex.add(1, "Bake in Oven");
+        instructionIndex.add(2, "Fry on stove");
+        instructionIndex.add(3, "Mix and bake slowly in the oven");
+    }
+
+    @Test
+    void tokenizeIntoDistinctUpperCaseTrigrams() {
+        assertEquals(0, InstructionTrigramIndex.tokenize("ab").length);
+        assertEquals(0, InstructionTrigramIndex.tokenize(null).length);
+        assertArrayEquals(InstructionTrigramIndex.tokenize("OVEN"), InstructionTrigramIndex.tokenize("oven"));
+        assertEquals(3, InstructionTrigramIndex.tokenize("aaaa a").length);
+    }
+
+    @Test
+    void narrowToRecipesWithAllKeywordTrigrams() {
+        assertArrayEquals(new int[] {1, 3}, narrow("OVEN"));
+        assertArrayEquals(new int[] {1, 3}, narrow("BAKE"));
+        assertArrayEquals(new int[] {2}, narrow("STOVE"));
+        assertArrayEquals(new int[0], narrow("GRILL"));
+        assertArrayEquals(new int[] {1, 2, 3, 4}, narrow("ON"));
+    }
+
+    @Test
+    void removeRecipe() {
+        long[] trigrams = instructionIndex.add(4, "Grill in oven");
+        assertArrayEquals(new int[] {4}, narrow("GRILL"));
+
+        instructionIndex.remove(4, trigrams);
+        assertArrayEquals(new int[0], narrow("GRILL"));
+        assertArrayEquals(new int[] {1, 3}, narrow("OVEN"));
+    }
+
+    private int[] narrow(String keyWord) {
+        RoaringBitmap matched = RoaringBitmap.bitmapOf(1, 2, 3, 4);
+        instructionIndex.narrow(matched, keyWord);
+        return matched.toArray();
+    }
+}
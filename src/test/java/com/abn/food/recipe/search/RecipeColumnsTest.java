@@ -0,0 +1,55 @@
+package com.abn.food.recipe.search;
+
+import static com.abn.food.recipe.enums.DishType.NON_VEGETARIAN;
+import static com.abn.food.recipe.enums.DishType.VEGAN;
+import static com.abn.food.recipe.enums.DishType.VEGETARIAN;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RecipeColumnsTest {
+
+    private final RecipeColumns recipeColumns = new RecipeColumns();
+
+    @Test
+    void selectAcrossBlocks() {
+        for (int id = 1; id <= 200; id++) {
+            recipeColumns.put(id, id % 2 == 0 ? NON_VEGETARIAN : VEGAN, id % 100);
+        }
+
+        assertEquals(100, recipeColumns.select(true, null).getCardinality());
+        assertArrayEquals(new int[] {65, 165}, recipeColumns.select(true, 65).toArray());
+        assertArrayEquals(new int[] {64, 164}, recipeColumns.select(false, 64).toArray());
+        assertEquals(200, recipeColumns.select(false, null).getCardinality());
+    }
+
+    @Test
+    void compactRemovedFoodRecipes() {
+        for (int id = 1; id <= 10; id++) {
+            recipeColumns.put(id, VEGAN, 2);
+        }
+        recipeColumns.remove(3);
+        recipeColumns.put(3, VEGETARIAN, 4);
+        for (int id = 4; id <= 9; id++) {
+            recipeColumns.remove(id);
+        }
+
+        assertEquals(4, recipeColumns.size());
+        assertArrayEquals(new int[] {1, 2, 10}, recipeColumns.select(false, 2).toArray());
+        assertArrayEquals(new int[] {3}, recipeColumns.select(true, 4).toArray());
+    }
+
+    @Test
+    void rejectServingsOutsideOfColumns() {
+        recipeColumns.put(1, VEGAN, 300);
+
+        assertTrue(RecipeColumns.canSelect(RecipeColumns.MAX_SERVINGS));
+        assertFalse(RecipeColumns.canSelect(RecipeColumns.MAX_SERVINGS + 1));
+        assertArrayEquals(new int[0], recipeColumns.select(false, RecipeColumns.MAX_SERVINGS).toArray());
+        assertThrows(IllegalArgumentException.class, () -> recipeColumns.select(false, 300));
+    }
+}
@@ -0,0 +1,84 @@
+package com.abn.food.recipe.search;
+
+import static com.abn.food.recipe.enums.DishType.NON_VEGETARIAN;
+import static com.abn.food.recipe.enums.DishType.VEGAN;
+import static java.util.Collections.emptySet;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+
+class RecipeSearchCriteriaTest {
+
+    private static final Map<String, Integer> REFERENCE_IDS = Map.of("EGGS", 1, "MILK", 2, "SUGAR", 3, "RHUBARB", 4);
+
+    private final FoodRecipeEntity pancakes = getFoodRecipeEntity(NON_VEGETARIAN, "Fry in pan", 3L, 1L, 2L, 1L);
+    private final FoodRecipeEntity rhubarb = getFoodRecipeEntity(VEGAN, "Poach on stove", 4L, 3L);
+
+    @Test
+    void matchIngredientsByReferenceIds() {
+        assertArrayEquals(new int[] {1, 2, 3}, pancakes.getIngredientReferenceIds());
+        assertTrue(matcher(Set.of("EGGS", "SUGAR"), emptySet()).test(pancakes));
+        assertFalse(matcher(Set.of("EGGS", "SUGAR"), emptySet()).test(rhubarb));
+        assertTrue(matcher(emptySet(), Set.of("MILK", "SALT")).test(rhubarb));
+        assertFalse(matcher(emptySet(), Set.of("MILK", "SALT")).test(pancakes));
+        assertFalse(matcher(Set.of("SUGAR", "SALT"), emptySet()).test(pancakes));
+    }
+
+    @Test
+    void getUsedFiltersWithoutValues() {
+        assertEquals("none", new RecipeSearchCriteria(null, null, emptySet(), emptySet(), emptySet()).getUsedFilters());
+        assertEquals("isVegetarian-includeIngredients-instructions",
+            new RecipeSearchCriteria(false, null, Set.of("MILK", "EGGS"), emptySet(), Set.of("OVEN")).getUsedFilters());
+        assertEquals("numberOfServings-excludeIngredients",
+            new RecipeSearchCriteria(null, 4, emptySet(), Set.of("SUGAR"), emptySet()).getUsedFilters());
+    }
+
+    @Test
+    void matchDishTypeServingsAndInstructions() {
+        assertFalse(new RecipeSearchCriteria(true, null, emptySet(), emptySet(), emptySet()).matcher(REFERENCE_IDS).test(pancakes));
+        assertTrue(new RecipeSearchCriteria(true, 2, emptySet(), emptySet(), Set.of("STOVE")).matcher(REFERENCE_IDS).test(rhubarb));
+        assertFalse(new RecipeSearchCriteria(null, 4, emptySet(), emptySet(), emptySet()).matcher(REFERENCE_IDS).test(rhubarb));
+        assertFalse(new RecipeSearchCriteria(null, null, emptySet(), emptySet(), Set.of("OVEN")).matcher(REFERENCE_IDS).test(rhubarb));
+    }
+
+    @Test
+    void recomputeReferenceIdsWhenIngredientsChange() {
+        assertArrayEquals(new int[] {3, 4}, rhubarb.getIngredientReferenceIds());
+        rhubarb.getIngredients().remove(0);
+        rhubarb.ingredientsChanged();
+
+        assertArrayEquals(new int[] {3}, rhubarb.getIngredientReferenceIds());
+    }
+
+    private Predicate<FoodRecipeEntity> matcher(Set<String> include, Set<String> exclude) {
+        return new RecipeSearchCriteria(null, null, include, exclude, emptySet()).matcher(REFERENCE_IDS);
+    }
+
+    private FoodRecipeEntity getFoodRecipeEntity(DishType dishType, String instructions, Long... referenceIds) {
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        recipeEntity.setDishType(dishType);
+        recipeEntity.setServings(2);
+        recipeEntity.setInstructions(instructions);
+        recipeEntity.setIngredients(new ArrayList<>());
+        for (Long referenceId : referenceIds) {
+            IngredientEntity ingredientEntity = new IngredientEntity();
+            ingredientEntity.setReferenceEntity(new IngredientReferenceEntity());
+            ingredientEntity.getReferenceEntity().setId(referenceId);
+            recipeEntity.getIngredients().add(ingredientEntity);
+        }
+        return recipeEntity;
+    }
+}
@@ -0,0 +1,203 @@
+package com.abn.food.recipe.search;
+
+import static com.abn.food.recipe.enums.DishType.NON_VEGETARIAN;
+import static com.abn.food.recipe.enums.DishType.VEGAN;
+import static com.abn.food.recipe.enums.DishType.VEGETARIAN;
+import static java.util.Collections.emptySet;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.model.RecipeFacets;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+
+class RecipeSearchIndexTest {
+
+    private final RecipeSearchIndex recipeSearchIndex = new RecipeSearchIndex(true, 0, 0, false);
+
+    @BeforeEach
+    void indexFoodRecipes() {
+        recipeSearchIndex.index(getFoodRecipeEntity(1L, NON_VEGETARIAN, 4, "eggs", "milk"));
+        FoodRecipeEntity pancakes = getFoodRecipeEntity(2L, VEGETARIAN, 2, "milk", "sugar");
+        pancakes.setInstructions("Fry in pan");
+        recipeSearchIndex.index(pancakes);
+        FoodRecipeEntity poachedRhubarb = getFoodRecipeEntity(3L, VEGAN, 4, "sugar", "rhubarb");
+        poachedRhubarb.setInstructions("Poach rhubarb in sugar syrup on stove");
+        recipeSearchIndex.index(poachedRhubarb);
+    }
+
+    @Test
+    void searchWithoutFilters() {
+        assertArrayEquals(new int[] {1, 2, 3}, search(null, null, emptySet(), emptySet()));
+    }
+
+    @Test
+    void searchVegetarianAndServings() {
+        assertArrayEquals(new int[] {2, 3}, search(true, null, emptySet(), emptySet()));
+        assertArrayEquals(new int[] {1, 2, 3}, search(false, null, emptySet(), emptySet()));
+        assertArrayEquals(new int[] {3}, search(true, 4, emptySet(), emptySet()));
+        assertArrayEquals(new int[0], search(null, 12, emptySet(), emptySet()));
+    }
+
+    @Test
+    void searchIncludeAndExcludeIngredients() {
+        assertArrayEquals(new int[] {1, 2}, search(null, null, Set.of("MILK"), emptySet()));
+        assertArrayEquals(new int[] {2}, search(null, null, Set.of("MILK", "SUGAR"), emptySet()));
+        assertArrayEquals(new int[] {1}, search(null, null, Set.of("MILK"), Set.of("SUGAR")));
+        assertArrayEquals(new int[] {1, 2, 3}, search(null, null, emptySet(), Set.of("SALT")));
+        assertArrayEquals(new int[0], search(null, null, Set.of("SALT"), emptySet()));
+    }
+
+    @Test
+    void searchInstructionKeyWordCandidates() {
+        assertArrayEquals(new int[] {1, 3}, search(Set.of("STOVE")));
+        assertArrayEquals(new int[] {3}, search(Set.of("STOVE", "POACH")));
+        assertArrayEquals(new int[0], search(Set.of("OVEN")));
+    }
+
+    @Test
+    void updateAndRemoveFoodRecipe() {
+        FoodRecipeEntity updatedRecipe = getFoodRecipeEntity(1L, VEGAN, 2, "rhubarb");
+        updatedRecipe.setInstructions("Bake in oven");
+        recipeSearchIndex.index(updatedRecipe);
+        assertArrayEquals(new int[0], search(null, null, Set.of("EGGS"), emptySet()));
+        assertArrayEquals(new int[] {3}, search(Set.of("STOVE")));
+        assertArrayEquals(new int[] {1}, search(Set.of("OVEN")));
+        assertArrayEquals(new int[] {1, 3}, search(true, null, Set.of("RHUBARB"), emptySet()));
+        assertArrayEquals(new int[] {1, 2}, search(null, 2, emptySet(), emptySet()));
+
+        recipeSearchIndex.remove(1L);
+        recipeSearchIndex.remove(5L);
+        assertArrayEquals(new int[0], search(Set.of("OVEN")));
+        assertArrayEquals(new int[] {3}, search(null, null, Set.of("RHUBARB"), emptySet()));
+        assertArrayEquals(new int[] {2}, search(null, 2, emptySet(), emptySet()));
+
+        recipeSearchIndex.clear();
+        assertTrue(recipeSearchIndex.search(criteria(null, null, emptySet(), emptySet())).isEmpty());
+    }
+
+    @Test
+    void skipStaleIndexingAfterNewerVersionOrRemoval() {
+        FoodRecipeEntity newerRecipe = getFoodRecipeEntity(1L, VEGAN, 4, "rhubarb");
+        ReflectionTestUtils.setField(newerRecipe, "version", 2L);
+        FoodRecipeEntity olderRecipe = getFoodRecipeEntity(1L, NON_VEGETARIAN, 4, "eggs");
+        ReflectionTestUtils.setField(olderRecipe, "version", 1L);
+        recipeSearchIndex.index(newerRecipe);
+        recipeSearchIndex.index(olderRecipe);
+        assertArrayEquals(new int[] {1, 3}, search(null, null, Set.of("RHUBARB"), emptySet()));
+
+        // indexed by an update which committed before the removal, but came after it
+        recipeSearchIndex.remove(2L);
+        recipeSearchIndex.index(getFoodRecipeEntity(2L, VEGETARIAN, 2, "milk", "sugar"));
+        assertArrayEquals(new int[0], search(null, null, Set.of("MILK"), emptySet()));
+
+        // tombstones outlive rebuilds
+        recipeSearchIndex.clear();
+        recipeSearchIndex.index(getFoodRecipeEntity(2L, VEGETARIAN, 2, "milk", "sugar"));
+        recipeSearchIndex.index(getFoodRecipeEntity(3L, VEGAN, 4, "sugar", "rhubarb"));
+        assertArrayEquals(new int[] {3}, search(null, null, emptySet(), emptySet()));
+    }
+
+    @Test
+    void rankMatchedFoodRecipes() {
+        assertArrayEquals(new int[] {3, 1}, recipeSearchIndex.rank(criteria(null, null, emptySet(), emptySet()), "rhubarb stove", 10));
+        assertArrayEquals(new int[] {3}, recipeSearchIndex.rank(criteria(true, null, emptySet(), emptySet()), "rhubarb stove", 10));
+        assertArrayEquals(new int[] {3}, recipeSearchIndex.rank(criteria(null, null, emptySet(), emptySet()), "Rhubarb, stove!", 1));
+
+        recipeSearchIndex.remove(3L);
+        assertArrayEquals(new int[] {1}, recipeSearchIndex.rank(criteria(null, null, emptySet(), emptySet()), "rhubarb stove", 10));
+    }
+
+    @Test
+    void countFacetsOfMatchedFoodRecipes() {
+        RecipeFacets facets = recipeSearchIndex.facets(recipeSearchIndex.search(criteria(null, null, emptySet(), Set.of("EGGS"))), 2);
+
+        assertEquals(2L, facets.getMatched());
+        assertEquals(Map.of(VEGETARIAN, 1L, VEGAN, 1L), facets.getDishTypes());
+        assertEquals(Map.of(2, 1L, 4, 1L), facets.getServings());
+        assertEquals(List.of("sugar", "milk"), new ArrayList<>(facets.getIngredients().keySet()));
+        assertEquals(2L, facets.getIngredients().get("sugar"));
+    }
+
+    @Test
+    void searchSegmentsInParallel() {
+        RecipeSearchIndex parallelIndex = new RecipeSearchIndex(true, 2, 0, false);
+        try {
+            int segmentId = (int) RecipeSearchIndex.SEGMENT_SIZE + 1;
+            int lastSegmentId = 3 * (int) RecipeSearchIndex.SEGMENT_SIZE + 5;
+            parallelIndex.index(getFoodRecipeEntity(1L, NON_VEGETARIAN, 4, "eggs", "milk"));
+            FoodRecipeEntity pancakes = getFoodRecipeEntity((long) segmentId, VEGETARIAN, 2, "milk", "sugar");
+            pancakes.setInstructions("Fry in pan");
+            parallelIndex.index(pancakes);
+            parallelIndex.index(getFoodRecipeEntity((long) lastSegmentId, VEGAN, 4, "sugar", "rhubarb"));
+
+            assertArrayEquals(new int[] {1, segmentId}, parallelIndex.search(criteria(null, null, Set.of("MILK"), emptySet())).toArray());
+            assertArrayEquals(new int[] {segmentId, lastSegmentId}, parallelIndex.search(criteria(true, null, emptySet(), emptySet())).toArray());
+            assertArrayEquals(new int[] {1}, parallelIndex.search(criteria(null, 4, emptySet(), Set.of("SUGAR"))).toArray());
+            assertArrayEquals(new int[] {1, lastSegmentId},
+                parallelIndex.search(new RecipeSearchCriteria(null, null, emptySet(), emptySet(), Set.of("STOVE"))).toArray());
+        }
+        finally {
+            parallelIndex.close();
+        }
+    }
+
+    @Test
+    void searchVegetarianAndServingsFromColumns() {
+        RecipeSearchIndex columnarIndex = new RecipeSearchIndex(true, 0, 0, true);
+        columnarIndex.index(getFoodRecipeEntity(1L, NON_VEGETARIAN, 4, "eggs", "milk"));
+        columnarIndex.index(getFoodRecipeEntity(2L, VEGETARIAN, 2, "milk", "sugar"));
+        columnarIndex.index(getFoodRecipeEntity(3L, VEGAN, 4, "sugar", "rhubarb"));
+        columnarIndex.index(getFoodRecipeEntity(4L, VEGAN, 300, "rhubarb"));
+
+        assertArrayEquals(new int[] {2, 3, 4}, columnarIndex.search(criteria(true, null, emptySet(), emptySet())).toArray());
+        assertArrayEquals(new int[] {3}, columnarIndex.search(criteria(true, 4, emptySet(), emptySet())).toArray());
+        assertArrayEquals(new int[] {2}, columnarIndex.search(criteria(true, null, Set.of("SUGAR"), Set.of("RHUBARB"))).toArray());
+        assertArrayEquals(new int[] {4}, columnarIndex.search(criteria(true, 300, emptySet(), emptySet())).toArray());
+
+        columnarIndex.index(getFoodRecipeEntity(1L, VEGETARIAN, 4, "eggs"));
+        columnarIndex.remove(3L);
+        assertArrayEquals(new int[] {1}, columnarIndex.search(criteria(true, 4, emptySet(), emptySet())).toArray());
+    }
+
+    private int[] search(Set<String> instructionKeyWords) {
+        return recipeSearchIndex.search(new RecipeSearchCriteria(null, null, emptySet(), emptySet(), instructionKeyWords)).toArray();
+    }
+
+    private int[] search(Boolean isVegetarian, Integer servings, Set<String> include, Set<String> exclude) {
+        return recipeSearchIndex.search(criteria(isVegetarian, servings, include, exclude)).toArray();
+    }
+
+    private RecipeSearchCriteria criteria(Boolean isVegetarian, Integer servings, Set<String> include, Set<String> exclude) {
+        return new RecipeSearchCriteria(isVegetarian, servings, include, exclude, emptySet());
+    }
+
+    private FoodRecipeEntity getFoodRecipeEntity(Long id, DishType dishType, Integer servings, String... ingredients) {
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        recipeEntity.setId(id);
+        recipeEntity.setDishType(dishType);
+        recipeEntity.setServings(servings);
+        recipeEntity.setInstructions("Cook on stove " + String.join(", ", ingredients));
+        recipeEntity.setIngredients(new ArrayList<>());
+        for (String ingredient : ingredients) {
+            IngredientEntity ingredientEntity = new IngredientEntity();
+            ingredientEntity.setReferenceEntity(new IngredientReferenceEntity());
+            ingredientEntity.getReferenceEntity().setId((long) ingredient.hashCode());
+            ingredientEntity.getReferenceEntity().setName(ingredient);
+            recipeEntity.getIngredients().add(ingredientEntity);
+        }
+        return recipeEntity;
+    }
+}
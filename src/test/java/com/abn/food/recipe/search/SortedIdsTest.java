@@ -0,0 +1,25 @@
+package com.abn.food.recipe.search;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SortedIdsTest {
+
+    @Test
+    void containsAll() {
+        assertTrue(SortedIds.containsAll(new int[] {1, 3, 5, 7}, new int[0]));
+        assertTrue(SortedIds.containsAll(new int[] {1, 3, 5, 7}, new int[] {1, 7}));
+        assertFalse(SortedIds.containsAll(new int[] {1, 3, 5, 7}, new int[] {3, 4}));
+        assertFalse(SortedIds.containsAll(new int[] {1, 3}, new int[] {1, 3, 5}));
+        assertFalse(SortedIds.containsAll(new int[] {1, 3}, new int[] {8}));
+    }
+
+    @Test
+    void isDisjoint() {
+        assertTrue(SortedIds.isDisjoint(new int[] {1, 3, 5}, new int[0]));
+        assertTrue(SortedIds.isDisjoint(new int[] {1, 3, 5}, new int[] {2, 4, 6}));
+        assertFalse(SortedIds.isDisjoint(new int[] {1, 3, 5}, new int[] {0, 5}));
+    }
+}
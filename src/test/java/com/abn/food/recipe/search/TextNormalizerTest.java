@@ -0,0 +1,23 @@
+package com.abn.food.recipe.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+class TextNormalizerTest {
+
+    @Test
+    void normalizeIndependentOfDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals("MILK", TextNormalizer.normalize("milk"));
+            assertEquals("STIR IN RICE", TextNormalizer.normalize("Stir in rice"));
+        }
+        finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.abn.food.recipe.service;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.abn.food.recipe.mapper.FoodRecipeMapper;
+import com.abn.food.recipe.model.BulkIngestError;
+import com.abn.food.recipe.model.BulkIngestReport;
+import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.repository.FoodRecipeRepository;
+import com.abn.food.recipe.search.RecipeSearchIndex;
+
+@ExtendWith(MockitoExtension.class)
+class FoodRecipeBulkServiceImplTest {
+
+    @Mock private FoodRecipeMapper foodRecipeMapper;
+    @Mock private FoodRecipeRepository foodRecipeRepository;
+    @Mock private RecipeSearchIndex recipeSearchIndex;
+    @Mock private RecipeCatalogVersion recipeCatalogVersion;
+    @Mock private RecipeSearchCache recipeSearchCache;
+    @Mock private RecipeCatalog recipeCatalog;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private FoodRecipeBulkServiceImpl foodRecipeBulkService;
+    private final List<List<String>> insertedChunks = new ArrayList<>();
+
+    @BeforeEach
+    void createFoodRecipeBulkService() {
+        foodRecipeBulkService = new FoodRecipeBulkServiceImpl(foodRecipeMapper, foodRecipeRepository, recipeSearchIndex,
+            recipeCatalogVersion, recipeSearchCache, recipeCatalog, transactionManager, 2);
+        doAnswer(invocation -> {
+            FoodRecipe foodRecipe = invocation.getArgument(0);
+            FoodRecipeEntity recipeEntity = invocation.getArgument(1);
+            recipeEntity.setRecipeName(foodRecipe.getRecipeName().trim());
+            return null;
+        }).when(foodRecipeMapper).formFoodRecipeEntity(any(), any(), eq(null));
+    }
+
+    @Test
+    void saveFoodRecipesInChunks() {
+        stubInsertAll();
+        BulkIngestReport report = foodRecipeBulkService.saveFoodRecipes(foodRecipes("Omelette", "Pancakes", "Rhubarb").iterator());
+
+        assertEquals(3, report.getReceived());
+        assertEquals(3, report.getSaved());
+        assertEquals(0, report.getFailed());
+        assertEquals(List.of(List.of("Omelette", "Pancakes"), List.of("Rhubarb")), insertedChunks);
+        verify(recipeSearchIndex, times(3)).index(any());
+        verify(recipeCatalogVersion, times(2)).increment();
+        verify(recipeSearchCache, times(2)).invalidate(anyList());
+    }
+
+    @Test
+    void saveFoodRecipesReportsFailedRecipes() {
+        stubInsertAll();
+        doThrow(new DataIntegrityViolationException("NULL not allowed for column INSTRUCTIONS"))
+            .when(foodRecipeRepository).insertAll(argThat(recipeEntities -> recipeEntities.stream()
+                .anyMatch(entity -> "Broken".equals(entity.getRecipeName()))));
+        BulkIngestReport report = foodRecipeBulkService.saveFoodRecipes(
+            foodRecipes("Omelette", null, "Broken", "Rhubarb", "Pancakes").iterator());
+
+        assertEquals(5, report.getReceived());
+        assertEquals(3, report.getSaved());
+        assertEquals(List.of(1, 2), report.getErrors().stream().map(BulkIngestError::getIndex).collect(toList()));
+        assertEquals("NULL not allowed for column INSTRUCTIONS", report.getErrors().get(1).getMessage());
+        assertEquals(List.of(List.of("Omelette"), List.of("Rhubarb"), List.of("Pancakes")), insertedChunks);
+        verify(recipeSearchIndex, times(3)).index(any());
+    }
+
+    @Test
+    void saveFoodRecipesStopsAtUnreadableContent() {
+        stubInsertAll();
+        Iterator<FoodRecipe> foodRecipes = new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == 1) {
+                    throw new IllegalStateException("Unexpected character");
+                }
+                return true;
+            }
+
+            @Override
+            public FoodRecipe next() {
+                if (next++ > 0) {
+                    throw new NoSuchElementException();
+                }
+                return foodRecipes("Omelette").get(0);
+            }
+        };
+        BulkIngestReport report = foodRecipeBulkService.saveFoodRecipes(foodRecipes);
+
+        assertEquals(1, report.getReceived());
+        assertEquals(1, report.getSaved());
+        assertEquals(1, report.getErrors().get(0).getIndex());
+        assertEquals("Unexpected character", report.getErrors().get(0).getMessage());
+    }
+
+    private void stubInsertAll() {
+        doAnswer(invocation -> {
+            List<FoodRecipeEntity> recipeEntities = invocation.getArgument(0);
+            insertedChunks.add(recipeEntities.stream().map(FoodRecipeEntity::getRecipeName).collect(toList()));
+            return null;
+        }).when(foodRecipeRepository).insertAll(any());
+    }
+
+    private List<FoodRecipe> foodRecipes(String... recipeNames) {
+        List<FoodRecipe> foodRecipes = new ArrayList<>();
+        for (String recipeName : recipeNames) {
+            FoodRecipe foodRecipe = new FoodRecipe();
+            foodRecipe.setRecipeName(recipeName);
+            foodRecipes.add(foodRecipe);
+        }
+        return foodRecipes;
+    }
+}
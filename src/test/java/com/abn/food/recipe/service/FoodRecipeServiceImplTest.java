@@ -4,15 +4,23 @@ import static com.abn.food.recipe.enums.DishType.NON_VEGETARIAN;
 import static com.abn.food.recipe.enums.DishType.VEGAN;
 import static com.abn.food.recipe.enums.DishType.VEGETARIAN;
 import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -20,33 +28,52 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
 
 import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
 import com.abn.food.recipe.mapper.FoodRecipeMapper;
 import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.model.RecipeFacets;
+import com.abn.food.recipe.persistance.SqlStatementCounter;
 import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
 import com.abn.food.recipe.persistance.entity.IngredientEntity;
 import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
 import com.abn.food.recipe.persistance.repository.FoodRecipeRepository;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+import com.abn.food.recipe.search.RecipeSearchIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class FoodRecipeServiceImplTest {
 
+    private static final int LIMIT = 100;
+
     @Mock private FoodRecipeMapper foodRecipeMapper;
     @Mock private FoodRecipeRepository foodRecipeRepository;
+    @Spy private RecipeSearchIndex recipeSearchIndex = new RecipeSearchIndex(true, 0, 0, false);
+    @Spy private RecipeCatalogVersion recipeCatalogVersion = new RecipeCatalogVersion();
+    @Spy private RecipeSearchCache recipeSearchCache = new RecipeSearchCache(new FoodRecipeLinkFactory(), new SimpleMeterRegistry(), 100000);
+    @Spy private RecipeSearchMetrics recipeSearchMetrics = new RecipeSearchMetrics(new SimpleMeterRegistry(), new SqlStatementCounter());
+    @Spy private RecipeCatalog recipeCatalog = new RecipeCatalog(null, new SimpleMeterRegistry(), false, "", 0.5);
+    @Spy private RecipeResponseCache recipeResponseCache = new RecipeResponseCache(new FoodRecipeLinkFactory(), new SimpleMeterRegistry(), 100000);
 
     @InjectMocks private FoodRecipeServiceImpl foodRecipeService;
 
     @Test
     void saveFoodRecipe() {
         FoodRecipe foodRecipeModel = getFoodRecipe();
-        FoodRecipeEntity entity = new FoodRecipeEntity();
+        FoodRecipeEntity entity = getFoodRecipeEntity(1L, "cook on Stove", 4, VEGAN);
         when(foodRecipeRepository.save(any())).thenReturn(entity);
         when(foodRecipeMapper.formFoodRecipeModel(entity, true)).thenReturn(foodRecipeModel);
 
         FoodRecipe savedFoodRecipe = foodRecipeService.saveFoodRecipe(foodRecipeModel);
         verify(foodRecipeMapper).formFoodRecipeEntity(eq(savedFoodRecipe), any(), eq(null));
+        verify(recipeSearchIndex).index(entity);
+        verify(recipeCatalogVersion).increment();
         assertEquals(VEGAN, savedFoodRecipe.getDishType());
         assertEquals(Integer.valueOf(4), savedFoodRecipe.getServings());
     }
@@ -54,7 +81,7 @@ class FoodRecipeServiceImplTest {
     @Test
     void updateFoodRecipe() {
         FoodRecipe foodRecipeModel = getFoodRecipe();
-        FoodRecipeEntity entity = new FoodRecipeEntity();
+        FoodRecipeEntity entity = getFoodRecipeEntity(1L, "cook on Stove", 4, VEGAN);
 
         when(foodRecipeRepository.findById(1L)).thenReturn(Optional.of(entity));
         when(foodRecipeRepository.save(any())).thenReturn(entity);
@@ -62,6 +89,8 @@ class FoodRecipeServiceImplTest {
 
         FoodRecipe updatedFoodRecipe = foodRecipeService.updateFoodRecipe(foodRecipeModel, 1L);
         verify(foodRecipeMapper).formFoodRecipeEntity(updatedFoodRecipe, entity, 1L);
+        verify(recipeSearchIndex).index(entity);
+        verify(recipeResponseCache).invalidate(1L);
         assertEquals(VEGAN, updatedFoodRecipe.getDishType());
         assertEquals(Integer.valueOf(4), updatedFoodRecipe.getServings());
     }
@@ -78,17 +107,29 @@ class FoodRecipeServiceImplTest {
         assertEquals(Integer.valueOf(4), foodRecipe.getServings());
     }
 
+    @Test
+    void getFoodRecipeVersion() {
+        when(foodRecipeRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertEquals(3L, foodRecipeService.getFoodRecipeVersion(1L));
+        assertThrows(IdNotFoundException.class, () -> foodRecipeService.getFoodRecipeVersion(2L));
+    }
+
     @Test
     void removeFoodRecipe() {
+        String catalogVersion = foodRecipeService.getCatalogVersion();
         foodRecipeService.removeFoodRecipe(1L);
         verify(foodRecipeRepository).deleteById(1L);
+        verify(recipeSearchIndex).remove(1L);
+        verify(recipeResponseCache).invalidate(1L);
+        assertNotEquals(catalogVersion, foodRecipeService.getCatalogVersion());
     }
 
     @Test
     void getAllFoodRecipes() {
-        when(foodRecipeRepository.findAll()).thenReturn(getFoodRecipeEntities());
-        when(foodRecipeMapper.formFoodRecipeModel(any(), eq(false))).thenCallRealMethod();
-        List<FoodRecipe> recipes = foodRecipeService.getAllFoodRecipes(null, null, emptySet(), emptySet(), emptySet());
+        indexAndStubFoodRecipeEntities();
+        stubFoodRecipeModelMapping();
+        List<FoodRecipe> recipes = getAllFoodRecipes(foodRecipeService, null, null, emptySet(), emptySet(), emptySet());
 
         assertEquals(3, recipes.size());
         assertEquals(NON_VEGETARIAN, recipes.get(0).getDishType());
@@ -101,9 +142,9 @@ class FoodRecipeServiceImplTest {
 
     @Test
     void getAllFoodRecipesWithVegetarian() {
-        when(foodRecipeRepository.findAll()).thenReturn(getFoodRecipeEntities());
-        when(foodRecipeMapper.formFoodRecipeModel(any(), eq(false))).thenCallRealMethod();
-        List<FoodRecipe> recipes = foodRecipeService.getAllFoodRecipes(true, null, emptySet(), emptySet(), emptySet());
+        indexAndStubFoodRecipeEntities();
+        stubFoodRecipeModelMapping();
+        List<FoodRecipe> recipes = getAllFoodRecipes(foodRecipeService, true, null, emptySet(), emptySet(), emptySet());
 
         assertEquals(2, recipes.size());
         assertEquals(VEGETARIAN, recipes.get(0).getDishType());
@@ -115,17 +156,17 @@ class FoodRecipeServiceImplTest {
 
     @Test
     void getAllFoodRecipesWithIncludeAndExcludeIngredients() {
-        when(foodRecipeRepository.findAll()).thenReturn(getFoodRecipeEntities());
-        List<FoodRecipe> recipes = foodRecipeService.getAllFoodRecipes(true, null, Set.of("MILK"), Set.of("SUGAR"), emptySet());
+        getFoodRecipeEntities().forEach(recipeSearchIndex::index);
+        List<FoodRecipe> recipes = getAllFoodRecipes(foodRecipeService, true, null, Set.of("MILK"), Set.of("SUGAR"), emptySet());
 
         assertEquals(0, recipes.size());
     }
 
     @Test
     void getAllFoodRecipesWithExcludeIngredientsNotMatching() {
-        when(foodRecipeRepository.findAll()).thenReturn(getFoodRecipeEntities());
-        when(foodRecipeMapper.formFoodRecipeModel(any(), eq(false))).thenCallRealMethod();
-        List<FoodRecipe> recipes = foodRecipeService.getAllFoodRecipes(true, 3, Set.of("MILK"), Set.of("SALT"), emptySet());
+        indexAndStubFoodRecipeEntities();
+        stubFoodRecipeModelMapping();
+        List<FoodRecipe> recipes = getAllFoodRecipes(foodRecipeService, true, 3, Set.of("MILK"), Set.of("SALT"), emptySet());
 
         assertEquals(1, recipes.size());
         assertEquals(VEGAN, recipes.get(0).getDishType());
@@ -137,9 +178,9 @@ class FoodRecipeServiceImplTest {
 
     @Test
     void getAllFoodRecipesBySearchingInstructionsKeywords() {
-        when(foodRecipeRepository.findAll()).thenReturn(getFoodRecipeEntities());
-        when(foodRecipeMapper.formFoodRecipeModel(any(), eq(false))).thenCallRealMethod();
-        List<FoodRecipe> recipes = foodRecipeService.getAllFoodRecipes(true, null, emptySet(), emptySet(), Set.of("OVEN"));
+        indexAndStubFoodRecipeEntities();
+        stubFoodRecipeModelMapping();
+        List<FoodRecipe> recipes = getAllFoodRecipes(foodRecipeService, true, null, emptySet(), emptySet(), Set.of("OVEN"));
 
         assertEquals(1, recipes.size());
         assertEquals(VEGETARIAN, recipes.get(0).getDishType());
@@ -149,31 +190,228 @@ class FoodRecipeServiceImplTest {
         assertEquals("milk 500ml", recipes.get(0).getIngredientsWithQuantity().get(1));
     }
 
+    @Test
+    void getAllFoodRecipesPageByPage() {
+        indexAndStubFoodRecipeEntities();
+        stubFoodRecipeModelMapping();
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria(null, null, emptySet(), Set.of("SALT"), emptySet());
+
+        RecipePage firstPage = foodRecipeService.getAllFoodRecipes(criteria, null, 2);
+        assertEquals(2, firstPage.getRecipes().size());
+        assertEquals(NON_VEGETARIAN, firstPage.getRecipes().get(0).getDishType());
+        assertEquals(Long.valueOf(2), firstPage.getNextAfterId());
+
+        RecipePage lastPage = foodRecipeService.getAllFoodRecipes(criteria, firstPage.getNextAfterId(), 2);
+        assertEquals(1, lastPage.getRecipes().size());
+        assertEquals(VEGAN, lastPage.getRecipes().get(0).getDishType());
+        assertNull(lastPage.getNextAfterId());
+    }
+
+    @Test
+    void streamAllFoodRecipes() {
+        indexAndStubFoodRecipeEntities();
+        stubFoodRecipeModelMapping();
+        List<FoodRecipe> recipes = new ArrayList<>();
+        foodRecipeService.streamAllFoodRecipes(new RecipeSearchCriteria(null, null, emptySet(), emptySet(), emptySet()), 1L,
+            recipes::addAll);
+
+        assertEquals(List.of(VEGETARIAN, VEGAN), recipes.stream().map(FoodRecipe::getDishType).collect(toList()));
+        verify(foodRecipeRepository).detachAll();
+    }
+
+    @Test
+    void getAllFoodRecipesPageSkipsRecipesWithoutInstructionKeyWords() {
+        indexAndStubFoodRecipeEntities();
+        stubFoodRecipeModelMapping();
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria(null, null, emptySet(), emptySet(), Set.of("COOK", "S"));
+
+        RecipePage firstPage = foodRecipeService.getAllFoodRecipes(criteria, null, 1);
+        assertEquals(NON_VEGETARIAN, firstPage.getRecipes().get(0).getDishType());
+        assertEquals(Long.valueOf(1), firstPage.getNextAfterId());
+
+        RecipePage lastPage = foodRecipeService.getAllFoodRecipes(criteria, firstPage.getNextAfterId(), 1);
+        assertEquals(VEGAN, lastPage.getRecipes().get(0).getDishType());
+        assertNull(lastPage.getNextAfterId());
+    }
+
+    @Test
+    void getAllFoodRecipesFromDatabaseWhenIndexDisabled() {
+        FoodRecipeServiceImpl databaseSearchService = new FoodRecipeServiceImpl(foodRecipeMapper, foodRecipeRepository,
+            new RecipeSearchIndex(false, 0, 0, false), recipeCatalogVersion, recipeSearchCache, recipeSearchMetrics, recipeCatalog,
+            recipeResponseCache);
+        when(foodRecipeRepository.findAllAfterId(any(), eq(null), eq(LIMIT + 1)))
+            .thenReturn(getFoodRecipeEntities().subList(1, 3));
+        stubFoodRecipeModelMapping();
+        List<FoodRecipe> recipes = getAllFoodRecipes(databaseSearchService, true, null, Set.of("MILK"), emptySet(), emptySet());
+
+        assertEquals(2, recipes.size());
+        assertEquals(VEGETARIAN, recipes.get(0).getDishType());
+        assertEquals(VEGAN, recipes.get(1).getDishType());
+        verify(foodRecipeRepository, never()).findAllWithIngredients(any());
+    }
+
+    @Test
+    void buildSearchIndexInBatches() {
+        when(foodRecipeRepository.findAllAfterId(any(), eq(null), eq(500))).thenReturn(getFoodRecipeEntities());
+        when(foodRecipeRepository.findAllAfterId(any(), eq(3L), eq(500))).thenReturn(List.of());
+        foodRecipeService.buildSearchIndex();
+
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria(true, null, Set.of("EGGS"), emptySet(), emptySet());
+        assertArrayEquals(new int[] {2, 3}, recipeSearchIndex.search(criteria).toArray());
+        verify(foodRecipeRepository, never()).findAll();
+        verify(recipeSearchCache).invalidateAll();
+        verify(recipeCatalogVersion).increment();
+    }
+
+    @Test
+    void buildSearchIndexBeforeWebServerStarts() {
+        when(foodRecipeRepository.findAllAfterId(any(), eq(null), eq(500))).thenReturn(List.of());
+        foodRecipeService.start();
+
+        assertTrue(foodRecipeService.isRunning());
+        assertTrue(foodRecipeService.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1);
+        verify(recipeSearchIndex).clear();
+    }
+
+    @Test
+    void getIndividualFoodRecipeFromCatalog() {
+        RecipeCatalog enabledCatalog = new RecipeCatalog(null, new SimpleMeterRegistry(), true, "", 0.5);
+        enabledCatalog.put(getFoodRecipeEntities());
+        FoodRecipeServiceImpl catalogService = new FoodRecipeServiceImpl(catalogMapper(), foodRecipeRepository,
+            recipeSearchIndex, recipeCatalogVersion, recipeSearchCache, recipeSearchMetrics, enabledCatalog,
+            recipeResponseCache);
+
+        FoodRecipe foodRecipe = catalogService.getIndividualFoodRecipe(2L);
+        assertEquals(VEGETARIAN, foodRecipe.getDishType());
+        assertEquals("cook on Oven", foodRecipe.getInstructions());
+        assertEquals("milk", foodRecipe.getIngredients().get(1).getName());
+        assertThrows(IdNotFoundException.class, () -> catalogService.getIndividualFoodRecipe(4L));
+        assertThrows(IdNotFoundException.class, () -> catalogService.getFoodRecipeVersion(4L));
+        verify(foodRecipeRepository, never()).findById(any());
+    }
+
+    @Test
+    void getAllFoodRecipesFromCatalog() {
+        RecipeCatalog enabledCatalog = new RecipeCatalog(null, new SimpleMeterRegistry(), true, "", 0.5);
+        FoodRecipeServiceImpl catalogService = new FoodRecipeServiceImpl(catalogMapper(), foodRecipeRepository,
+            recipeSearchIndex, recipeCatalogVersion, recipeSearchCache, recipeSearchMetrics, enabledCatalog,
+            recipeResponseCache);
+        List<FoodRecipeEntity> foodRecipeEntities = getFoodRecipeEntities();
+        when(foodRecipeRepository.save(any()))
+            .thenReturn(foodRecipeEntities.get(0), foodRecipeEntities.get(1), foodRecipeEntities.get(2));
+        foodRecipeEntities.forEach(entity -> catalogService.saveFoodRecipe(new FoodRecipe()));
+        catalogService.removeFoodRecipe(1L);
+
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria(null, null, Set.of("MILK"), emptySet(), Set.of("COOK"));
+        RecipePage firstPage = catalogService.getAllFoodRecipes(criteria, null, 1);
+        assertEquals(VEGETARIAN, firstPage.getRecipes().get(0).getDishType());
+        assertEquals("milk 500ml", firstPage.getRecipes().get(0).getIngredientsWithQuantity().get(1));
+        assertEquals(Long.valueOf(2), firstPage.getNextAfterId());
+        assertEquals(List.of(VEGAN), catalogService.getAllFoodRecipes(criteria, 2L, 1).getRecipes().stream()
+            .map(FoodRecipe::getDishType).collect(toList()));
+        verify(foodRecipeRepository, never()).findAllWithIngredients(any());
+    }
+
+    @Test
+    void rankFoodRecipes() {
+        indexAndStubFoodRecipeEntities();
+        stubFoodRecipeModelMapping();
+        RecipePage rankedPage = foodRecipeService.rankFoodRecipes(
+            new RecipeSearchCriteria(null, null, emptySet(), emptySet(), emptySet()), "sun cook", 2);
+
+        assertArrayEquals(new long[] {3L, 1L}, rankedPage.getRecipeIds());
+        assertEquals(List.of(VEGAN, NON_VEGETARIAN), rankedPage.getRecipes().stream().map(FoodRecipe::getDishType).collect(toList()));
+        assertNull(rankedPage.getNextAfterId());
+        assertArrayEquals(new long[] {2L}, foodRecipeService.rankFoodRecipes(
+            new RecipeSearchCriteria(true, null, emptySet(), emptySet(), Set.of("OVEN")), "sun cook", 2).getRecipeIds());
+    }
+
+    @Test
+    void getFoodRecipeFacetsFromIndex() {
+        indexAndStubFoodRecipeEntities();
+        RecipeFacets facets = foodRecipeService.getFoodRecipeFacets(
+            new RecipeSearchCriteria(true, null, Set.of("EGGS"), emptySet(), Set.of("COOK", "OVEN")), 2);
+
+        assertEquals(1L, facets.getMatched());
+        assertEquals(Map.of(VEGETARIAN, 1L), facets.getDishTypes());
+        assertEquals(Map.of(2, 1L), facets.getServings());
+        assertEquals(List.of("eggs", "milk"), new ArrayList<>(facets.getIngredients().keySet()));
+        verify(foodRecipeMapper, never()).formFoodRecipeModel(any(FoodRecipeEntity.class), anyBoolean());
+    }
+
+    @Test
+    void getFoodRecipeFacetsFromDatabaseWhenIndexDisabled() {
+        FoodRecipeServiceImpl databaseSearchService = new FoodRecipeServiceImpl(foodRecipeMapper, foodRecipeRepository,
+            new RecipeSearchIndex(false, 0, 0, false), recipeCatalogVersion, recipeSearchCache, recipeSearchMetrics, recipeCatalog,
+            recipeResponseCache);
+        when(foodRecipeRepository.findAllAfterId(any(), eq(null), eq(500))).thenReturn(getFoodRecipeEntities().subList(1, 3));
+        when(foodRecipeRepository.findAllAfterId(any(), eq(3L), eq(500))).thenReturn(List.of());
+        RecipeFacets facets = databaseSearchService.getFoodRecipeFacets(
+            new RecipeSearchCriteria(true, null, emptySet(), emptySet(), emptySet()), 1);
+
+        assertEquals(2L, facets.getMatched());
+        assertEquals(Map.of(VEGETARIAN, 1L, VEGAN, 1L), facets.getDishTypes());
+        assertEquals(Map.of(2, 1L, 3, 1L), facets.getServings());
+        assertEquals(Map.of("eggs", 2L), facets.getIngredients());
+    }
+
+    private FoodRecipeMapper catalogMapper() {
+        return new FoodRecipeMapper(null, new FoodRecipeLinkFactory(), new SimpleMeterRegistry()) {
+            @Override
+            public void formFoodRecipeEntity(FoodRecipe recipe, FoodRecipeEntity entity, Long id) {
+                // saved entities are stubbed as returned by repository
+            }
+        };
+    }
+
+    private List<FoodRecipe> getAllFoodRecipes(FoodRecipeServiceImpl service, Boolean isVegetarian, Integer numberOfServings,
+                                               Set<String> include, Set<String> exclude, Set<String> keyWords) {
+        RecipeSearchCriteria criteria = new RecipeSearchCriteria(isVegetarian, numberOfServings, include, exclude, keyWords);
+        return service.getAllFoodRecipes(criteria, null, LIMIT).getRecipes();
+    }
+
+    private void stubFoodRecipeModelMapping() {
+        FoodRecipeMapper modelMapper = new FoodRecipeMapper(null, new FoodRecipeLinkFactory(), new SimpleMeterRegistry());
+        when(foodRecipeMapper.formFoodRecipeModel(any(FoodRecipeEntity.class), eq(false)))
+            .thenAnswer(invocation -> modelMapper.formFoodRecipeModel(invocation.<FoodRecipeEntity>getArgument(0), false));
+    }
+
+    private void indexAndStubFoodRecipeEntities() {
+        List<FoodRecipeEntity> foodRecipeEntities = getFoodRecipeEntities();
+        foodRecipeEntities.forEach(recipeSearchIndex::index);
+        when(foodRecipeRepository.findAllWithIngredients(any())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return foodRecipeEntities.stream().filter(entity -> ids.contains(entity.getId())).collect(toList());
+        });
+    }
+
     private List<FoodRecipeEntity> getFoodRecipeEntities() {
         List<FoodRecipeEntity> foodRecipeEntities = new ArrayList<>();
-        foodRecipeEntities.add(getFoodRecipeEntity("cook on Stove", 4, NON_VEGETARIAN));
-        foodRecipeEntities.add(getFoodRecipeEntity("cook on Oven", 2, VEGETARIAN));
-        foodRecipeEntities.add(getFoodRecipeEntity("cook under Sun", 3, VEGAN));
+        foodRecipeEntities.add(getFoodRecipeEntity(1L, "cook on Stove", 4, NON_VEGETARIAN));
+        foodRecipeEntities.add(getFoodRecipeEntity(2L, "cook on Oven", 2, VEGETARIAN));
+        foodRecipeEntities.add(getFoodRecipeEntity(3L, "cook under Sun", 3, VEGAN));
         return foodRecipeEntities;
     }
 
-    private FoodRecipeEntity getFoodRecipeEntity(String instructions, Integer servings, DishType dishType) {
+    private FoodRecipeEntity getFoodRecipeEntity(Long id, String instructions, Integer servings, DishType dishType) {
         FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        recipeEntity.setId(id);
         recipeEntity.setInstructions(instructions);
         recipeEntity.setServings(servings);
         recipeEntity.setDishType(dishType);
         recipeEntity.setIngredients(new ArrayList<>());
-        recipeEntity.getIngredients().add(getIngredients("eggs", 2, null));
-        recipeEntity.getIngredients().add(getIngredients("milk", 500, "ml"));
-        recipeEntity.getIngredients().add(getIngredients("sugar", 100, "gm"));
+        recipeEntity.getIngredients().add(getIngredients(1L, "eggs", 2, null));
+        recipeEntity.getIngredients().add(getIngredients(2L, "milk", 500, "ml"));
+        recipeEntity.getIngredients().add(getIngredients(3L, "sugar", 100, "gm"));
         return recipeEntity;
     }
 
-    private IngredientEntity getIngredients(String name, Integer quantity, String unit) {
+    private IngredientEntity getIngredients(Long referenceId, String name, Integer quantity, String unit) {
         IngredientEntity entity = new IngredientEntity();
         entity.setQuantity(quantity);
         entity.setUnit(unit);
         entity.setReferenceEntity(new IngredientReferenceEntity());
+        entity.getReferenceEntity().setId(referenceId);
         entity.getReferenceEntity().setName(name);
         return entity;
     }
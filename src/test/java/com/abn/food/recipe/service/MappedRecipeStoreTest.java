@@ -0,0 +1,173 @@
+package com.abn.food.recipe.service;
+
+import static com.abn.food.recipe.enums.DishType.VEGAN;
+import static com.abn.food.recipe.enums.DishType.VEGETARIAN;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.abn.food.recipe.enums.DishType;
+
+class MappedRecipeStoreTest {
+
+    private static final Map<Long, String> REFERENCES = Map.of(1L, "eggs", 2L, "milk", 300L, "crème fraîche");
+    private static final LongFunction<String> REFERENCE_NAMES = REFERENCES::get;
+    private static final int REGION_SIZE = 256;
+
+    @TempDir Path directory;
+
+    @Test
+    void readFoodRecipeAfterReopeningStore() throws IOException {
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1)) {
+            store.put(recipe(7L, 2L, VEGAN, "Stir crème fraîche", new CatalogRecipe.Ingredient(300L, null, -5, "gm"),
+                new CatalogRecipe.Ingredient(1L, null, 2, null)));
+            store.put(recipe(1_000_000L, null, null, null));
+        }
+
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1)) {
+            CatalogRecipe recipe = store.get(7L);
+            assertEquals(2L, recipe.getVersion());
+            assertEquals("recipe 7", recipe.getRecipeName());
+            assertEquals(VEGAN, recipe.getDishType());
+            assertEquals(4, recipe.getServings());
+            assertEquals("Stir crème fraîche", recipe.getInstructions());
+            assertEquals("crème fraîche", recipe.getIngredients().get(0).getName());
+            assertEquals(-5, recipe.getIngredients().get(0).getQuantity());
+            assertEquals("gm", recipe.getIngredients().get(0).getUnit());
+            assertEquals(2, recipe.getIngredients().get(1).getQuantity());
+            assertNull(recipe.getIngredients().get(1).getUnit());
+
+            CatalogRecipe emptyRecipe = store.get(1_000_000L);
+            assertNull(emptyRecipe.getVersion());
+            assertNull(emptyRecipe.getDishType());
+            assertNull(emptyRecipe.getInstructions());
+            assertEquals(List.of(), emptyRecipe.getIngredients());
+            assertNull(store.get(8L));
+            assertNull(store.get(Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void replaceOnlyWithNewerVersion() throws IOException {
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1)) {
+            store.put(recipe(1L, 1L, VEGAN, "Boil"));
+            long dataSize = Files.size(directory.resolve(MappedRecipeStore.DATA_FILE));
+            store.put(recipe(1L, 1L, VEGETARIAN, "Boil"));
+            assertEquals(VEGAN, store.get(1L).getDishType());
+
+            // records are appended to the next region once the current one is full
+            for (long version = 2; version < 20; version++) {
+                store.put(recipe(1L, version, VEGETARIAN, "Bake in oven"));
+            }
+            assertEquals(19L, store.get(1L).getVersion());
+            assertEquals(VEGETARIAN, store.get(1L).getDishType());
+            assertTrue(Files.size(directory.resolve(MappedRecipeStore.DATA_FILE)) > dataSize);
+        }
+    }
+
+    @Test
+    void removeFoodRecipes() throws IOException {
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1)) {
+            for (long id = 1; id <= 40; id++) {
+                store.put(recipe(id, 0L, VEGAN, "Boil"));
+            }
+            store.remove(3L);
+            store.retain(RoaringBitmap.bitmapOf(1, 2, 3, 40));
+
+            assertEquals(1L, store.get(1L).getId());
+            assertNull(store.get(3L));
+            assertNull(store.get(39L));
+            assertEquals(40L, store.get(40L).getId());
+        }
+    }
+
+    @Test
+    void compactDeadRecordsAboveRatio() throws IOException {
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 0.5)) {
+            for (long id = 1; id <= 10; id++) {
+                store.put(recipe(id, 0L, VEGAN, "Boil"));
+            }
+            store.retain(RoaringBitmap.bitmapOf(1, 2, 3, 4, 5, 6));
+            long deadBytes = store.deadBytes();
+            assertTrue(deadBytes > 0);
+
+            // updates leave records behind until dead bytes exceed a region and half of all record bytes
+            for (long version = 1; version < 20; version++) {
+                store.put(recipe(1L, version, VEGETARIAN, "Bake in oven"));
+            }
+            assertTrue(store.deadBytes() < deadBytes);
+            assertEquals(19L, store.get(1L).getVersion());
+            assertEquals(6L, store.get(6L).getId());
+            assertNull(store.get(7L));
+        }
+
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 0.5)) {
+            assertEquals(VEGETARIAN, store.get(1L).getDishType());
+            assertEquals(6L, store.get(6L).getId());
+            assertNull(store.get(7L));
+            assertFalse(Files.exists(directory.resolve(MappedRecipeStore.DATA_FILE + ".compacted")));
+        }
+    }
+
+    @Test
+    void finishCompactionInterruptedAfterIndexWasReplaced() throws IOException {
+        Path compactedDirectory = directory.resolve("compacted");
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1);
+             MappedRecipeStore compactedStore = new MappedRecipeStore(compactedDirectory, REFERENCE_NAMES, REGION_SIZE, 1)) {
+            store.put(recipe(1L, 0L, VEGAN, "Boil"));
+            store.put(recipe(1L, 1L, VEGAN, "Boil"));
+            compactedStore.put(recipe(2L, 0L, VEGETARIAN, "Bake"));
+        }
+        Files.move(compactedDirectory.resolve(MappedRecipeStore.INDEX_FILE), directory.resolve(MappedRecipeStore.INDEX_FILE),
+            REPLACE_EXISTING);
+        Files.move(compactedDirectory.resolve(MappedRecipeStore.DATA_FILE), directory.resolve(MappedRecipeStore.DATA_FILE + ".compacted"));
+
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1)) {
+            assertNull(store.get(1L));
+            assertEquals(VEGETARIAN, store.get(2L).getDishType());
+            assertEquals(0, store.deadBytes());
+        }
+    }
+
+    @Test
+    void rejectUnsupportedFormatVersion() throws IOException {
+        new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1).close();
+        try (FileChannel channel = FileChannel.open(directory.resolve(MappedRecipeStore.DATA_FILE), WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 2), Integer.BYTES);
+        }
+
+        assertThrows(IOException.class, () -> new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1));
+    }
+
+    @Test
+    void rejectFoodRecipeLargerThanRegion() throws IOException {
+        try (MappedRecipeStore store = new MappedRecipeStore(directory, REFERENCE_NAMES, REGION_SIZE, 1)) {
+            CatalogRecipe recipe = recipe(1L, 0L, VEGAN, "Boil".repeat(REGION_SIZE));
+
+            assertThrows(IllegalArgumentException.class, () -> store.put(recipe));
+            assertNull(store.get(1L));
+        }
+    }
+
+    private CatalogRecipe recipe(Long id, Long version, DishType dishType, String instructions,
+                                 CatalogRecipe.Ingredient... ingredients) {
+        return new CatalogRecipe(id, version, "recipe " + id, dishType, 4, instructions, List.of(ingredients));
+    }
+}
@@ -0,0 +1,95 @@
+package com.abn.food.recipe.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+
+class RecipeCatalogSnapshotTest {
+
+    @Test
+    void shareUntouchedSegmentsWithPreviousSnapshot() {
+        RecipeCatalogSnapshot snapshot = RecipeCatalogSnapshot.EMPTY
+            .withRecipes(List.of(recipe(1L, 0L, "milk"), recipe(RecipeCatalogSnapshot.SEGMENT_SIZE + 1L, 0L, "eggs")));
+        CatalogRecipe untouched = snapshot.get(RecipeCatalogSnapshot.SEGMENT_SIZE + 1L);
+
+        RecipeCatalogSnapshot updated = snapshot.withRecipes(List.of(recipe(1L, 1L, "milk")));
+
+        assertEquals(0L, snapshot.get(1L).getVersion());
+        assertEquals(1L, updated.get(1L).getVersion());
+        assertSame(untouched, updated.get(RecipeCatalogSnapshot.SEGMENT_SIZE + 1L));
+        assertEquals(2, updated.size());
+        assertSame(snapshot.getReferenceNames(), updated.getReferenceNames());
+    }
+
+    @Test
+    void keepNewerVersionOfFoodRecipe() {
+        RecipeCatalogSnapshot snapshot = RecipeCatalogSnapshot.EMPTY.withRecipes(List.of(recipe(1L, 2L, "milk")));
+
+        assertEquals(2L, snapshot.withRecipes(List.of(recipe(1L, 1L, "milk"))).get(1L).getVersion());
+    }
+
+    @Test
+    void removeFoodRecipeAndKeepIngredientReferences() {
+        RecipeCatalogSnapshot snapshot = RecipeCatalogSnapshot.EMPTY
+            .withRecipes(List.of(recipe(3L, 0L, "sugar"), recipe(2L, 0L, "milk", "eggs")));
+
+        RecipeCatalogSnapshot removed = snapshot.withoutRecipe(2L);
+
+        assertNull(removed.get(2L));
+        assertEquals(1, removed.size());
+        assertSame(removed, removed.withoutRecipe(2L));
+        assertEquals(List.of("milk", "eggs", "sugar"), removed.getReferenceNames());
+        assertNull(removed.get(-1L));
+        assertNull(removed.get(Long.MAX_VALUE));
+    }
+
+    @Test
+    void addIngredientReferencesAcrossSegments() {
+        RecipeCatalogSnapshot snapshot = RecipeCatalogSnapshot.EMPTY.withRecipes(List.of(recipe(1L, 0L, "milk", "eggs")));
+        long distantId = 3L * RecipeCatalogSnapshot.SEGMENT_SIZE + 5;
+
+        RecipeCatalogSnapshot added = snapshot.withReferences(Map.of(distantId, "saffron", 2L, "sugar", 0L, "cream"));
+
+        assertEquals(List.of("milk", "eggs", "sugar", "saffron"), added.getReferenceNames());
+        assertEquals("saffron", added.getReferenceName(distantId));
+        assertNull(snapshot.getReferenceName(distantId));
+        assertEquals(List.of("milk", "eggs"), snapshot.getReferenceNames());
+        assertSame(added, added.withReferences(Map.of(2L, "sugar")));
+        assertNull(added.getReferenceName(distantId + RecipeCatalogSnapshot.SEGMENT_SIZE));
+    }
+
+    private CatalogRecipe recipe(Long id, Long version, String... ingredients) {
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        recipeEntity.setId(id);
+        recipeEntity.setDishType(DishType.VEGAN);
+        recipeEntity.setServings(2);
+        recipeEntity.setInstructions("Cook on stove");
+        recipeEntity.setIngredients(new ArrayList<>());
+        for (String ingredient : ingredients) {
+            IngredientEntity ingredientEntity = new IngredientEntity();
+            ingredientEntity.setQuantity(1);
+            ingredientEntity.setReferenceEntity(new IngredientReferenceEntity());
+            ingredientEntity.getReferenceEntity().setId(referenceId(ingredient));
+            ingredientEntity.getReferenceEntity().setName(ingredient);
+            recipeEntity.getIngredients().add(ingredientEntity);
+        }
+        ReflectionTestUtils.setField(recipeEntity, "version", version);
+        return CatalogRecipe.of(recipeEntity);
+    }
+
+    private static Long referenceId(String ingredient) {
+        return (long) List.of("milk", "eggs", "sugar").indexOf(ingredient);
+    }
+}
@@ -0,0 +1,99 @@
+package com.abn.food.recipe.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.persistance.repository.IngredientReferenceRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecipeCatalogTest {
+
+    private final IngredientReferenceRepository referenceRepository = mock(IngredientReferenceRepository.class);
+
+    @TempDir Path directory;
+
+    @Test
+    void keepFoodRecipesInStoreAcrossRestart() throws IOException {
+        RecipeCatalog catalog = new RecipeCatalog(referenceRepository, new SimpleMeterRegistry(), true, directory.toString(), 0.5);
+        catalog.put(List.of(getFoodRecipeEntity(1L, "eggs"), getFoodRecipeEntity(2L, "milk")));
+        assertEquals("eggs", catalog.recipes().get(1L).getIngredients().get(0).getName());
+        assertEquals(List.of("eggs", "milk"), catalog.current().getReferenceNames());
+        catalog.close();
+
+        RecipeCatalog restartedCatalog = new RecipeCatalog(referenceRepository, new SimpleMeterRegistry(), true, directory.toString(), 0.5);
+        when(referenceRepository.findAll()).thenReturn(List.of(reference(1L, "eggs"), reference(2L, "milk")));
+        restartedCatalog.loadReferences();
+        assertEquals("milk", restartedCatalog.recipes().get(2L).getIngredients().get(0).getName());
+
+        restartedCatalog.startRebuild();
+        restartedCatalog.put(List.of(getFoodRecipeEntity(1L, "eggs")));
+        restartedCatalog.finishRebuild();
+        assertEquals(1L, restartedCatalog.recipes().get(1L).getId());
+        assertNull(restartedCatalog.recipes().get(2L));
+        restartedCatalog.close();
+    }
+
+    @Test
+    void keepFoodRecipesOnHeapWithoutStorePath() throws IOException {
+        RecipeCatalog catalog = new RecipeCatalog(referenceRepository, new SimpleMeterRegistry(), true, "", 0.5);
+        catalog.put(List.of(getFoodRecipeEntity(1L, "eggs")));
+        catalog.startRebuild();
+
+        assertNull(catalog.recipes().get(1L));
+        assertEquals(List.of("eggs"), catalog.current().getReferenceNames());
+        catalog.close();
+    }
+
+    @Test
+    void skipFoodRecipesAddedAfterRemoval() throws IOException {
+        RecipeCatalog catalog = new RecipeCatalog(referenceRepository, new SimpleMeterRegistry(), true, "", 0.5);
+        RecipeCatalog storedCatalog = new RecipeCatalog(referenceRepository, new SimpleMeterRegistry(), true, directory.toString(), 0.5);
+        for (RecipeCatalog recipeCatalog : List.of(catalog, storedCatalog)) {
+            recipeCatalog.put(List.of(getFoodRecipeEntity(1L, "eggs")));
+            recipeCatalog.remove(1L);
+            // added by an update which committed before the removal, but came after it
+            recipeCatalog.put(List.of(getFoodRecipeEntity(1L, "eggs"), getFoodRecipeEntity(2L, "milk")));
+
+            assertNull(recipeCatalog.recipes().get(1L));
+            assertEquals(2L, recipeCatalog.recipes().get(2L).getId());
+            recipeCatalog.close();
+        }
+    }
+
+    private FoodRecipeEntity getFoodRecipeEntity(Long id, String ingredient) {
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        recipeEntity.setId(id);
+        recipeEntity.setRecipeName("recipe " + id);
+        recipeEntity.setDishType(DishType.VEGAN);
+        recipeEntity.setServings(2);
+        recipeEntity.setInstructions("Cook on stove");
+        recipeEntity.setIngredients(new ArrayList<>());
+        IngredientEntity ingredientEntity = new IngredientEntity();
+        ingredientEntity.setQuantity(1);
+        ingredientEntity.setReferenceEntity(reference(id, ingredient));
+        recipeEntity.getIngredients().add(ingredientEntity);
+        return recipeEntity;
+    }
+
+    private IngredientReferenceEntity reference(Long id, String name) {
+        IngredientReferenceEntity referenceEntity = new IngredientReferenceEntity();
+        referenceEntity.setId(id);
+        referenceEntity.setName(name);
+        return referenceEntity;
+    }
+}
@@ -0,0 +1,71 @@
+package com.abn.food.recipe.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecipeResponseCacheTest {
+
+    private static final byte[] FIRST_VERSION = "{\"id\":1,\"servings\":2}".getBytes();
+    private static final byte[] SECOND_VERSION = "{\"id\":1,\"servings\":4}".getBytes();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecipeResponseCache recipeResponseCache = new RecipeResponseCache(new FoodRecipeLinkFactory(), meterRegistry, 1000);
+
+    @Test
+    void getCachedResponseByVersion() {
+        recipeResponseCache.put(1L, 0L, FIRST_VERSION);
+        recipeResponseCache.put(1L, 1L, SECOND_VERSION);
+
+        assertArrayEquals(FIRST_VERSION, recipeResponseCache.get(1L, 0L));
+        assertArrayEquals(SECOND_VERSION, recipeResponseCache.get(1L, 1L));
+        assertNull(recipeResponseCache.get(1L, 2L));
+        assertNull(recipeResponseCache.get(2L, 0L));
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void invalidateAllVersionsOfFoodRecipe() {
+        recipeResponseCache.put(1L, 0L, FIRST_VERSION);
+        recipeResponseCache.put(1L, 1L, SECOND_VERSION);
+        recipeResponseCache.put(2L, 0L, FIRST_VERSION);
+
+        recipeResponseCache.invalidate(1L);
+
+        assertNull(recipeResponseCache.get(1L, 0L));
+        assertNull(recipeResponseCache.get(1L, 1L));
+        assertArrayEquals(FIRST_VERSION, recipeResponseCache.get(2L, 0L));
+    }
+
+    @Test
+    void cacheResponsesAgainAfterInvalidation() {
+        recipeResponseCache.invalidate(3L);
+        recipeResponseCache.put(1L, 0L, FIRST_VERSION);
+        recipeResponseCache.invalidate(1L);
+
+        recipeResponseCache.put(1L, 1L, SECOND_VERSION);
+
+        assertArrayEquals(SECOND_VERSION, recipeResponseCache.get(1L, 1L));
+        recipeResponseCache.invalidate(1L);
+        assertNull(recipeResponseCache.get(1L, 1L));
+    }
+
+    @Test
+    void disabledCacheWithoutBytes() {
+        RecipeResponseCache disabledCache = new RecipeResponseCache(new FoodRecipeLinkFactory(), meterRegistry, 0);
+
+        disabledCache.put(1L, 0L, FIRST_VERSION);
+
+        assertFalse(disabledCache.isEnabled());
+        assertNull(disabledCache.get(1L, 0L));
+    }
+}
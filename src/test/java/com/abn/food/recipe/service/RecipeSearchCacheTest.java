@@ -0,0 +1,129 @@
+package com.abn.food.recipe.service;
+
+import static com.abn.food.recipe.enums.DishType.VEGAN;
+import static com.abn.food.recipe.enums.DishType.VEGETARIAN;
+import static java.util.Collections.emptySet;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.abn.food.recipe.enums.DishType;
+import com.abn.food.recipe.mapper.FoodRecipeLinkFactory;
+import com.abn.food.recipe.model.FoodRecipe;
+import com.abn.food.recipe.persistance.entity.FoodRecipeEntity;
+import com.abn.food.recipe.persistance.entity.IngredientEntity;
+import com.abn.food.recipe.persistance.entity.IngredientReferenceEntity;
+import com.abn.food.recipe.search.RecipeSearchCriteria;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RecipeSearchCacheTest {
+
+    private static final RecipeSearchCriteria VEGETARIAN_CRITERIA = new RecipeSearchCriteria(true, null, emptySet(), emptySet(), emptySet());
+    private static final RecipeSearchCriteria RHUBARB_CRITERIA = new RecipeSearchCriteria(null, null, Set.of("RHUBARB"), emptySet(), emptySet());
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RecipeSearchCache recipeSearchCache = new RecipeSearchCache(new FoodRecipeLinkFactory(), meterRegistry, 100000);
+
+    @Test
+    void getCachedPageByNormalizedFilters() {
+        RecipePage page = recipeSearchCache.get(criteria(List.of("MILK", "EGGS")), null, 2, () -> page(null, 1L, 2L));
+
+        assertSame(page, recipeSearchCache.get(criteria(List.of("EGGS", "MILK")), null, 2, () -> page(null, 3L)));
+        assertNotSame(page, recipeSearchCache.get(criteria(List.of("EGGS", "MILK")), null, 3, () -> page(null, 1L, 2L)));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.load").tag("result", "success").functionCounter().count());
+    }
+
+    @Test
+    void invalidatePagesContainingRemovedFoodRecipe() {
+        RecipePage firstPage = recipeSearchCache.get(VEGETARIAN_CRITERIA, null, 2, () -> page(3L, 1L, 3L));
+        RecipePage nextPage = recipeSearchCache.get(VEGETARIAN_CRITERIA, 3L, 2, () -> page(null, 5L));
+
+        recipeSearchCache.invalidate(3L);
+
+        assertNotSame(firstPage, recipeSearchCache.get(VEGETARIAN_CRITERIA, null, 2, () -> page(5L, 1L, 5L)));
+        assertSame(nextPage, recipeSearchCache.get(VEGETARIAN_CRITERIA, 3L, 2, () -> page(null)));
+    }
+
+    @Test
+    void invalidatePagesMatchingSavedFoodRecipe() {
+        RecipePage firstPage = recipeSearchCache.get(VEGETARIAN_CRITERIA, null, 2, () -> page(3L, 1L, 3L));
+        RecipePage lastPage = recipeSearchCache.get(VEGETARIAN_CRITERIA, 3L, 2, () -> page(null, 5L));
+        RecipePage rhubarbPage = recipeSearchCache.get(RHUBARB_CRITERIA, null, 2, () -> page(null, 1L));
+
+        recipeSearchCache.invalidate(List.of(getFoodRecipeEntity(7L, VEGAN, "milk")));
+
+        assertSame(firstPage, recipeSearchCache.get(VEGETARIAN_CRITERIA, null, 2, () -> page(3L, 1L, 3L)));
+        assertNotSame(lastPage, recipeSearchCache.get(VEGETARIAN_CRITERIA, 3L, 2, () -> page(null, 5L, 7L)));
+        assertSame(rhubarbPage, recipeSearchCache.get(RHUBARB_CRITERIA, null, 2, () -> page(null, 1L, 7L)));
+
+        // Updated food recipe which does not match anymore is dropped from pages containing it
+        recipeSearchCache.invalidate(List.of(getFoodRecipeEntity(1L, DishType.NON_VEGETARIAN, "rhubarb")));
+        assertNotSame(firstPage, recipeSearchCache.get(VEGETARIAN_CRITERIA, null, 2, () -> page(5L, 3L, 5L)));
+    }
+
+    @Test
+    void dropPageLoadedWhileInvalidated() {
+        RecipePage stalePage = recipeSearchCache.get(VEGETARIAN_CRITERIA, null, 2, () -> {
+            recipeSearchCache.invalidate(9L);
+            return page(null, 1L);
+        });
+
+        assertNotSame(stalePage, recipeSearchCache.get(VEGETARIAN_CRITERIA, null, 2, () -> page(null, 1L)));
+    }
+
+    @Test
+    void weighPagesByEstimatedBytes() {
+        RecipePage shortRecipes = page(null, 1L, 2L);
+        RecipePage longRecipes = page(null, 1L, 2L);
+        longRecipes.getRecipes().forEach(recipe -> recipe.setInstructions("Poach rhubarb in sugar syrup ".repeat(100)));
+
+        assertTrue(RecipeSearchCache.estimateBytes(longRecipes) > RecipeSearchCache.estimateBytes(shortRecipes) + 5000);
+    }
+
+    @Test
+    void loadEveryPageWhenDisabled() {
+        RecipeSearchCache disabledCache = new RecipeSearchCache(new FoodRecipeLinkFactory(), new SimpleMeterRegistry(), 0);
+        RecipePage page = disabledCache.get(VEGETARIAN_CRITERIA, null, 2, () -> page(null, 1L));
+
+        assertNotSame(page, disabledCache.get(VEGETARIAN_CRITERIA, null, 2, () -> page(null, 1L)));
+    }
+
+    private RecipeSearchCriteria criteria(List<String> includeIngredients) {
+        return new RecipeSearchCriteria(null, 4, Set.copyOf(includeIngredients), emptySet(), emptySet());
+    }
+
+    private RecipePage page(Long nextAfterId, long... recipeIds) {
+        List<FoodRecipe> recipes = new ArrayList<>();
+        for (int i = 0; i < recipeIds.length; i++) {
+            recipes.add(new FoodRecipe());
+        }
+        return new RecipePage(recipes, recipeIds, nextAfterId);
+    }
+
+    private FoodRecipeEntity getFoodRecipeEntity(Long id, DishType dishType, String... ingredients) {
+        FoodRecipeEntity recipeEntity = new FoodRecipeEntity();
+        recipeEntity.setId(id);
+        recipeEntity.setDishType(dishType);
+        recipeEntity.setServings(2);
+        recipeEntity.setInstructions("Cook on stove");
+        recipeEntity.setIngredients(new ArrayList<>());
+        for (String ingredient : ingredients) {
+            IngredientEntity ingredientEntity = new IngredientEntity();
+            ingredientEntity.setReferenceEntity(new IngredientReferenceEntity());
+            ingredientEntity.getReferenceEntity().setId((long) ingredient.hashCode());
+            ingredientEntity.getReferenceEntity().setName(ingredient);
+            recipeEntity.getIngredients().add(ingredientEntity);
+        }
+        return recipeEntity;
+    }
+}